@@ -21,16 +21,43 @@ public abstract class BaseClient {
     protected <T> ResponseEntity<T> sendRequest(String url, HttpMethod method,
                                                 Object requestBody, Class<T> responseType,
                                                 Long userId) {
+        return sendRequest(url, method, requestBody, responseType, userId, null);
+    }
+
+    /**
+     * Передаёт серверу ключ идемпотентности: повтор запроса с тем же ключом вернёт исходный результат.
+     */
+    protected <T> ResponseEntity<T> sendRequest(String url, HttpMethod method,
+                                                Object requestBody, Class<T> responseType,
+                                                Long userId, String idempotencyKey) {
         HttpHeaders headers = createHeaders(userId);
-        HttpEntity<Object> requestEntity = new HttpEntity<>(requestBody, headers);
+        if (idempotencyKey != null) {
+            headers.set(Constants.IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        return exchange(url, method, new HttpEntity<>(requestBody, headers), responseType);
+    }
 
-        try {
-            return restTemplate.exchange(url, method, requestEntity, responseType);
-        } catch (HttpClientErrorException e) {
-            return ResponseEntity.status(e.getStatusCode()).build();
-        } catch (RestClientException e) {
-            throw new RuntimeException("Server error", e);
+    /**
+     * Условное изменение: сервер применит его, только если версия объекта совпадает с If-Match, иначе ответит 412.
+     */
+    protected <T> ResponseEntity<T> sendConditionalRequest(String url, HttpMethod method,
+                                                           Object requestBody, Class<T> responseType,
+                                                           Long userId, String ifMatch) {
+        HttpHeaders headers = createHeaders(userId);
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
         }
+        return exchange(url, method, new HttpEntity<>(requestBody, headers), responseType);
+    }
+
+    protected <T> ResponseEntity<T> sendConditionalRequest(String url, HttpMethod method,
+                                                           Object requestBody, Class<T> responseType,
+                                                           String ifMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
+        }
+        return restTemplate.exchange(url, method, new HttpEntity<>(requestBody, headers), responseType);
     }
 
     protected <T> ResponseEntity<T> sendRequest(String url, HttpMethod method, Object requestBody, ParameterizedTypeReference<T> responseType, Long userId) {
@@ -55,6 +82,17 @@ public abstract class BaseClient {
         }
     }
 
+    private <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<Object> requestEntity,
+                                           Class<T> responseType) {
+        try {
+            return restTemplate.exchange(url, method, requestEntity, responseType);
+        } catch (HttpClientErrorException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (RestClientException e) {
+            throw new RuntimeException("Server error", e);
+        }
+    }
+
     private HttpHeaders createHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         if (userId != null) {
@@ -3,14 +3,35 @@ package ru.practicum.shareit.gateway.client;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.gateway.controller.State;
+import ru.practicum.shareit.gateway.dto.BookingBatchResultDto;
+import ru.practicum.shareit.gateway.dto.BookingDecisionDto;
 import ru.practicum.shareit.gateway.dto.BookingDto;
+import ru.practicum.shareit.gateway.dto.BookingHoldDto;
+import ru.practicum.shareit.gateway.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.gateway.dto.BookingSeriesDto;
+import ru.practicum.shareit.gateway.dto.BookingStatsDto;
+import ru.practicum.shareit.gateway.dto.BookingWaitlistDto;
 import ru.practicum.shareit.gateway.dto.RequestBookingDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingHoldDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingSeriesDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -18,15 +39,38 @@ import java.util.List;
 @Service
 public class BookingClient extends BaseClient {
     private static final String BOOKING_PREFIX = "/bookings";
+    private static final int STREAM_BUFFER = 1024;
+
+    private final HttpClient streamHttpClient;
 
     protected BookingClient(RestTemplate restTemplate,
+                            HttpClient streamHttpClient,
                             @Value("${shareit-server.url}") String serverUrl) {
         super(restTemplate, serverUrl);
+        this.streamHttpClient = streamHttpClient;
     }
 
-    public ResponseEntity<BookingDto> createBooking(RequestBookingDto requestBookingDto, Long userId) {
+    public ResponseEntity<BookingDto> createBooking(RequestBookingDto requestBookingDto, Long userId,
+                                                    String idempotencyKey) {
         String url = serverUrl + BOOKING_PREFIX;
-        return sendRequest(url, HttpMethod.POST, requestBookingDto, BookingDto.class, userId);
+        return sendRequest(url, HttpMethod.POST, requestBookingDto, BookingDto.class, userId, idempotencyKey);
+    }
+
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(List<RequestBookingDto> requestBookingDtos,
+                                                                      Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/batch";
+        return sendRequest(url, HttpMethod.POST, requestBookingDtos,
+                new ParameterizedTypeReference<List<BookingBatchResultDto>>() {}, userId);
+    }
+
+    public ResponseEntity<BookingHoldDto> createHold(RequestBookingHoldDto requestHoldDto, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/holds";
+        return sendRequest(url, HttpMethod.POST, requestHoldDto, BookingHoldDto.class, userId);
+    }
+
+    public ResponseEntity<?> releaseHold(Long holdId, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/holds/" + holdId;
+        return sendRequest(url, HttpMethod.DELETE, null, Void.class, userId);
     }
 
     public ResponseEntity<BookingDto> getBookingById(Long bookingId, Long userId) {
@@ -34,19 +78,79 @@ public class BookingClient extends BaseClient {
         return sendRequest(url, HttpMethod.GET, null, BookingDto.class, userId);
     }
 
-    public ResponseEntity<BookingDto> approveBooking(Long bookingId, Boolean approved, Long ownerId) {
+    public ResponseEntity<BookingDto> approveBooking(Long bookingId, Boolean approved, Long ownerId, String ifMatch) {
         String url = serverUrl + BOOKING_PREFIX + "/" + bookingId + "?approved=" + approved;
-        return sendRequest(url, HttpMethod.PATCH, null, BookingDto.class, ownerId);
+        return sendConditionalRequest(url, HttpMethod.PATCH, null, BookingDto.class, ownerId, ifMatch);
+    }
+
+    public ResponseEntity<BookingDto> cancelBooking(Long bookingId, Long userId, String ifMatch) {
+        String url = serverUrl + BOOKING_PREFIX + "/" + bookingId + "/cancel";
+        return sendConditionalRequest(url, HttpMethod.PATCH, null, BookingDto.class, userId, ifMatch);
     }
 
-    public ResponseEntity<List<BookingDto>> getUserBookings(Long userId, State state) {
-        String url = serverUrl + BOOKING_PREFIX + "?state=" + state;
+    public ResponseEntity<List<BookingBatchResultDto>> decideBookings(List<BookingDecisionDto> decisions,
+                                                                      Long ownerId) {
+        String url = serverUrl + BOOKING_PREFIX + "/owner/decisions";
+        return sendRequest(url, HttpMethod.PATCH, decisions,
+                new ParameterizedTypeReference<List<BookingBatchResultDto>>() {}, ownerId);
+    }
+
+    public ResponseEntity<BookingSeriesDto> createSeries(RequestBookingSeriesDto requestSeriesDto, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/series";
+        return sendRequest(url, HttpMethod.POST, requestSeriesDto, BookingSeriesDto.class, userId);
+    }
+
+    public ResponseEntity<BookingSeriesDto> approveSeries(Long seriesId, Boolean approved, Long ownerId) {
+        String url = serverUrl + BOOKING_PREFIX + "/series/" + seriesId + "?approved=" + approved;
+        return sendRequest(url, HttpMethod.PATCH, null, BookingSeriesDto.class, ownerId);
+    }
+
+    public ResponseEntity<BookingSeriesDto> getSeries(Long seriesId, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/series/" + seriesId;
+        return sendRequest(url, HttpMethod.GET, null, BookingSeriesDto.class, userId);
+    }
+
+    public ResponseEntity<List<BookingOccurrenceDto>> getOccurrences(Long seriesId, LocalDateTime from,
+                                                                     LocalDateTime to, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/series/" + seriesId + "/occurrences?from=" + from + "&to=" + to;
+        return sendRequest(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<BookingOccurrenceDto>>() {}, userId);
+    }
+
+    public ResponseEntity<BookingWaitlistDto> joinWaitlist(RequestBookingDto requestBookingDto, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/waitlist";
+        return sendRequest(url, HttpMethod.POST, requestBookingDto, BookingWaitlistDto.class, userId);
+    }
+
+    public ResponseEntity<List<BookingWaitlistDto>> getWaitlist(Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/waitlist";
+        return sendRequest(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<BookingWaitlistDto>>() {}, userId);
+    }
+
+    public ResponseEntity<?> leaveWaitlist(Long entryId, Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/waitlist/" + entryId;
+        return sendRequest(url, HttpMethod.DELETE, null, Void.class, userId);
+    }
+
+    public ResponseEntity<BookingStatsDto> getUserStats(Long userId) {
+        String url = serverUrl + BOOKING_PREFIX + "/stats";
+        return sendRequest(url, HttpMethod.GET, null, BookingStatsDto.class, userId);
+    }
+
+    public ResponseEntity<BookingStatsDto> getOwnerStats(Long ownerId) {
+        String url = serverUrl + BOOKING_PREFIX + "/owner/stats";
+        return sendRequest(url, HttpMethod.GET, null, BookingStatsDto.class, ownerId);
+    }
+
+    public ResponseEntity<List<BookingDto>> getUserBookings(Long userId, State state, String after, Integer size) {
+        String url = serverUrl + BOOKING_PREFIX + "?state=" + state + pageParams(after, size);
         return sendRequest(url, HttpMethod.GET, null,
                 new ParameterizedTypeReference<List<BookingDto>>() {}, userId);
     }
 
-    public ResponseEntity<List<BookingDto>> getOwnerBookings(Long ownerId, State state) {
-        String url = serverUrl + BOOKING_PREFIX + "/owner?state=" + state;
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(Long ownerId, State state, String after, Integer size) {
+        String url = serverUrl + BOOKING_PREFIX + "/owner?state=" + state + pageParams(after, size);
         return sendRequest(url, HttpMethod.GET, null,
                 new ParameterizedTypeReference<List<BookingDto>>() {}, ownerId);
     }
@@ -56,4 +160,51 @@ public class BookingClient extends BaseClient {
         return sendRequest(url, HttpMethod.GET, null,
                 new ParameterizedTypeReference<List<BookingDto>>() {}, null);
     }
+
+    /**
+     * Открывает поток событий на сервере и ретранслирует его клиенту без разбора, сбрасывая буфер после каждого чтения.
+     * Ошибка сервера возвращается статусом до начала потока.
+     */
+    public ResponseEntity<StreamingResponseBody> streamEvents(Long userId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serverUrl + BOOKING_PREFIX + "/stream"))
+                .header(Constants.SHARER_USER_ID, String.valueOf(userId))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = streamHttpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != HttpStatus.OK.value()) {
+                response.body().close();
+                return ResponseEntity.status(response.statusCode()).build();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Server error", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Server error", e);
+        }
+        StreamingResponseBody body = out -> {
+            try (InputStream in = response.body()) {
+                byte[] buffer = new byte[STREAM_BUFFER];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(body);
+    }
+
+    private String pageParams(String after, Integer size) {
+        StringBuilder params = new StringBuilder();
+        if (after != null) {
+            params.append("&after=").append(after);
+        }
+        if (size != null) {
+            params.append("&size=").append(size);
+        }
+        return params.toString();
+    }
 }
@@ -8,10 +8,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.dto.CommentDto;
+import ru.practicum.shareit.gateway.dto.FreeIntervalDto;
 import ru.practicum.shareit.gateway.dto.ItemBodyDto;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 import ru.practicum.shareit.gateway.dto.RequestCommentDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -26,14 +28,14 @@ public class ItemClient extends BaseClient {
         super(restTemplate, serverUrl);
     }
 
-    public ResponseEntity<ItemDto> add(ItemBodyDto itemBodyDto, long userId) {
+    public ResponseEntity<ItemDto> add(ItemBodyDto itemBodyDto, long userId, String idempotencyKey) {
         String url = serverUrl + ITEM_PREFIX;
-        return sendRequest(url, HttpMethod.POST, itemBodyDto, ItemDto.class, userId);
+        return sendRequest(url, HttpMethod.POST, itemBodyDto, ItemDto.class, userId, idempotencyKey);
     }
 
-    public ResponseEntity<ItemDto> update(long itemsId, ItemBodyDto itemBodyDto, Long userId) {
+    public ResponseEntity<ItemDto> update(long itemsId, ItemBodyDto itemBodyDto, Long userId, String ifMatch) {
         String url = serverUrl + ITEM_PREFIX + "/" + itemsId;
-        return sendRequest(url, HttpMethod.PATCH, itemBodyDto, ItemDto.class, userId);
+        return sendConditionalRequest(url, HttpMethod.PATCH, itemBodyDto, ItemDto.class, userId, ifMatch);
     }
 
     public ResponseEntity<ItemDto> getById(long itemsId) {
@@ -47,15 +49,35 @@ public class ItemClient extends BaseClient {
                 new ParameterizedTypeReference<Collection<ItemDto>>() {}, userId);
     }
 
-    public ResponseEntity<List<ItemDto>> search(String text, Long userId) {
+    public ResponseEntity<List<ItemDto>> search(String text, LocalDateTime from, LocalDateTime to,
+                                                String after, Integer size, Long userId) {
         String url = serverUrl + ITEM_PREFIX + "/search?text=" + text;
+        if (from != null) {
+            url += "&from=" + from;
+        }
+        if (to != null) {
+            url += "&to=" + to;
+        }
+        if (after != null) {
+            url += "&after=" + after;
+        }
+        if (size != null) {
+            url += "&size=" + size;
+        }
         return sendRequest(url, HttpMethod.GET, null,
                 new ParameterizedTypeReference<List<ItemDto>>() {}, userId);
     }
 
-    public ResponseEntity<CommentDto> addComment(Long itemId, RequestCommentDto requestCommentDto, Long userId) {
+    public ResponseEntity<List<FreeIntervalDto>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        String url = serverUrl + ITEM_PREFIX + "/" + itemId + "/availability?from=" + from + "&to=" + to;
+        return sendRequest(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<FreeIntervalDto>>() {}, null);
+    }
+
+    public ResponseEntity<CommentDto> addComment(Long itemId, RequestCommentDto requestCommentDto, Long userId,
+                                                 String idempotencyKey) {
         String url = serverUrl + ITEM_PREFIX + "/" + itemId + "/comment";
-        return sendRequest(url, HttpMethod.POST, requestCommentDto, CommentDto.class, userId);
+        return sendRequest(url, HttpMethod.POST, requestCommentDto, CommentDto.class, userId, idempotencyKey);
     }
 
 }
\ No newline at end of file
@@ -23,10 +23,11 @@ public class ItemRequestClient extends BaseClient {
         super(restTemplate, serverUrl);
     }
 
-    public ResponseEntity<RequestDto> addItemRequest(RequestItemDto requestItemDto, Long userId) {
+    public ResponseEntity<RequestDto> addItemRequest(RequestItemDto requestItemDto, Long userId,
+                                                     String idempotencyKey) {
         String url = serverUrl + ITEM_REQUEST_PREFIX;
         log.info("Попытка добавить запрос на элемент: {}, для пользователя с ID {}", requestItemDto, userId);
-        return sendRequest(url, HttpMethod.POST, requestItemDto, RequestDto.class, userId);
+        return sendRequest(url, HttpMethod.POST, requestItemDto, RequestDto.class, userId, idempotencyKey);
     }
 
     public ResponseEntity<List<RequestDto>> getUserItemRequests(Long userId) {
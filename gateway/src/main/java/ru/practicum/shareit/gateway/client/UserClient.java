@@ -25,10 +25,10 @@ public class UserClient extends BaseClient {
         return sendRequest(url, HttpMethod.POST, requestUserDto, UserDto.class);
     }
 
-    public ResponseEntity<UserDto> updateUser(long userId, RequestUserDto requestUserDto) {
+    public ResponseEntity<UserDto> updateUser(long userId, RequestUserDto requestUserDto, String ifMatch) {
         log.info("Попытка обновить User");
         String url = serverUrl + USER_PREFIX + "/" + userId;
-        return sendRequest(url, HttpMethod.PATCH, requestUserDto, UserDto.class);
+        return sendConditionalRequest(url, HttpMethod.PATCH, requestUserDto, UserDto.class, ifMatch);
     }
 
     public ResponseEntity<?> deleteUser(long userId) {
@@ -7,6 +7,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
 
@@ -17,4 +20,15 @@ public class AppConfig {
                 new HttpComponentsClientHttpRequestFactory(httpClient);
         return new RestTemplate(factory);
     }
+
+    /**
+     * Клиент для долгих потоков событий: соединения не занимают пул RestTemplate и не ограничены таймаутом чтения.
+     */
+    @Bean
+    public HttpClient streamHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
 }
@@ -1,15 +1,38 @@
 package ru.practicum.shareit.gateway.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.gateway.client.BookingClient;
+import ru.practicum.shareit.gateway.dto.BookingBatchResultDto;
+import ru.practicum.shareit.gateway.dto.BookingDecisionDto;
 import ru.practicum.shareit.gateway.dto.BookingDto;
+import ru.practicum.shareit.gateway.dto.BookingHoldDto;
+import ru.practicum.shareit.gateway.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.gateway.dto.BookingSeriesDto;
+import ru.practicum.shareit.gateway.dto.BookingStatsDto;
+import ru.practicum.shareit.gateway.dto.BookingWaitlistDto;
 import ru.practicum.shareit.gateway.dto.RequestBookingDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingHoldDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingSeriesDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -17,15 +40,89 @@ import java.util.List;
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/bookings")
+@Validated
 public class BookingController {
+    // Поток событий открыт, пока подключён клиент: без таймаута и на своём виртуальном потоке, а не в пуле MVC
+    private static final long STREAM_TIMEOUT = -1;
+    private static final AsyncTaskExecutor STREAM_EXECUTOR = new VirtualThreadTaskExecutor("booking-stream-");
+
     private final BookingClient bookingClient;
 
 
     @PostMapping
     public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody RequestBookingDto requestBookingDto,
-                                                    @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+                                                    @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                                    @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+                                                    @Size(max = 255) String idempotencyKey) {
         log.info("Запрос на создание бронирования: {}, для пользователя с ID {}", requestBookingDto, userId);
-        return bookingClient.createBooking(requestBookingDto, userId);
+        return bookingClient.createBooking(requestBookingDto, userId, idempotencyKey);
+    }
+
+    // Записи пакета не проверяются здесь: сервер возвращает ошибку по каждой записи, не отклоняя остальные
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(
+            @RequestBody @NotEmpty @Size(max = 500) List<RequestBookingDto> requestBookingDtos,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на пакетное создание {} бронирований для пользователя с ID {}",
+                requestBookingDtos.size(), userId);
+        return bookingClient.createBookings(requestBookingDtos, userId);
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<BookingHoldDto> createHold(@Valid @RequestBody RequestBookingHoldDto requestHoldDto,
+                                                     @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на удержание интервала: {}, для пользователя с ID {}", requestHoldDto, userId);
+        return bookingClient.createHold(requestHoldDto, userId);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable Long holdId,
+                                         @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на снятие удержания с ID {} для пользователя с ID {}", holdId, userId);
+        return bookingClient.releaseHold(holdId, userId);
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<BookingSeriesDto> createSeries(@Valid @RequestBody RequestBookingSeriesDto requestSeriesDto,
+                                                         @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на создание серии бронирований: {}, для пользователя с ID {}", requestSeriesDto, userId);
+        return bookingClient.createSeries(requestSeriesDto, userId);
+    }
+
+    @PatchMapping("/series/{seriesId}")
+    public ResponseEntity<BookingSeriesDto> approveSeries(@PathVariable Long seriesId,
+                                                          @RequestParam Boolean approved,
+                                                          @RequestHeader(Constants.SHARER_USER_ID) Long ownerId) {
+        log.info("Запрос на одобрение серии бронирований с ID {}: {} для владельца с ID {}", seriesId, approved, ownerId);
+        return bookingClient.approveSeries(seriesId, approved, ownerId);
+    }
+
+    @GetMapping("/series/{seriesId}")
+    public ResponseEntity<BookingSeriesDto> getSeries(@PathVariable Long seriesId,
+                                                      @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на получение серии бронирований с ID {} для пользователя с ID {}", seriesId, userId);
+        return bookingClient.getSeries(seriesId, userId);
+    }
+
+    @GetMapping("/series/{seriesId}/occurrences")
+    public ResponseEntity<List<BookingOccurrenceDto>> getOccurrences(
+            @PathVariable Long seriesId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на получение повторений серии с ID {} с {} по {} для пользователя с ID {}",
+                seriesId, from, to, userId);
+        return bookingClient.getOccurrences(seriesId, from, to, userId);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents(@RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                                              HttpServletRequest request) {
+        log.info("Запрос на подписку на события бронирований для пользователя с ID {}", userId);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.getAsyncWebRequest().setTimeout(STREAM_TIMEOUT);
+        asyncManager.setTaskExecutor(STREAM_EXECUTOR);
+        return bookingClient.streamEvents(userId);
     }
 
     @GetMapping("/{bookingId}")
@@ -38,23 +135,80 @@ public class BookingController {
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDto> approveBooking(@PathVariable Long bookingId,
                                                      @RequestParam Boolean approved,
-                                                     @RequestHeader(Constants.SHARER_USER_ID) Long ownerId) {
+                                                     @RequestHeader(Constants.SHARER_USER_ID) Long ownerId,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch) {
         log.info("Запрос на одобрение бронирования с ID {}: {} для владельца с ID {}", bookingId, approved, ownerId);
-        return bookingClient.approveBooking(bookingId, approved, ownerId);
+        return bookingClient.approveBooking(bookingId, approved, ownerId, ifMatch);
+    }
+
+    @PatchMapping("/{bookingId}/cancel")
+    public ResponseEntity<BookingDto> cancelBooking(@PathVariable Long bookingId,
+                                                    @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                    String ifMatch) {
+        log.info("Запрос на отмену бронирования с ID {} пользователем с ID {}", bookingId, userId);
+        return bookingClient.cancelBooking(bookingId, userId, ifMatch);
+    }
+
+    @PatchMapping("/owner/decisions")
+    public ResponseEntity<List<BookingBatchResultDto>> decideBookings(
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingDecisionDto> decisions,
+            @RequestHeader(Constants.SHARER_USER_ID) Long ownerId) {
+        log.info("Запрос на {} решений по бронированиям для владельца с ID {}", decisions.size(), ownerId);
+        return bookingClient.decideBookings(decisions, ownerId);
+    }
+
+    @PostMapping("/waitlist")
+    public ResponseEntity<BookingWaitlistDto> joinWaitlist(@Valid @RequestBody RequestBookingDto requestBookingDto,
+                                                           @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на постановку в лист ожидания: {}, для пользователя с ID {}", requestBookingDto, userId);
+        return bookingClient.joinWaitlist(requestBookingDto, userId);
+    }
+
+    @GetMapping("/waitlist")
+    public ResponseEntity<List<BookingWaitlistDto>> getWaitlist(@RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на получение листа ожидания для пользователя с ID {}", userId);
+        return bookingClient.getWaitlist(userId);
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long entryId,
+                                           @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на удаление заявки с ID {} из листа ожидания для пользователя с ID {}", entryId, userId);
+        return bookingClient.leaveWaitlist(entryId, userId);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<BookingStatsDto> getUserStats(@RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на получение статистики бронирований для пользователя с ID {}", userId);
+        return bookingClient.getUserStats(userId);
+    }
+
+    @GetMapping("/owner/stats")
+    public ResponseEntity<BookingStatsDto> getOwnerStats(@RequestHeader(Constants.SHARER_USER_ID) Long ownerId) {
+        log.info("Запрос на получение статистики бронирований для владельца с ID {}", ownerId);
+        return bookingClient.getOwnerStats(ownerId);
     }
 
     @GetMapping
     public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader(Constants.SHARER_USER_ID) Long userId,
-                                                            @RequestParam(defaultValue = "ALL") State state) {
-        log.info("Запрос на получение бронирований для пользователя с ID {} в состоянии {}", userId, state);
-        return bookingClient.getUserBookings(userId, state);
+                                                            @RequestParam(defaultValue = "ALL") State state,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam(required = false) @Positive Integer size) {
+        log.info("Запрос на получение бронирований для пользователя с ID {} в состоянии {}, после {}, размер {}",
+                userId, state, after, size);
+        return bookingClient.getUserBookings(userId, state, after, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader(Constants.SHARER_USER_ID) Long ownerId,
-                                                             @RequestParam(defaultValue = "ALL") State state) {
-        log.info("Запрос на получение бронирований для владельца с ID {} в состоянии {}", ownerId, state);
-        return bookingClient.getOwnerBookings(ownerId, state);
+                                                             @RequestParam(defaultValue = "ALL") State state,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) @Positive Integer size) {
+        log.info("Запрос на получение бронирований для владельца с ID {} в состоянии {}, после {}, размер {}",
+                ownerId, state, after, size);
+        return bookingClient.getOwnerBookings(ownerId, state, after, size);
     }
 
     @GetMapping("/all")
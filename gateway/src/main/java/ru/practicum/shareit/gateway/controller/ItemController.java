@@ -1,8 +1,12 @@
 package ru.practicum.shareit.gateway.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +14,7 @@ import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.gateway.client.ItemClient;
 import ru.practicum.shareit.gateway.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -26,18 +31,22 @@ public class ItemController {
     @PostMapping
     @Validated(Marker.OnCreate.class)
     public ResponseEntity<ItemDto> add(@Valid @RequestBody ItemBodyDto itemBodyDto,
-                                       @RequestHeader(Constants.SHARER_USER_ID) long userId) {
+                                       @RequestHeader(Constants.SHARER_USER_ID) long userId,
+                                       @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+                                       @Size(max = 255) String idempotencyKey) {
         log.info("Запрос на добавление элемента: {}, для пользователя с ID {}", itemBodyDto, userId);
-        return itemClient.add(itemBodyDto, userId);
+        return itemClient.add(itemBodyDto, userId, idempotencyKey);
     }
 
     @PatchMapping("/{itemsId}")
     public ResponseEntity<ItemDto> update(@PathVariable long itemsId,
                                           @Valid @RequestBody ItemBodyDto itemBodyDto,
-                                          @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+                                          @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                          String ifMatch) {
         log.info("Запрос на обновление элемента с ID {}: {}, для пользователя с ID {}",
                 itemsId, itemBodyDto, userId);
-        return itemClient.update(itemsId, itemBodyDto, userId);
+        return itemClient.update(itemsId, itemBodyDto, userId, ifMatch);
     }
 
     @GetMapping("/{itemsId}")
@@ -54,19 +63,36 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> search(@RequestParam String text,
-                                                @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        log.info("Запрос на поиск элементов по тексту '{}' для пользователя с ID {}", text, userId);
-        return itemClient.search(text, userId);
+    public ResponseEntity<List<ItemDto>> search(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        log.info("Запрос на поиск элементов по тексту '{}' свободных с {} по {}, после {}, размер {} " +
+                "для пользователя с ID {}", text, from, to, after, size, userId);
+        return itemClient.search(text, from, to, after, size, userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<List<FreeIntervalDto>> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Запрос свободных интервалов элемента с ID {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @PostMapping("{itemId}/comment")
     @Validated
     public ResponseEntity<CommentDto> addComment(@PathVariable Long itemId,
                                                  @Valid @RequestBody RequestCommentDto requestCommentDto,
-                                                 @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+                                                 @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                                 @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+                                                 @Size(max = 255) String idempotencyKey) {
         log.info("Запрос на добавление комментария к элементу с ID {}: {}, для пользователя с ID {}",
                 itemId, requestCommentDto, userId);
-        return itemClient.addComment(itemId, requestCommentDto, userId);
+        return itemClient.addComment(itemId, requestCommentDto, userId, idempotencyKey);
     }
 }
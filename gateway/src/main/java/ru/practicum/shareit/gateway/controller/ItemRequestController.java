@@ -1,6 +1,7 @@
 package ru.practicum.shareit.gateway.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -26,9 +27,11 @@ public class ItemRequestController {
     @PostMapping
     @Validated(Marker.OnCreate.class)
     public ResponseEntity<RequestDto> addItemRequest(@Valid @RequestBody RequestItemDto requestItemDto,
-                                                     @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+                                                     @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                                     @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+                                                     @Size(max = 255) String idempotencyKey) {
         log.info("GATEWAY Попытка добавить Request");
-        return itemRequestClient.addItemRequest(requestItemDto, userId);
+        return itemRequestClient.addItemRequest(requestItemDto, userId, idempotencyKey);
     }
 
     @GetMapping
@@ -30,9 +30,11 @@ public class UserController {
     @PatchMapping("/{userId}")
     @Validated(Marker.OnUpdate.class)
     public ResponseEntity<UserDto> updateUser(@PathVariable long userId,
-                                              @Valid @RequestBody RequestUserDto requestUserDto) {
+                                              @Valid @RequestBody RequestUserDto requestUserDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
         log.info("Попытка обновить User с ID {}: {}", userId, requestUserDto);
-        return userClient.updateUser(userId, requestUserDto);
+        return userClient.updateUser(userId, requestUserDto, ifMatch);
     }
 
     @DeleteMapping("/{userId}")
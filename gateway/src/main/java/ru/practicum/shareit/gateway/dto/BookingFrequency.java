@@ -0,0 +1,6 @@
+package ru.practicum.shareit.gateway.dto;
+
+public enum BookingFrequency {
+    DAILY,
+    WEEKLY
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingOccurrenceDto {
+    private Long seriesId;
+    private Integer index;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSeriesDto {
+    private Long id;
+    private Long itemId;
+    private Long bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingFrequency frequency;
+    private Integer interval;
+    private Integer count;
+    private LocalDateTime until;
+    private BookingStatus status;
+}
@@ -4,5 +4,5 @@ public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELLED
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.gateway.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,4 +22,10 @@ public class RequestBookingDto {
 
     @NotNull
     private Long itemId;
+
+    @JsonIgnore
+    @AssertTrue(message = "Время начала должно быть раньше времени завершения")
+    public boolean isStartBeforeEnd() {
+        return start == null || end == null || start.isBefore(end);
+    }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RequestBookingHoldDto {
+
+    @NotNull
+    private Long itemId;
+
+    @NotNull
+    private LocalDateTime start;
+
+    @NotNull
+    private LocalDateTime end;
+
+    @Positive
+    private Integer minutes;
+
+    @JsonIgnore
+    @AssertTrue(message = "Время начала должно быть раньше времени завершения")
+    public boolean isStartBeforeEnd() {
+        return start == null || end == null || start.isBefore(end);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RequestBookingSeriesDto {
+
+    @NotNull
+    private Long itemId;
+
+    @NotNull
+    private LocalDateTime start;
+
+    @NotNull
+    private LocalDateTime end;
+
+    @NotNull
+    private BookingFrequency frequency;
+
+    @Positive
+    private Integer interval;
+
+    @Positive
+    private Integer count;
+
+    private LocalDateTime until;
+
+    @JsonIgnore
+    @AssertTrue(message = "Нужно указать либо количество повторений, либо дату окончания серии")
+    public boolean isBounded() {
+        return (count == null) != (until == null);
+    }
+}
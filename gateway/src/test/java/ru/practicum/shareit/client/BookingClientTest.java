@@ -12,14 +12,32 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.gateway.client.BookingClient;
 import ru.practicum.shareit.gateway.controller.State;
+import ru.practicum.shareit.gateway.dto.BookingBatchResultDto;
+import ru.practicum.shareit.gateway.dto.BookingDecisionDto;
 import ru.practicum.shareit.gateway.dto.BookingDto;
+import ru.practicum.shareit.gateway.dto.BookingHoldDto;
+import ru.practicum.shareit.gateway.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.gateway.dto.BookingSeriesDto;
+import ru.practicum.shareit.gateway.dto.BookingStatsDto;
+import ru.practicum.shareit.gateway.dto.BookingWaitlistDto;
 import ru.practicum.shareit.gateway.dto.RequestBookingDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingHoldDto;
 import ru.practicum.shareit.gateway.dto.BookingStatus;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -29,6 +47,12 @@ public class BookingClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private HttpClient streamHttpClient;
+
+    @Mock
+    private HttpResponse<InputStream> streamResponse;
+
     @InjectMocks
     private BookingClient bookingClient;
 
@@ -50,7 +74,7 @@ public class BookingClientTest {
                 eq(HttpMethod.POST), any(HttpEntity.class), eq(BookingDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<BookingDto> result = bookingClient.createBooking(requestDto, 1L);
+        ResponseEntity<BookingDto> result = bookingClient.createBooking(requestDto, 1L, null);
 
         assertThat(result.getBody()).isEqualTo(bookingDto);
         assertThat(result.getStatusCodeValue()).isEqualTo(200);
@@ -59,6 +83,104 @@ public class BookingClientTest {
                         any(HttpEntity.class), eq(BookingDto.class));
     }
 
+    @Test
+    public void testCreateBookingSendsIdempotencyKey() {
+        RequestBookingDto requestDto = new RequestBookingDto(
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), 1L);
+        when(restTemplate.exchange(any(String.class),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(BookingDto.class)))
+                .thenReturn(ResponseEntity.ok(new BookingDto()));
+
+        bookingClient.createBooking(requestDto, 1L, "retry-1");
+
+        verify(restTemplate).exchange(eq("null/bookings"), eq(HttpMethod.POST),
+                argThat((HttpEntity<?> entity) -> "retry-1".equals(entity.getHeaders().getFirst(Constants.IDEMPOTENCY_KEY))),
+                eq(BookingDto.class));
+    }
+
+    @Test
+    public void testStreamEvents() throws Exception {
+        byte[] event = "event:booking\ndata:{\"bookingId\":1}\n\n".getBytes(StandardCharsets.UTF_8);
+        when(streamHttpClient.<InputStream>send(any(HttpRequest.class), any())).thenReturn(streamResponse);
+        when(streamResponse.statusCode()).thenReturn(200);
+        when(streamResponse.body()).thenReturn(new ByteArrayInputStream(event));
+
+        ResponseEntity<StreamingResponseBody> result = streamingClient().streamEvents(1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.getBody().writeTo(out);
+
+        assertThat(result.getHeaders().getContentType()).isEqualTo(MediaType.TEXT_EVENT_STREAM);
+        assertThat(out.toByteArray()).isEqualTo(event);
+        verify(streamHttpClient).send(argThat(request -> request.uri().toString().equals("http://server:9090/bookings/stream")
+                && request.headers().firstValue(Constants.SHARER_USER_ID).orElseThrow().equals("1")), any());
+    }
+
+    @Test
+    public void testStreamEventsReturnsServerErrorStatus() throws Exception {
+        when(streamHttpClient.<InputStream>send(any(HttpRequest.class), any())).thenReturn(streamResponse);
+        when(streamResponse.statusCode()).thenReturn(404);
+        when(streamResponse.body()).thenReturn(InputStream.nullInputStream());
+
+        ResponseEntity<StreamingResponseBody> result = streamingClient().streamEvents(99L);
+
+        assertThat(result.getStatusCode().value()).isEqualTo(404);
+        assertThat(result.getBody()).isNull();
+    }
+
+    // Для HttpClient нужен абсолютный адрес сервера
+    private BookingClient streamingClient() {
+        return new BookingClient(restTemplate, streamHttpClient, "http://server:9090") {
+        };
+    }
+
+    @Test
+    public void testGetStats() {
+        BookingStatsDto stats = new BookingStatsDto(3, 1, 1, 1, 0, 0);
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(BookingStatsDto.class)))
+                .thenReturn(ResponseEntity.ok(stats));
+
+        assertThat(bookingClient.getUserStats(1L).getBody()).isEqualTo(stats);
+        assertThat(bookingClient.getOwnerStats(2L).getBody()).isEqualTo(stats);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/stats"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(BookingStatsDto.class));
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/owner/stats"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(BookingStatsDto.class));
+    }
+
+    @Test
+    public void testDecideBookings() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true));
+        List<BookingBatchResultDto> results = List.of(new BookingBatchResultDto(0, null, "Бронирование не найдено"));
+
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.PATCH), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(results));
+
+        ResponseEntity<List<BookingBatchResultDto>> result = bookingClient.decideBookings(decisions, 2L);
+
+        assertThat(result.getBody()).isEqualTo(results);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/owner/decisions"), eq(HttpMethod.PATCH),
+                any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testCreateBookings() {
+        List<RequestBookingDto> requests = List.of(
+                new RequestBookingDto(LocalDateTime.now(), LocalDateTime.now().plusDays(1), 1L));
+        List<BookingBatchResultDto> results = List.of(new BookingBatchResultDto(0, null, "Вещь не найдена"));
+
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(results));
+
+        ResponseEntity<List<BookingBatchResultDto>> result = bookingClient.createBookings(requests, 1L);
+
+        assertThat(result.getBody()).isEqualTo(results);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/batch"), eq(HttpMethod.POST),
+                any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
     @Test
     public void testGetBookingById() {
         BookingDto bookingDto = new BookingDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null, null, BookingStatus.APPROVED);
@@ -77,6 +199,88 @@ public class BookingClientTest {
                         any(HttpEntity.class), eq(BookingDto.class));
     }
 
+    @Test
+    public void testGetOccurrences() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 5, 10, 0);
+        List<BookingOccurrenceDto> occurrences = List.of(new BookingOccurrenceDto(3L, 0, from, from.plusDays(1)));
+
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(occurrences));
+
+        ResponseEntity<List<BookingOccurrenceDto>> result =
+                bookingClient.getOccurrences(3L, from, from.plusWeeks(1), 1L);
+
+        assertThat(result.getBody()).containsExactlyElementsOf(occurrences);
+        verify(restTemplate, times(1)).exchange(
+                eq("null/bookings/series/3/occurrences?from=2030-01-05T10:00&to=2030-01-12T10:00"),
+                eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testApproveSeries() {
+        BookingSeriesDto series = new BookingSeriesDto();
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.PATCH), any(HttpEntity.class),
+                eq(BookingSeriesDto.class)))
+                .thenReturn(ResponseEntity.ok(series));
+
+        assertThat(bookingClient.approveSeries(3L, true, 2L).getBody()).isEqualTo(series);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/series/3?approved=true"),
+                eq(HttpMethod.PATCH), any(HttpEntity.class), eq(BookingSeriesDto.class));
+    }
+
+    @Test
+    public void testHolds() {
+        RequestBookingHoldDto requestDto = new RequestBookingHoldDto(
+                1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), 5);
+        BookingHoldDto hold = new BookingHoldDto();
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.POST), any(HttpEntity.class),
+                eq(BookingHoldDto.class)))
+                .thenReturn(ResponseEntity.ok(hold));
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.DELETE), any(HttpEntity.class),
+                eq(Void.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        assertThat(bookingClient.createHold(requestDto, 3L).getBody()).isEqualTo(hold);
+        bookingClient.releaseHold(7L, 3L);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/holds"),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(BookingHoldDto.class));
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/holds/7"),
+                eq(HttpMethod.DELETE), any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    public void testCancelBooking() {
+        BookingDto bookingDto = new BookingDto(1L, null, null, null, null, BookingStatus.CANCELLED);
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.PATCH), any(HttpEntity.class),
+                eq(BookingDto.class)))
+                .thenReturn(ResponseEntity.ok(bookingDto));
+
+        assertThat(bookingClient.cancelBooking(1L, 3L, null).getBody()).isEqualTo(bookingDto);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/1/cancel"),
+                eq(HttpMethod.PATCH), any(HttpEntity.class), eq(BookingDto.class));
+    }
+
+    @Test
+    public void testWaitlist() {
+        RequestBookingDto requestDto = new RequestBookingDto(
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1), 1L);
+        BookingWaitlistDto entry = new BookingWaitlistDto();
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.POST), any(HttpEntity.class),
+                eq(BookingWaitlistDto.class)))
+                .thenReturn(ResponseEntity.ok(entry));
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.DELETE), any(HttpEntity.class),
+                eq(Void.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        assertThat(bookingClient.joinWaitlist(requestDto, 3L).getBody()).isEqualTo(entry);
+        assertThat(bookingClient.leaveWaitlist(7L, 3L).getStatusCodeValue()).isEqualTo(200);
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/waitlist"),
+                eq(HttpMethod.POST), any(HttpEntity.class), eq(BookingWaitlistDto.class));
+        verify(restTemplate, times(1)).exchange(eq("null/bookings/waitlist/7"),
+                eq(HttpMethod.DELETE), any(HttpEntity.class), eq(Void.class));
+    }
+
     @Test
     public void testApproveBooking() {
         BookingDto bookingDto = new BookingDto(
@@ -88,7 +292,7 @@ public class BookingClientTest {
                 eq(HttpMethod.PATCH), any(HttpEntity.class), eq(BookingDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<BookingDto> result = bookingClient.approveBooking(1L, true, 1L);
+        ResponseEntity<BookingDto> result = bookingClient.approveBooking(1L, true, 1L, null);
 
         assertThat(result.getBody()).isEqualTo(bookingDto);
         assertThat(result.getStatusCodeValue()).isEqualTo(200);
@@ -106,7 +310,7 @@ public class BookingClientTest {
                 any(ParameterizedTypeReference.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<List<BookingDto>> result = bookingClient.getUserBookings(1L, State.ALL);
+        ResponseEntity<List<BookingDto>> result = bookingClient.getUserBookings(1L, State.ALL, null, null);
 
         assertThat(result.getBody()).containsExactly(bookingDto);
         assertThat(result.getStatusCodeValue()).isEqualTo(200);
@@ -126,7 +330,7 @@ public class BookingClientTest {
                 eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<List<BookingDto>> result = bookingClient.getOwnerBookings(1L, State.ALL);
+        ResponseEntity<List<BookingDto>> result = bookingClient.getOwnerBookings(1L, State.ALL, null, null);
 
         assertThat(result.getBody()).containsExactly(bookingDto);
         assertThat(result.getStatusCodeValue()).isEqualTo(200);
@@ -135,6 +339,19 @@ public class BookingClientTest {
                         any(ParameterizedTypeReference.class));
     }
 
+    @Test
+    public void testGetOwnerBookingsPage() {
+        when(restTemplate.exchange(any(String.class),
+                eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        bookingClient.getOwnerBookings(1L, State.WAITING, "2030-01-01T12:00:00,5", 20);
+
+        verify(restTemplate, times(1))
+                .exchange(eq("null/bookings/owner?state=WAITING&after=2030-01-01T12:00:00,5&size=20"),
+                        eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
     @Test
     public void testGetAllBookings() {
         BookingDto bookingDto = new BookingDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null, null, BookingStatus.APPROVED);
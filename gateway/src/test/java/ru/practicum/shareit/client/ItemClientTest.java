@@ -7,14 +7,17 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.client.ItemClient;
 import ru.practicum.shareit.gateway.dto.CommentDto;
+import ru.practicum.shareit.gateway.dto.FreeIntervalDto;
 import ru.practicum.shareit.gateway.dto.ItemBodyDto;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 import ru.practicum.shareit.gateway.dto.RequestCommentDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -45,7 +48,7 @@ class ItemClientTest {
                 eq(HttpMethod.POST), any(HttpEntity.class), eq(ItemDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<ItemDto> result = itemClient.add(itemBodyDto, 1L);
+        ResponseEntity<ItemDto> result = itemClient.add(itemBodyDto, 1L, null);
 
         assertThat(result.getBody()).isEqualTo(itemDto);
         verify(restTemplate, times(1))
@@ -63,7 +66,7 @@ class ItemClientTest {
                 any(HttpEntity.class), eq(ItemDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<ItemDto> result = itemClient.update(itemId, itemBodyDto, 1L);
+        ResponseEntity<ItemDto> result = itemClient.update(itemId, itemBodyDto, 1L, null);
 
         assertThat(result.getBody()).isEqualTo(itemDto);
         verify(restTemplate, times(1))
@@ -71,6 +74,20 @@ class ItemClientTest {
                         any(HttpEntity.class), eq(ItemDto.class));
     }
 
+    @Test
+    void testUpdateSendsIfMatch() {
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.PATCH),
+                any(HttpEntity.class), eq(ItemDto.class)))
+                .thenReturn(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+
+        ResponseEntity<ItemDto> result = itemClient.update(1L, new ItemBodyDto(), 1L, "\"3\"");
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(restTemplate).exchange(eq("null/items/1"), eq(HttpMethod.PATCH),
+                argThat((HttpEntity<?> entity) -> entity.getHeaders().getIfMatch().equals(List.of("\"3\""))),
+                eq(ItemDto.class));
+    }
+
     @Test
     void testGetById() {
         long itemId = 1L;
@@ -117,7 +134,7 @@ class ItemClientTest {
                 any(ParameterizedTypeReference.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<List<ItemDto>> result = itemClient.search(searchText, userId);
+        ResponseEntity<List<ItemDto>> result = itemClient.search(searchText, null, null, null, null, userId);
 
         assertThat(result.getBody()).containsExactlyElementsOf(items);
         verify(restTemplate, times(1))
@@ -125,6 +142,52 @@ class ItemClientTest {
                 any(ParameterizedTypeReference.class));
     }
 
+    @Test
+    void testSearchWithPeriod() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        itemClient.search("дрель", from, from.plusDays(1), null, null, 1L);
+
+        verify(restTemplate, times(1)).exchange(
+                eq("null/items/search?text=дрель&from=2030-01-01T12:00&to=2030-01-02T12:00"),
+                eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testSearchSendsPageParams() {
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        itemClient.search("дрель", null, null, "6,42", 10, 1L);
+
+        verify(restTemplate, times(1)).exchange(
+                eq("null/items/search?text=дрель&after=6,42&size=10"),
+                eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testGetAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(7);
+        List<FreeIntervalDto> intervals = List.of(new FreeIntervalDto(from, to));
+
+        when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(intervals));
+
+        ResponseEntity<List<FreeIntervalDto>> result = itemClient.getAvailability(1L, from, to);
+
+        assertThat(result.getBody()).containsExactlyElementsOf(intervals);
+        verify(restTemplate, times(1)).exchange(
+                eq("null/items/1/availability?from=2030-01-01T12:00&to=2030-01-08T12:00"),
+                eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
     @Test
     void testAddComment() {
         Long itemId = 1L;
@@ -136,7 +199,7 @@ class ItemClientTest {
                 any(HttpEntity.class), eq(CommentDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<CommentDto> result = itemClient.addComment(itemId, requestCommentDto, 1L);
+        ResponseEntity<CommentDto> result = itemClient.addComment(itemId, requestCommentDto, 1L, null);
 
         assertThat(result.getBody()).isEqualTo(commentDto);
         verify(restTemplate, times(1))
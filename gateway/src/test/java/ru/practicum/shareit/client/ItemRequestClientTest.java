@@ -44,7 +44,7 @@ class ItemRequestClientTest {
                 any(HttpEntity.class), eq(RequestDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<RequestDto> result = itemRequestClient.addItemRequest(requestItemDto, 1L);
+        ResponseEntity<RequestDto> result = itemRequestClient.addItemRequest(requestItemDto, 1L, null);
 
         assertThat(result.getBody()).isEqualTo(requestDto);
         verify(restTemplate, times(1))
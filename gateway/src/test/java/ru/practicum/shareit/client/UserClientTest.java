@@ -58,7 +58,7 @@ class UserClientTest {
                 any(HttpEntity.class), eq(UserDto.class)))
                 .thenReturn(responseEntity);
 
-        ResponseEntity<UserDto> result = userClient.updateUser(userId, requestUserDto);
+        ResponseEntity<UserDto> result = userClient.updateUser(userId, requestUserDto, null);
 
         assertThat(result.getBody()).isEqualTo(userDto);
         verify(restTemplate, times(1))
@@ -111,7 +111,7 @@ class UserClientTest {
                 .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, errorMessage));
 
         HttpClientErrorException exception = assertThrows(HttpClientErrorException.class,
-                () -> userClient.updateUser(userId, requestUserDto));
+                () -> userClient.updateUser(userId, requestUserDto, null));
 
         assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(exception.getMessage()).contains(errorMessage);
@@ -158,7 +158,7 @@ class UserClientTest {
                 .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST, errorMessage));
 
         HttpClientErrorException exception = assertThrows(HttpClientErrorException.class,
-                () -> userClient.updateUser(userId, requestUserDto));
+                () -> userClient.updateUser(userId, requestUserDto, null));
 
         assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(exception.getMessage()).contains(errorMessage);
@@ -176,7 +176,7 @@ class UserClientTest {
                 eq(UserDto.class)
         )).thenReturn(ResponseEntity.ok(userDto));
 
-        ResponseEntity<UserDto> result = userClient.updateUser(userId, null);
+        ResponseEntity<UserDto> result = userClient.updateUser(userId, null, null);
 
         assertThat(result.getBody()).isEqualTo(userDto);
     }
@@ -225,6 +225,6 @@ class UserClientTest {
         )).thenThrow(new ResourceAccessException("Connection timeout"));
 
         assertThrows(ResourceAccessException.class,
-                () -> userClient.updateUser(userId, requestUserDto));
+                () -> userClient.updateUser(userId, requestUserDto, null));
     }
 }
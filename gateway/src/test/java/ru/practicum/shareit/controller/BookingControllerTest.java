@@ -2,6 +2,8 @@ package ru.practicum.shareit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -11,24 +13,42 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.gateway.client.BookingClient;
 import ru.practicum.shareit.gateway.controller.BookingController;
 import ru.practicum.shareit.gateway.controller.State;
+import ru.practicum.shareit.gateway.dto.BookingBatchResultDto;
+import ru.practicum.shareit.gateway.dto.BookingDecisionDto;
 import ru.practicum.shareit.gateway.dto.BookingDto;
+import ru.practicum.shareit.gateway.dto.BookingHoldDto;
+import ru.practicum.shareit.gateway.dto.BookingFrequency;
+import ru.practicum.shareit.gateway.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.gateway.dto.BookingSeriesDto;
+import ru.practicum.shareit.gateway.dto.BookingStatsDto;
+import ru.practicum.shareit.gateway.dto.BookingWaitlistDto;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 import ru.practicum.shareit.gateway.dto.RequestBookingDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingHoldDto;
+import ru.practicum.shareit.gateway.dto.RequestBookingSeriesDto;
 import ru.practicum.shareit.gateway.dto.BookingStatus;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 public class BookingControllerTest {
@@ -63,7 +83,7 @@ public class BookingControllerTest {
         BookingDto bookingDto = new BookingDto(1L, LocalDateTime.now(),
                 LocalDateTime.now().plusSeconds(10), item, null, BookingStatus.WAITING);
 
-        when(bookingClient.createBooking(any(), anyLong())).thenReturn(ResponseEntity.ok(bookingDto));
+        when(bookingClient.createBooking(any(), anyLong(), any())).thenReturn(ResponseEntity.ok(bookingDto));
 
         mockMvc.perform(post("/bookings")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -72,7 +92,267 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(bookingClient, times(1)).createBooking(any(), anyLong());
+        verify(bookingClient, times(1)).createBooking(any(), anyLong(), isNull());
+    }
+
+    @Test
+    void createBookings() throws Exception {
+        List<RequestBookingDto> requests = List.of(
+                new RequestBookingDto(LocalDateTime.now(), LocalDateTime.now().plusDays(1), item.getId()),
+                new RequestBookingDto(LocalDateTime.now(), LocalDateTime.now().plusDays(1), 99L));
+        List<BookingBatchResultDto> results = List.of(
+                new BookingBatchResultDto(0, new BookingDto(1L, null, null, item, null, BookingStatus.WAITING), null),
+                new BookingBatchResultDto(1, null, "Вещь не найдена"));
+
+        when(bookingClient.createBookings(any(), eq(1L))).thenReturn(ResponseEntity.ok(results));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(1L))
+                .andExpect(jsonPath("$[1].error").value("Вещь не найдена"));
+
+        verify(bookingClient, times(1)).createBookings(any(), eq(1L));
+    }
+
+    @Test
+    void createBookingsWithZeroLengthEntry() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<RequestBookingDto> requests = List.of(
+                new RequestBookingDto(start, start.plusDays(1), item.getId()),
+                new RequestBookingDto(start, start, item.getId()));
+        Method method = BookingController.class.getMethod("createBookings", List.class, Long.class);
+
+        // Пакет уходит на сервер целиком, а отдельная заявка с такими датами отклоняется
+        assertTrue(Validation.buildDefaultValidatorFactory().getValidator().forExecutables()
+                .validateParameters(bookingController, method, new Object[]{requests, 1L}).isEmpty());
+        Set<ConstraintViolation<RequestBookingDto>> violations = Validation.buildDefaultValidatorFactory()
+                .getValidator().validate(requests.get(1));
+        assertEquals(1, violations.size());
+        assertEquals("Время начала должно быть раньше времени завершения",
+                violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void createSeries() throws Exception {
+        LocalDateTime saturday = LocalDateTime.of(2030, 1, 5, 10, 0);
+        RequestBookingSeriesDto request = new RequestBookingSeriesDto(item.getId(), saturday, saturday.plusDays(1),
+                BookingFrequency.WEEKLY, null, 10, null);
+        BookingSeriesDto series = new BookingSeriesDto(3L, item.getId(), 1L, saturday, saturday.plusDays(1),
+                BookingFrequency.WEEKLY, 1, 10, null, BookingStatus.WAITING);
+
+        when(bookingClient.createSeries(request, 1L)).thenReturn(ResponseEntity.ok(series));
+
+        mockMvc.perform(post("/bookings/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(3L))
+                .andExpect(jsonPath("$.count").value(10));
+    }
+
+    @Test
+    void createSeriesWithoutCountOrUntil() throws Exception {
+        LocalDateTime saturday = LocalDateTime.of(2030, 1, 5, 10, 0);
+        RequestBookingSeriesDto request = new RequestBookingSeriesDto(item.getId(), saturday, saturday.plusDays(1),
+                BookingFrequency.WEEKLY, null, null, null);
+
+        mockMvc.perform(post("/bookings/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).createSeries(any(), anyLong());
+    }
+
+    @Test
+    void getOccurrences() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 5, 10, 0);
+        List<BookingOccurrenceDto> occurrences = List.of(new BookingOccurrenceDto(3L, 0, from, from.plusDays(1)));
+
+        when(bookingClient.getOccurrences(3L, from, from.plusWeeks(1), 1L)).thenReturn(ResponseEntity.ok(occurrences));
+
+        mockMvc.perform(get("/bookings/series/3/occurrences")
+                        .param("from", "2030-01-05T10:00:00")
+                        .param("to", "2030-01-12T10:00:00")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0));
+    }
+
+    @Test
+    void createBookingForwardsIdempotencyKey() throws Exception {
+        RequestBookingDto requestBookingDto = new RequestBookingDto(LocalDateTime.now(),
+                LocalDateTime.now().plusSeconds(10), item.getId());
+        BookingDto bookingDto = new BookingDto(1L, null, null, item, null, BookingStatus.WAITING);
+
+        when(bookingClient.createBooking(any(), anyLong(), eq("retry-1"))).thenReturn(ResponseEntity.ok(bookingDto));
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestBookingDto))
+                        .header(Constants.SHARER_USER_ID, 1L)
+                        .header(Constants.IDEMPOTENCY_KEY, "retry-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    void createHold() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        RequestBookingHoldDto request = new RequestBookingHoldDto(item.getId(), start, start.plusDays(1), 10);
+        BookingHoldDto hold = new BookingHoldDto(3L, item.getId(), 1L, start, start.plusDays(1), start.minusDays(1));
+
+        when(bookingClient.createHold(request, 1L)).thenReturn(ResponseEntity.ok(hold));
+
+        mockMvc.perform(post("/bookings/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(3L));
+    }
+
+    @Test
+    void createHoldWithNonPositiveMinutes() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        RequestBookingHoldDto request = new RequestBookingHoldDto(item.getId(), start, start.plusDays(1), 0);
+
+        mockMvc.perform(post("/bookings/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).createHold(any(), anyLong());
+    }
+
+    @Test
+    void releaseHold() throws Exception {
+        doReturn(ResponseEntity.ok().build()).when(bookingClient).releaseHold(3L, 1L);
+
+        mockMvc.perform(delete("/bookings/holds/3")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cancelBooking() throws Exception {
+        BookingDto cancelled = new BookingDto(1L, null, null, item, null, BookingStatus.CANCELLED);
+
+        when(bookingClient.cancelBooking(1L, 1L, null)).thenReturn(ResponseEntity.ok(cancelled));
+
+        mockMvc.perform(patch("/bookings/1/cancel")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    void joinWaitlist() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        RequestBookingDto request = new RequestBookingDto(start, start.plusDays(1), item.getId());
+        BookingWaitlistDto entry = new BookingWaitlistDto(4L, item.getId(), 1L, start, start.plusDays(1), start);
+
+        when(bookingClient.joinWaitlist(request, 1L)).thenReturn(ResponseEntity.ok(entry));
+
+        mockMvc.perform(post("/bookings/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(4L));
+    }
+
+    @Test
+    void joinWaitlistWithoutDates() throws Exception {
+        RequestBookingDto request = new RequestBookingDto(null, null, item.getId());
+
+        mockMvc.perform(post("/bookings/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).joinWaitlist(any(), anyLong());
+    }
+
+    @Test
+    void leaveWaitlist() throws Exception {
+        doReturn(ResponseEntity.ok().build()).when(bookingClient).leaveWaitlist(4L, 1L);
+
+        mockMvc.perform(delete("/bookings/waitlist/4")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).leaveWaitlist(4L, 1L);
+    }
+
+    @Test
+    void decideBookings() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false));
+        List<BookingBatchResultDto> results = List.of(
+                new BookingBatchResultDto(0, new BookingDto(1L, null, null, item, null, BookingStatus.APPROVED), null),
+                new BookingBatchResultDto(1, null, "Бронирование уже в работе"));
+
+        when(bookingClient.decideBookings(decisions, 2L)).thenReturn(ResponseEntity.ok(results));
+
+        mockMvc.perform(patch("/bookings/owner/decisions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions))
+                        .header(Constants.SHARER_USER_ID, 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].error").value("Бронирование уже в работе"));
+
+        verify(bookingClient, times(1)).decideBookings(decisions, 2L);
+    }
+
+    @Test
+    void streamEvents() throws Exception {
+        String event = "event:booking\ndata:{\"bookingId\":1,\"status\":\"APPROVED\"}\n\n";
+        AtomicBoolean virtual = new AtomicBoolean();
+        StreamingResponseBody body = out -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            out.write(event.getBytes(StandardCharsets.UTF_8));
+        };
+        when(bookingClient.streamEvents(1L))
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(body));
+
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(-1, result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(event));
+        assertTrue(virtual.get());
+        verify(bookingClient, times(1)).streamEvents(1L);
+    }
+
+    @Test
+    void getStats() throws Exception {
+        when(bookingClient.getUserStats(1L)).thenReturn(ResponseEntity.ok(new BookingStatsDto(4, 1, 1, 2, 1, 0)));
+        when(bookingClient.getOwnerStats(2L)).thenReturn(ResponseEntity.ok(new BookingStatsDto(2, 0, 0, 2, 0, 1)));
+
+        mockMvc.perform(get("/bookings/stats")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(4))
+                .andExpect(jsonPath("$.waiting").value(1));
+        mockMvc.perform(get("/bookings/owner/stats")
+                        .header(Constants.SHARER_USER_ID, 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(1));
+
+        verify(bookingClient, times(1)).getUserStats(1L);
+        verify(bookingClient, times(1)).getOwnerStats(2L);
     }
 
     @Test
@@ -98,7 +378,7 @@ public class BookingControllerTest {
         BookingDto bookingDto = new BookingDto(1L, LocalDateTime.now(),
                 LocalDateTime.now().plusSeconds(10), item, null, BookingStatus.WAITING);
 
-        when(bookingClient.approveBooking(bookingId, true, 1L))
+        when(bookingClient.approveBooking(bookingId, true, 1L, null))
                 .thenReturn(ResponseEntity.ok(bookingDto));
 
         mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
@@ -108,14 +388,14 @@ public class BookingControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
         verify(bookingClient, times(1))
-                .approveBooking(bookingId, true, 1L);
+                .approveBooking(bookingId, true, 1L, null);
     }
 
     @Test
     void getUserBookings() throws Exception {
         List<BookingDto> bookings = Collections.singletonList(new BookingDto(/* инициализация */));
 
-        when(bookingClient.getUserBookings(1L, State.ALL)).thenReturn(ResponseEntity.ok(bookings));
+        when(bookingClient.getUserBookings(1L, State.ALL, null, null)).thenReturn(ResponseEntity.ok(bookings));
 
         mockMvc.perform(get("/bookings")
                         .header(Constants.SHARER_USER_ID, 1L)
@@ -123,7 +403,7 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(bookingClient, times(1)).getUserBookings(1L, State.ALL);
+        verify(bookingClient, times(1)).getUserBookings(1L, State.ALL, null, null);
     }
 
     @Test
@@ -132,7 +412,7 @@ public class BookingControllerTest {
                 LocalDateTime.now(), LocalDateTime.now().plusSeconds(10), item,
                 null, BookingStatus.WAITING));
 
-        when(bookingClient.getOwnerBookings(1L, State.ALL))
+        when(bookingClient.getOwnerBookings(1L, State.ALL, null, null))
                 .thenReturn(ResponseEntity.ok(bookings));
 
         mockMvc.perform(get("/bookings/owner")
@@ -141,7 +421,22 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(bookingClient, times(1)).getOwnerBookings(1L, State.ALL);
+        verify(bookingClient, times(1)).getOwnerBookings(1L, State.ALL, null, null);
+    }
+
+    @Test
+    void getOwnerBookingsPage() throws Exception {
+        String after = "2030-01-01T12:00:00,5";
+        when(bookingClient.getOwnerBookings(1L, State.ALL, after, 20))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(Constants.SHARER_USER_ID, 1L)
+                        .param("after", after)
+                        .param("size", "20"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1)).getOwnerBookings(1L, State.ALL, after, 20);
     }
 
     @Test
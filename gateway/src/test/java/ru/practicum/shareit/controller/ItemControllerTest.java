@@ -8,6 +8,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,11 +17,14 @@ import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.gateway.client.ItemClient;
 import ru.practicum.shareit.gateway.controller.ItemController;
 import ru.practicum.shareit.gateway.dto.CommentDto;
+import ru.practicum.shareit.gateway.dto.FreeIntervalDto;
 import ru.practicum.shareit.gateway.dto.ItemBodyDto;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 import ru.practicum.shareit.gateway.dto.RequestCommentDto;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -54,7 +58,7 @@ class ItemControllerTest {
                 "Item Description", true, null,
                 null, Collections.emptyList(), null);
 
-        when(itemClient.add(ArgumentMatchers.any(), anyLong())).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.add(ArgumentMatchers.any(), anyLong(), isNull())).thenReturn(ResponseEntity.ok(itemDto));
 
         mockMvc.perform(post("/items")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -65,7 +69,7 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("Item Name"));
 
-        verify(itemClient, times(1)).add(any(), anyLong());
+        verify(itemClient, times(1)).add(any(), anyLong(), isNull());
     }
 
     @Test
@@ -78,7 +82,7 @@ class ItemControllerTest {
                 null, null, Collections.emptyList(), null);
 
         when(itemClient.update(eq(itemId), ArgumentMatchers.any(),
-                anyLong())).thenReturn(ResponseEntity.ok(itemDto));
+                anyLong(), isNull())).thenReturn(ResponseEntity.ok(itemDto));
 
         mockMvc.perform(patch("/items/{itemsId}", itemId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -89,7 +93,27 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.id").value(itemId))
                 .andExpect(jsonPath("$.name").value("Updated Item Name"));
 
-        verify(itemClient, times(1)).update(eq(itemId), any(), anyLong());
+        verify(itemClient, times(1)).update(eq(itemId), any(), anyLong(), isNull());
+    }
+
+    @Test
+    void updateForwardsIfMatchAndReturnsETag() throws Exception {
+        long itemId = 1L;
+        ItemBodyDto itemBodyDto = new ItemBodyDto("Item Name", "Item Description", true, null);
+        ItemDto itemDto = new ItemDto(itemId, "Updated Item Name",
+                "Updated Item Description", true,
+                null, null, Collections.emptyList(), null);
+
+        when(itemClient.update(eq(itemId), ArgumentMatchers.any(), anyLong(), eq("\"3\"")))
+                .thenReturn(ResponseEntity.ok().eTag("\"4\"").body(itemDto));
+
+        mockMvc.perform(patch("/items/{itemsId}", itemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemBodyDto))
+                        .header(Constants.SHARER_USER_ID, 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
     }
 
     @Test
@@ -137,7 +161,7 @@ class ItemControllerTest {
                 "Item Description", true, null,
                 null, Collections.emptyList(), null);
 
-        when(itemClient.search(searchText, userId)).thenReturn(ResponseEntity.ok(Collections.singletonList(itemDto)));
+        when(itemClient.search(searchText, null, null, null, null, userId)).thenReturn(ResponseEntity.ok(Collections.singletonList(itemDto)));
 
         mockMvc.perform(get("/items/search")
                         .param("text", searchText)
@@ -147,7 +171,56 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Item Name"));
 
-        verify(itemClient, times(1)).search(searchText, userId);
+        verify(itemClient, times(1)).search(searchText, null, null, null, null, userId);
+    }
+
+    @Test
+    void searchItemsFreeInPeriod() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(2);
+
+        when(itemClient.search("дрель", from, to, null, null, 1L)).thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("from", "2030-01-01T12:00:00")
+                        .param("to", "2030-01-03T12:00:00")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).search("дрель", from, to, null, null, 1L);
+    }
+
+    @Test
+    void searchPassesCursorAndReturnsNextCursor() throws Exception {
+        when(itemClient.search("дрель", null, null, "6,42", 2, 1L)).thenReturn(ResponseEntity.ok()
+                .header(Constants.NEXT_CURSOR, "4,7")
+                .body(List.of()));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("after", "6,42")
+                        .param("size", "2")
+                        .header(Constants.SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Constants.NEXT_CURSOR, "4,7"));
+    }
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(7);
+
+        when(itemClient.getAvailability(1L, from, to))
+                .thenReturn(ResponseEntity.ok(List.of(new FreeIntervalDto(from, from.plusDays(2)))));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T12:00:00")
+                        .param("to", "2030-01-08T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(itemClient, times(1)).getAvailability(1L, from, to);
     }
 
     @Test
@@ -157,7 +230,7 @@ class ItemControllerTest {
         CommentDto commentDto = new CommentDto(1L, "text", "author", null);
 
         when(itemClient.addComment(eq(itemId), ArgumentMatchers.any(),
-                anyLong())).thenReturn(ResponseEntity.ok(commentDto));
+                anyLong(), isNull())).thenReturn(ResponseEntity.ok(commentDto));
 
         mockMvc.perform(post("/items/{itemId}/comment", itemId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,6 +241,6 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.text").value("text"));
 
-        verify(itemClient, times(1)).addComment(eq(itemId), any(), anyLong());
+        verify(itemClient, times(1)).addComment(eq(itemId), any(), anyLong(), isNull());
     }
 }
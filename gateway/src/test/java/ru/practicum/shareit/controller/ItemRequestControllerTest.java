@@ -55,7 +55,7 @@ class ItemRequestControllerTest {
                 null, LocalDateTime.now(), new HashSet<>());
 
         when(itemRequestClient.addItemRequest(ArgumentMatchers.any(),
-                anyLong())).thenReturn(ResponseEntity.ok(requestDto));
+                anyLong(), isNull())).thenReturn(ResponseEntity.ok(requestDto));
 
         mockMvc.perform(post("/requests")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -66,7 +66,7 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.description").value("test"));
 
-        verify(itemRequestClient, times(1)).addItemRequest(any(), anyLong());
+        verify(itemRequestClient, times(1)).addItemRequest(any(), anyLong(), isNull());
     }
 
     @Test
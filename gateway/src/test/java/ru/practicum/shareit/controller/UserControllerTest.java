@@ -68,7 +68,7 @@ class UserControllerTest {
         RequestUserDto requestUserDto = new RequestUserDto("updatedName", "updated@email.com");
         UserDto userDto = new UserDto(userId, "updatedName", "updated@email.com");
 
-        when(userClient.updateUser(eq(userId), ArgumentMatchers.any())).thenReturn(ResponseEntity.ok(userDto));
+        when(userClient.updateUser(eq(userId), ArgumentMatchers.any(), isNull())).thenReturn(ResponseEntity.ok(userDto));
 
         mockMvc.perform(patch("/users/{userId}", userId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -79,7 +79,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("updatedName"))
                 .andExpect(jsonPath("$.email").value("updated@email.com"));
 
-        verify(userClient, times(1)).updateUser(eq(userId), any());
+        verify(userClient, times(1)).updateUser(eq(userId), any(), isNull());
     }
 
     @Test
@@ -0,0 +1,110 @@
+-- Сравнение обычной и секционированной таблицы бронирований на сгенерированных данных.
+-- Запуск: psql -d bench -v rows=50000000 -f server/bench/booking-partitions.sql
+-- Данные равномерно распределены по шести годам до текущего момента и году после него,
+-- запросы повторяют запросы BookingQueryRepositoryImpl и BookingRepository.markPast.
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 50000000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS bench_plain CASCADE;
+DROP SCHEMA IF EXISTS bench_part CASCADE;
+CREATE SCHEMA bench_plain;
+CREATE SCHEMA bench_part;
+
+CREATE TABLE bench_plain.bookings (
+  id BIGINT PRIMARY KEY,
+  start_date TIMESTAMP NOT NULL,
+  end_date TIMESTAMP NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL,
+  phase VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE bench_part.bookings (
+  id BIGINT NOT NULL,
+  start_date TIMESTAMP NOT NULL,
+  end_date TIMESTAMP NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL,
+  phase VARCHAR(20) NOT NULL,
+  PRIMARY KEY (id, end_date)
+) PARTITION BY RANGE (end_date);
+CREATE TABLE bench_part.bookings_default PARTITION OF bench_part.bookings DEFAULT;
+
+-- Помесячные секции с тем же именованием, что у BookingPartitionMaintenance
+DO $$
+DECLARE
+  month DATE := date_trunc('month', now() - INTERVAL '6 years');
+BEGIN
+  WHILE month <= date_trunc('month', now() + INTERVAL '13 months') LOOP
+    EXECUTE format('CREATE TABLE bench_part.%I PARTITION OF bench_part.bookings FOR VALUES FROM (%L) TO (%L)',
+        'bookings_p' || to_char(month, 'YYYYMM'), month, month + INTERVAL '1 month');
+    month := month + INTERVAL '1 month';
+  END LOOP;
+END $$;
+
+INSERT INTO bench_plain.bookings
+SELECT g,
+       s,
+       s + (1 + g % 14) * INTERVAL '1 day',
+       1 + g % 200000,
+       1 + g % 1000000,
+       CASE WHEN g % 10 = 0 THEN 'WAITING' WHEN g % 10 = 1 THEN 'REJECTED' ELSE 'APPROVED' END,
+       'FUTURE'
+FROM generate_series(1, :rows) g,
+     LATERAL (SELECT now()::timestamp - INTERVAL '6 years' + (g::float8 / :rows) * INTERVAL '7 years' AS s) t;
+
+UPDATE bench_plain.bookings SET phase = CASE
+    WHEN end_date < now() THEN 'PAST' WHEN start_date <= now() THEN 'CURRENT' ELSE 'FUTURE' END;
+
+INSERT INTO bench_part.bookings SELECT * FROM bench_plain.bookings;
+
+CREATE INDEX ON bench_plain.bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX ON bench_plain.bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX ON bench_plain.bookings (phase, end_date);
+CREATE INDEX ON bench_part.bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX ON bench_part.bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX ON bench_part.bookings (phase, end_date);
+VACUUM ANALYZE bench_plain.bookings;
+VACUUM ANALYZE bench_part.bookings;
+
+\echo '=== CURRENT, страница арендатора'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_plain.bookings b
+WHERE b.booker_id = 4242 AND b.phase = 'CURRENT' ORDER BY b.start_date DESC, b.id DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_part.bookings b
+WHERE b.booker_id = 4242 AND b.start_date <= now() AND b.end_date >= now()
+ORDER BY b.start_date DESC, b.id DESC LIMIT 20;
+
+\echo '=== FUTURE, страница арендатора'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_plain.bookings b
+WHERE b.booker_id = 4242 AND b.phase = 'FUTURE' ORDER BY b.start_date DESC, b.id DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_part.bookings b
+WHERE b.booker_id = 4242 AND b.start_date > now() AND b.end_date > now()
+ORDER BY b.start_date DESC, b.id DESC LIMIT 20;
+
+\echo '=== PAST, страница арендатора'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_plain.bookings b
+WHERE b.booker_id = 4242 AND b.phase = 'PAST' ORDER BY b.start_date DESC, b.id DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_part.bookings b
+WHERE b.booker_id = 4242 AND b.end_date < now() ORDER BY b.start_date DESC, b.id DESC LIMIT 20;
+
+\echo '=== Ближайшие бронирования вещей'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_plain.bookings b
+WHERE b.item_id IN (1, 2, 3, 4, 5) AND b.status = 'APPROVED' AND b.start_date > now()
+ORDER BY b.item_id, b.start_date;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM bench_part.bookings b
+WHERE b.item_id IN (1, 2, 3, 4, 5) AND b.status = 'APPROVED' AND b.start_date > now() AND b.end_date > now()
+ORDER BY b.item_id, b.start_date;
+
+\echo '=== Перевод завершившихся в PAST (откатывается)'
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS) UPDATE bench_plain.bookings b SET phase = 'PAST'
+WHERE b.phase <> 'PAST' AND b.end_date < now() + INTERVAL '1 day';
+EXPLAIN (ANALYZE, BUFFERS) UPDATE bench_part.bookings b SET phase = 'PAST'
+WHERE b.phase <> 'PAST' AND b.end_date < now() + INTERVAL '1 day';
+ROLLBACK;
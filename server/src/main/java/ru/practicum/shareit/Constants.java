@@ -2,4 +2,6 @@ package ru.practicum.shareit;
 
 public interface Constants {
     String SHARER_USER_ID = "X-Sharer-User-Id";
+    String IDEMPOTENCY_KEY = "Idempotency-Key";
+    String NEXT_CURSOR = "X-Next-Cursor";
 }
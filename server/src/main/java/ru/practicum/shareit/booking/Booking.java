@@ -14,7 +14,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_booker_start", columnList = "booker_id, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_item_start", columnList = "item_id, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_booker_phase", columnList = "booker_id, phase, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_item_phase", columnList = "item_id, phase, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_phase_end", columnList = "phase, end_date")
+})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +43,29 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingPhase phase;
+
+    @Version
+    private Long version;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this(id, start, end, item, booker, status, null);
+    }
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status,
+                   BookingPhase phase) {
+        this(id, start, end, item, booker, status, phase, null);
+    }
+
+    @PrePersist
+    void initPhase() {
+        if (phase == null) {
+            phase = BookingPhase.at(start, end, LocalDateTime.now());
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -57,6 +86,7 @@ public class Booking {
                 ", start=" + start +
                 ", end=" + end +
                 ", status=" + status +
+                ", phase=" + phase +
                 '}';
     }
 }
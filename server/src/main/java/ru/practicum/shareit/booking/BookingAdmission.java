@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Сериализует изменения бронирований одной вещи: проверка пересечений и запись выполняются
+ * под блокировкой полосы, выбранной по id вещи, и блокировка держится до завершения транзакции.
+ * Бронирования разных вещей попадают в разные полосы и обрабатываются параллельно.
+ */
+@Component
+public class BookingAdmission {
+    private final ReentrantLock[] stripes;
+
+    public BookingAdmission(@Value("${shareit.booking.admission-stripes:64}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockItem(Long itemId) {
+        lockStripes(new int[]{stripeIndex(itemId)});
+    }
+
+    /**
+     * Блокирует полосы нескольких вещей в порядке возрастания номера полосы,
+     * чтобы пакеты с пересекающимися наборами вещей не взаимоблокировались.
+     */
+    public void lockItems(Collection<Long> itemIds) {
+        lockStripes(itemIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray());
+    }
+
+    private void lockStripes(int[] indexes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+}
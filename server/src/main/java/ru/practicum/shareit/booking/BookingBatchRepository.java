@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BookingBatchRepository {
+
+    void insertAll(List<Booking> bookings);
+
+    int[] updateStatuses(Map<Long, BookingStatus> statuses);
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пакетные операции с бронированиями через JDBC batch. Идентификаторы IDENTITY не дают
+ * Hibernate группировать INSERT, поэтому строки пишутся напрямую, а сгенерированные
+ * id проставляются обратно в переданные объекты. Смена статуса применяется только
+ * к бронированиям, которые всё ещё ожидают решения.
+ */
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String INSERT = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, phase, " +
+            "version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String UPDATE_STATUS = "UPDATE bookings SET status = ?, version = version + 1 " +
+            "WHERE id = ? AND status = 'WAITING'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setObject(1, booking.getStart());
+                        ps.setObject(2, booking.getEnd());
+                        ps.setLong(3, booking.getItem().getId());
+                        ps.setLong(4, booking.getBooker().getId());
+                        ps.setString(5, booking.getStatus().name());
+                        ps.setString(6, booking.getPhase().name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+            bookings.get(i).setVersion(0L);
+        }
+    }
+
+    @Override
+    public int[] updateStatuses(Map<Long, BookingStatus> statuses) {
+        List<Object[]> rows = statuses.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue().name(), entry.getKey()})
+                .toList();
+        return rows.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(UPDATE_STATUS, rows);
+    }
+}
@@ -2,11 +2,28 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingHoldRequestDto;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingWaitlistDto;
+import ru.practicum.shareit.concurrency.ETags;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -17,44 +34,158 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingSeriesService bookingSeriesService;
+    private final BookingWaitlistService bookingWaitlistService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     public BookingResponseDto createBooking(
             @RequestBody BookingRequestDto bookingDto,
-            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+            @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
         log.debug("Creating booking with UTC times - start={}, end={}",
                 bookingDto.getStart(), bookingDto.getEnd());
 
-        return bookingService.createBooking(bookingDto, userId);
+        return idempotencyStore.execute(idempotencyKey, userId, "POST /bookings", bookingDto,
+                () -> bookingService.createBooking(bookingDto, userId));
+    }
+
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(
+            @RequestBody List<BookingRequestDto> bookingDtos,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingService.createBookings(bookingDtos, userId);
+    }
+
+    @PostMapping("/holds")
+    public BookingHoldDto createHold(
+            @RequestBody BookingHoldRequestDto holdDto,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingService.createHold(holdDto, userId);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public void releaseHold(
+            @PathVariable Long holdId,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        bookingService.releaseHold(holdId, userId);
+    }
+
+    @PatchMapping("/owner/decisions")
+    public List<BookingBatchResultDto> decideBookings(
+            @RequestBody List<BookingDecisionDto> decisions,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingService.decideBookings(decisions, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingResponseDto approveBooking(
+    public ResponseEntity<BookingResponseDto> approveBooking(
+            @PathVariable Long bookingId,
+            @RequestParam Boolean approved,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookingResponseDto booking = bookingService.approveBooking(bookingId, userId, approved, ETags.parse(ifMatch));
+        return ETags.ok(booking, booking.getVersion());
+    }
+
+    @PatchMapping("/{bookingId}/cancel")
+    public ResponseEntity<BookingResponseDto> cancelBooking(
             @PathVariable Long bookingId,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookingResponseDto booking = bookingService.cancelBooking(bookingId, userId, ETags.parse(ifMatch));
+        return ETags.ok(booking, booking.getVersion());
+    }
+
+    @PostMapping("/series")
+    public BookingSeriesDto createSeries(
+            @RequestBody BookingSeriesRequestDto seriesDto,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingSeriesService.createSeries(seriesDto, userId);
+    }
+
+    @PatchMapping("/series/{seriesId}")
+    public BookingSeriesDto approveSeries(
+            @PathVariable Long seriesId,
             @RequestParam Boolean approved,
             @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        return bookingService.approveBooking(bookingId, userId, approved);
+        return bookingSeriesService.approveSeries(seriesId, userId, approved);
+    }
+
+    @GetMapping("/series/{seriesId}")
+    public BookingSeriesDto getSeries(
+            @PathVariable Long seriesId,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingSeriesService.getSeries(seriesId, userId);
+    }
+
+    @GetMapping("/series/{seriesId}/occurrences")
+    public List<BookingOccurrenceDto> getOccurrences(
+            @PathVariable Long seriesId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingSeriesService.getOccurrences(seriesId, userId, from, to);
+    }
+
+    @PostMapping("/waitlist")
+    public BookingWaitlistDto joinWaitlist(
+            @RequestBody BookingRequestDto bookingDto,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingWaitlistService.join(bookingDto, userId);
+    }
+
+    @GetMapping("/waitlist")
+    public List<BookingWaitlistDto> getWaitlist(@RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingWaitlistService.getEntries(userId);
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    public void leaveWaitlist(
+            @PathVariable Long entryId,
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        bookingWaitlistService.leave(entryId, userId);
+    }
+
+    @GetMapping("/stats")
+    public BookingStatsDto getUserStats(@RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingService.getStats(BookingRole.BOOKER, userId);
+    }
+
+    @GetMapping("/owner/stats")
+    public BookingStatsDto getOwnerStats(@RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingService.getStats(BookingRole.OWNER, userId);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(Constants.SHARER_USER_ID) Long userId) {
+        return bookingService.subscribe(userId);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBooking(
+    public ResponseEntity<BookingResponseDto> getBooking(
             @PathVariable Long bookingId,
             @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        return bookingService.getBookingById(bookingId, userId);
+        BookingResponseDto booking = bookingService.getBookingById(bookingId, userId);
+        return ETags.ok(booking, booking.getVersion());
     }
 
     @GetMapping
     public List<BookingResponseDto> getUserBookings(
             @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
             @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        return bookingService.getUserBookings(userId, state);
+        return bookingService.getUserBookings(userId, state, after, size);
     }
 
     @GetMapping("/owner")
     public List<BookingResponseDto> getOwnerBookings(
             @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
             @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        return bookingService.getOwnerBookings(userId, state);
+        return bookingService.getOwnerBookings(userId, state, after, size);
     }
 }
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCountDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingUsersDto;
+import ru.practicum.shareit.concurrency.AfterCommit;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Счётчики бронирований по состояниям для каждого арендатора и владельца.
+ * Обновляются после фиксации создания, решения владельца и смены фазы;
+ * периодически пересобираются одним запросом GROUP BY, что исправляет накопленное расхождение.
+ */
+@Slf4j
+@Component
+public class BookingCounters {
+    private static final int STATES = BookingState.values().length;
+
+    private final BookingRepository bookingRepository;
+    private final long reconcileMillis;
+    private final ScheduledExecutorService executor;
+    private volatile Map<Long, AtomicLongArray> byBooker = new ConcurrentHashMap<>();
+    private volatile Map<Long, AtomicLongArray> byOwner = new ConcurrentHashMap<>();
+
+    public BookingCounters(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.stats.reconcile-ms:300000}") long reconcileMillis) {
+        this.bookingRepository = bookingRepository;
+        this.reconcileMillis = reconcileMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-counters-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось пересчитать счётчики бронирований", e);
+            }
+        }, reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public BookingStatsDto get(BookingRole role, Long userId) {
+        AtomicLongArray counters = (role == BookingRole.OWNER ? byOwner : byBooker).get(userId);
+        if (counters == null) {
+            return new BookingStatsDto();
+        }
+        return new BookingStatsDto(
+                counters.get(BookingState.ALL.ordinal()),
+                counters.get(BookingState.CURRENT.ordinal()),
+                counters.get(BookingState.PAST.ordinal()),
+                counters.get(BookingState.FUTURE.ordinal()),
+                counters.get(BookingState.WAITING.ordinal()),
+                counters.get(BookingState.REJECTED.ordinal()));
+    }
+
+    public void created(Long bookerId, Long ownerId, BookingPhase phase) {
+        AfterCommit.run(() -> {
+            for (AtomicLongArray counters : countersOf(bookerId, ownerId)) {
+                counters.incrementAndGet(BookingState.ALL.ordinal());
+                counters.incrementAndGet(BookingState.WAITING.ordinal());
+                counters.incrementAndGet(stateOf(phase).ordinal());
+            }
+        });
+    }
+
+    public void decided(Long bookerId, Long ownerId, BookingStatus status) {
+        AfterCommit.run(() -> {
+            for (AtomicLongArray counters : countersOf(bookerId, ownerId)) {
+                counters.decrementAndGet(BookingState.WAITING.ordinal());
+                if (status == BookingStatus.REJECTED) {
+                    counters.incrementAndGet(BookingState.REJECTED.ordinal());
+                }
+            }
+        });
+    }
+
+    /**
+     * Переносит бронирования в фазу phase из предыдущей: CURRENT из FUTURE, PAST из CURRENT.
+     */
+    public void phaseChanged(Collection<Long> bookingIds, BookingPhase phase) {
+        if (bookingIds.isEmpty() || phase == BookingPhase.FUTURE) {
+            return;
+        }
+        BookingState from = phase == BookingPhase.CURRENT ? BookingState.FUTURE : BookingState.CURRENT;
+        for (BookingUsersDto users : bookingRepository.findUsersByIds(bookingIds)) {
+            for (AtomicLongArray counters : countersOf(users.getBookerId(), users.getOwnerId())) {
+                counters.decrementAndGet(from.ordinal());
+                counters.incrementAndGet(stateOf(phase).ordinal());
+            }
+        }
+    }
+
+    /**
+     * Пересобирает счётчики из БД. Изменения, применённые между запросом и заменой карт,
+     * теряются до следующего пересчёта.
+     */
+    public void reconcile() {
+        Map<Long, AtomicLongArray> bookers = new ConcurrentHashMap<>();
+        Map<Long, AtomicLongArray> owners = new ConcurrentHashMap<>();
+        for (BookingCountDto row : bookingRepository.countByUsers()) {
+            add(bookers.computeIfAbsent(row.getBookerId(), id -> new AtomicLongArray(STATES)), row);
+            add(owners.computeIfAbsent(row.getOwnerId(), id -> new AtomicLongArray(STATES)), row);
+        }
+        byBooker = bookers;
+        byOwner = owners;
+        log.debug("Счётчики бронирований пересчитаны: {} арендаторов, {} владельцев", bookers.size(), owners.size());
+    }
+
+    private static void add(AtomicLongArray counters, BookingCountDto row) {
+        long count = row.getCount();
+        counters.addAndGet(BookingState.ALL.ordinal(), count);
+        counters.addAndGet(stateOf(row.getPhase()).ordinal(), count);
+        if (row.getStatus() == BookingStatus.WAITING || row.getStatus() == BookingStatus.REJECTED) {
+            counters.addAndGet(BookingState.valueOf(row.getStatus().name()).ordinal(), count);
+        }
+    }
+
+    private AtomicLongArray[] countersOf(Long bookerId, Long ownerId) {
+        return new AtomicLongArray[]{
+                byBooker.computeIfAbsent(bookerId, id -> new AtomicLongArray(STATES)),
+                byOwner.computeIfAbsent(ownerId, id -> new AtomicLongArray(STATES))
+        };
+    }
+
+    private static BookingState stateOf(BookingPhase phase) {
+        return BookingState.valueOf(phase.name());
+    }
+}
@@ -0,0 +1,258 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.concurrency.AfterCommit;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка событий бронирований арендатору и владельцу вещи через SSE.
+ * Подписка без непрочитанных событий хранит только эмиттер: очередь создаётся при первом событии
+ * и освобождается после отправки. Отправка идёт в виртуальных потоках, поэтому клиент, который не читает
+ * ответ, блокирует только свою отправку. Подписчик отключается, если в его очереди накопилось больше
+ * buffer событий или одна отправка длится дольше send-timeout-ms:
+ * клиент переподключается и перечитывает состояние запросом.
+ */
+@Slf4j
+@Component
+public class BookingEvents {
+    static final String EVENT_NAME = "booking";
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final long sendTimeoutMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService sender;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingEvents(@Value("${shareit.booking.stream.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${shareit.booking.stream.buffer:32}") int bufferSize,
+                         @Value("${shareit.booking.stream.heartbeat-ms:30000}") long heartbeatMillis,
+                         @Value("${shareit.booking.stream.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this(timeoutMillis, bufferSize, heartbeatMillis, sendTimeoutMillis,
+                Executors.newSingleThreadScheduledExecutor(new ThreadNamer()),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-events-send-", 1).factory()));
+    }
+
+    BookingEvents(long timeoutMillis, int bufferSize, long heartbeatMillis, long sendTimeoutMillis,
+                  ScheduledExecutorService scheduler, ExecutorService sender) {
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = heartbeatMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.scheduler = scheduler;
+        this.sender = sender;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(1, sendTimeoutMillis / 2);
+        scheduler.scheduleAtFixedRate(this::dropStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(userId, emitter);
+        return emitter;
+    }
+
+    void subscribe(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> updated = set == null ? ConcurrentHashMap.newKeySet() : set;
+            updated.add(subscriber);
+            return updated;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+    }
+
+    int subscriberCount(Long userId) {
+        Set<Subscriber> set = subscribers.get(userId);
+        return set == null ? 0 : set.size();
+    }
+
+    /**
+     * Отправляет событие о бронировании с указанным статусом арендатору и владельцу после фиксации транзакции.
+     */
+    public void publish(Booking booking, BookingStatus status) {
+        BookingEventDto event = BookingMapper.toBookingEventDto(booking, status);
+        Long bookerId = booking.getBooker().getId();
+        Long ownerId = booking.getItem().getOwner().getId();
+        AfterCommit.run(() -> {
+            deliver(bookerId, event);
+            if (!ownerId.equals(bookerId)) {
+                deliver(ownerId, event);
+            }
+        });
+    }
+
+    private void deliver(Long userId, BookingEventDto event) {
+        Set<Subscriber> set = subscribers.get(userId);
+        if (set == null) {
+            return;
+        }
+        for (Subscriber subscriber : set) {
+            if (!subscriber.offer(event)) {
+                log.warn("Подписчик пользователя {} не успевает читать события и отключён", userId);
+                drop(subscriber);
+                continue;
+            }
+            subscriber.scheduleDrain();
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> sender.execute(subscriber::ping)));
+    }
+
+    private void dropStalled() {
+        long now = System.nanoTime();
+        long limit = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > limit) {
+                log.warn("Отправка события подписчику пользователя {} длится дольше {} мс, подписчик отключён",
+                        subscriber.userId, sendTimeoutMillis);
+                drop(subscriber);
+            }
+        }));
+    }
+
+    // complete() ждёт окончания текущей отправки эмиттера, поэтому вызывается в потоке отправки
+    private void drop(Subscriber subscriber) {
+        unsubscribe(subscriber);
+        sender.execute(subscriber.emitter::complete);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private ArrayDeque<BookingEventDto> pending;
+        // System.nanoTime() начала текущей отправки, 0 — отправки нет
+        private volatile long sendStartedAt;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized boolean offer(BookingEventDto event) {
+            if (pending == null) {
+                pending = new ArrayDeque<>(4);
+            }
+            if (pending.size() >= bufferSize) {
+                return false;
+            }
+            pending.add(event);
+            return true;
+        }
+
+        synchronized BookingEventDto poll() {
+            if (pending == null) {
+                return null;
+            }
+            BookingEventDto event = pending.poll();
+            if (pending.isEmpty()) {
+                pending = null;
+            }
+            return event;
+        }
+
+        synchronized boolean hasPending() {
+            return pending != null;
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                BookingEventDto event;
+                while ((event = poll()) != null) {
+                    send(SseEmitter.event().name(EVENT_NAME).data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // событие могло прийти между последним poll и сбросом флага
+            if (hasPending()) {
+                scheduleDrain();
+            }
+        }
+
+        void ping() {
+            try {
+                send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedAt = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+    }
+
+    private static final class ThreadNamer implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "booking-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
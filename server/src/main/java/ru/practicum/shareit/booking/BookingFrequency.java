@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Частота повторения серии бронирований, как FREQ в RRULE.
+ */
+public enum BookingFrequency {
+    DAILY(1),
+    WEEKLY(7);
+
+    private final int days;
+
+    BookingFrequency(int days) {
+        this.days = days;
+    }
+
+    public int getDays() {
+        return days;
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.concurrency.AfterCommit;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Краткосрочные удержания интервалов вещей на время оформления бронирования. Удержания живут
+ * только в памяти: по вещи хранится неизменяемый список, сроки лежат в колесе таймеров, и очистка
+ * за тик просматривает одну ячейку колеса, а не все удержания. Истёкшее, но ещё не убранное
+ * удержание уже ни с чем не конфликтует: проверки сравнивают срок с текущим временем.
+ */
+@Slf4j
+@Component
+public class BookingHolds {
+    private final long tickMillis;
+    private final int defaultMinutes;
+    private final int maxMinutes;
+    private final BookingTimingWheel<Hold> wheel;
+    private final Map<Long, List<Hold>> byItem = new ConcurrentHashMap<>();
+    private final Map<Long, Hold> byId = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService executor;
+
+    @Autowired
+    public BookingHolds(@Value("${shareit.booking.holds.tick-ms:1000}") long tickMillis,
+                        @Value("${shareit.booking.holds.wheel-size:512}") int wheelSize,
+                        @Value("${shareit.booking.holds.default-minutes:10}") int defaultMinutes,
+                        @Value("${shareit.booking.holds.max-minutes:30}") int maxMinutes) {
+        this(tickMillis, wheelSize, defaultMinutes, maxMinutes, System.currentTimeMillis());
+    }
+
+    BookingHolds(long tickMillis, int wheelSize, int defaultMinutes, int maxMinutes, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.defaultMinutes = defaultMinutes;
+        this.maxMinutes = maxMinutes;
+        this.wheel = new BookingTimingWheel<>(tickMillis, wheelSize, startMillis);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-holds");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleAtFixedRate(() -> expire(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Удерживает интервал за арендатором на minutes минут (по умолчанию default-minutes).
+     * Вызывается под блокировкой вещи {@link BookingAdmission}.
+     */
+    public Hold place(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end, Integer minutes) {
+        return place(itemId, bookerId, start, end, minutes, System.currentTimeMillis());
+    }
+
+    Hold place(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end, Integer minutes, long nowMillis) {
+        int ttl = minutes != null ? minutes : defaultMinutes;
+        if (ttl <= 0 || ttl > maxMinutes) {
+            throw new IllegalArgumentException("Срок удержания должен быть от 1 до " + maxMinutes + " минут");
+        }
+        Hold hold = new Hold(sequence.incrementAndGet(), itemId, bookerId, start, end,
+                nowMillis + TimeUnit.MINUTES.toMillis(ttl));
+        byItem.compute(itemId, (id, holds) -> {
+            List<Hold> active = new ArrayList<>();
+            if (holds != null) {
+                for (Hold other : holds) {
+                    if (!other.activeAt(nowMillis)) {
+                        continue;
+                    }
+                    if (other.conflicts(bookerId, start, end)) {
+                        throw new IllegalArgumentException("Выбранные даты удерживаются другим пользователем");
+                    }
+                    active.add(other);
+                }
+            }
+            active.add(hold);
+            return List.copyOf(active);
+        });
+        byId.put(hold.id(), hold);
+        wheel.schedule(hold, hold.deadlineMillis());
+        return hold;
+    }
+
+    /**
+     * Есть ли на интервале действующее удержание другого пользователя.
+     */
+    public boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end, Long bookerId) {
+        return hasConflict(itemId, start, end, bookerId, System.currentTimeMillis());
+    }
+
+    boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end, Long bookerId, long nowMillis) {
+        List<Hold> holds = byItem.get(itemId);
+        if (holds == null) {
+            return false;
+        }
+        for (Hold hold : holds) {
+            if (hold.activeAt(nowMillis) && hold.conflicts(bookerId, start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Пересекается ли хоть одно повторение серии с действующим удержанием другого пользователя.
+     */
+    public boolean hasConflict(Long itemId, BookingRecurrence recurrence, Long bookerId) {
+        return hasConflict(itemId, recurrence, bookerId, System.currentTimeMillis());
+    }
+
+    boolean hasConflict(Long itemId, BookingRecurrence recurrence, Long bookerId, long nowMillis) {
+        List<Hold> holds = byItem.get(itemId);
+        if (holds == null) {
+            return false;
+        }
+        for (Hold hold : holds) {
+            if (hold.activeAt(nowMillis) && !hold.bookerId().equals(bookerId)
+                    && recurrence.overlaps(hold.start(), hold.end())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Optional<Hold> find(Long holdId) {
+        return Optional.ofNullable(byId.get(holdId)).filter(hold -> hold.activeAt(System.currentTimeMillis()));
+    }
+
+    public void release(Hold hold) {
+        if (byId.remove(hold.id(), hold)) {
+            byItem.computeIfPresent(hold.itemId(), (id, holds) -> without(holds, hold));
+        }
+    }
+
+    /**
+     * Снимает удержания арендатора, пересекающиеся с его созданным бронированием, после фиксации транзакции.
+     */
+    public void releaseCovered(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        AfterCommit.run(() -> {
+            List<Hold> holds = byItem.get(itemId);
+            if (holds == null) {
+                return;
+            }
+            for (Hold hold : holds) {
+                if (hold.bookerId().equals(bookerId) && hold.overlaps(start, end)) {
+                    release(hold);
+                }
+            }
+        });
+    }
+
+    void expire(long nowMillis) {
+        List<Hold> due = wheel.advance(nowMillis);
+        due.forEach(this::release);
+        if (!due.isEmpty()) {
+            log.debug("Истекло удержаний: {}", due.size());
+        }
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    private static List<Hold> without(List<Hold> holds, Hold hold) {
+        List<Hold> rest = new ArrayList<>(holds);
+        rest.remove(hold);
+        return rest.isEmpty() ? null : List.copyOf(rest);
+    }
+
+    public record Hold(long id, Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                       long deadlineMillis) {
+
+        public LocalDateTime expires() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(deadlineMillis), ZoneId.systemDefault());
+        }
+
+        boolean activeAt(long nowMillis) {
+            return deadlineMillis > nowMillis;
+        }
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return !start.isAfter(to) && !from.isAfter(end);
+        }
+
+        boolean conflicts(Long otherBookerId, LocalDateTime from, LocalDateTime to) {
+            return !bookerId.equals(otherBookerId) && overlaps(from, to);
+        }
+    }
+}
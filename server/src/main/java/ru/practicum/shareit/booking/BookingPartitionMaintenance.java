@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обслуживает помесячные секции таблицы bookings в режиме {@code shareit.booking.storage=partitioned}:
+ * заранее создаёт секции на months-ahead месяцев вперёд и для месяцев, строки которых уже лежат
+ * в секции по умолчанию, а секции старше retention-months отсоединяет. Отсоединённая секция остаётся
+ * отдельной таблицей для архива и больше не участвует в запросах.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.storage", havingValue = "partitioned")
+public class BookingPartitionMaintenance {
+    static final String PARENT = "bookings";
+    static final String DEFAULT_PARTITION = "bookings_default";
+    private static final String PREFIX = "bookings_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    public BookingPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${shareit.booking.partitions.months-ahead:12}") int monthsAhead,
+                                       @Value("${shareit.booking.partitions.retention-months:36}") int retentionMonths,
+                                       @Value("${shareit.booking.partitions.interval-ms:86400000}") long intervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                maintain(YearMonth.now());
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обслужить секции бронирований", e);
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    void maintain(YearMonth current) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, PARENT));
+        YearMonth oldestKept = retentionMonths > 0 ? current.minusMonths(retentionMonths) : null;
+
+        YearMonth from = current.minusMonths(1);
+        LocalDateTime oldestDefault = jdbcTemplate.queryForObject(
+                "SELECT MIN(end_date) FROM " + DEFAULT_PARTITION, LocalDateTime.class);
+        if (oldestDefault != null && YearMonth.from(oldestDefault).isBefore(from)) {
+            from = YearMonth.from(oldestDefault);
+        }
+        if (oldestKept != null && from.isBefore(oldestKept)) {
+            from = oldestKept;
+        }
+        for (YearMonth month : missing(existing, from, current.plusMonths(monthsAhead))) {
+            createPartition(month);
+        }
+        if (oldestKept != null) {
+            for (String partition : expired(existing, oldestKept)) {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition);
+                log.info("Секция {} отсоединена от {}", partition, PARENT);
+            }
+        }
+    }
+
+    /**
+     * Создаёт секцию месяца. Строки этого месяца, уже попавшие в секцию по умолчанию, переносятся
+     * в новую таблицу до присоединения: иначе PostgreSQL откажется присоединять пересекающийся диапазон.
+     */
+    void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION
+                    + " WHERE end_date >= ? AND end_date < ?", from, to);
+            if (moved > 0) {
+                jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE end_date >= ? AND end_date < ?", from, to);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Создана секция {}, перенесено строк из секции по умолчанию: {}", name, moved);
+        });
+    }
+
+    static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    static List<YearMonth> missing(Set<String> existing, YearMonth from, YearMonth to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!existing.contains(partitionName(month))) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    static List<String> expired(Set<String> existing, YearMonth oldestKept) {
+        return existing.stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .filter(name -> YearMonth.parse(name.substring(PREFIX.length()), SUFFIX).isBefore(oldestKept))
+                .sorted()
+                .toList();
+    }
+}
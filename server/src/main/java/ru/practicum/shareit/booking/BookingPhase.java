@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фаза бронирования относительно текущего момента. Хранится в столбце phase
+ * и переключается планировщиком {@link BookingPhaseScheduler}.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (now.isBefore(start)) {
+            return FUTURE;
+        }
+        return now.isAfter(end) ? PAST : CURRENT;
+    }
+}
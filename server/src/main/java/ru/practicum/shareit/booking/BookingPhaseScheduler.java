@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.concurrency.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает столбец phase бронирований. Моменты начала и окончания каждого
+ * незавершённого бронирования лежат в колесе таймеров; наступившие переходы
+ * применяются пачками UPDATE по списку id и переносятся в счётчики {@link BookingCounters} —
+ * только для бронирований, фаза которых действительно изменилась.
+ * При старте и после ошибки записи пропущенные переходы догоняются двумя UPDATE по времени.
+ */
+@Slf4j
+@Component
+public class BookingPhaseScheduler {
+    private static final int UPDATE_BATCH = 500;
+
+    private final BookingRepository bookingRepository;
+    private final BookingCounters bookingCounters;
+    private final long tickMillis;
+    private final BookingTimingWheel<Transition> wheel;
+    private final ScheduledExecutorService executor;
+    private volatile boolean catchUpPending;
+
+    public BookingPhaseScheduler(BookingRepository bookingRepository,
+                                 BookingCounters bookingCounters,
+                                 @Value("${shareit.booking.phase.tick-ms:1000}") long tickMillis,
+                                 @Value("${shareit.booking.phase.wheel-size:512}") int wheelSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingCounters = bookingCounters;
+        this.tickMillis = tickMillis;
+        this.wheel = new BookingTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-phase-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = catchUp();
+        // После догоняющего обновления фаза FUTURE осталась только у бронирований, начинающихся позже now
+        List<BookingIntervalDto> pending = bookingRepository.findPendingPhaseIntervals();
+        pending.forEach(interval -> schedule(interval.getId(), interval.getStart(), interval.getEnd(),
+                interval.getStart().isAfter(now) ? BookingPhase.FUTURE : BookingPhase.CURRENT));
+        log.info("Планировщик фаз бронирований запущен: {} переходов в колесе", wheel.size());
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ставит переходы нового бронирования в колесо после фиксации транзакции.
+     */
+    public void register(Long bookingId, LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+        AfterCommit.run(() -> schedule(bookingId, start, end, phase));
+    }
+
+    /**
+     * Переводит в PAST и CURRENT все бронирования, чьи моменты перехода уже прошли.
+     */
+    public LocalDateTime catchUp() {
+        LocalDateTime now = LocalDateTime.now();
+        int past = bookingRepository.markPast(now);
+        int current = bookingRepository.markCurrent(now);
+        catchUpPending = false;
+        if (past + current > 0) {
+            log.info("Догнаны пропущенные переходы фаз: {} в PAST, {} в CURRENT", past, current);
+            bookingCounters.reconcile();
+        }
+        return now;
+    }
+
+    void tick() {
+        try {
+            if (catchUpPending) {
+                catchUp();
+            }
+            apply(wheel.advance(System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            catchUpPending = true;
+            log.warn("Не удалось применить переходы фаз, будет выполнено догоняющее обновление", e);
+        }
+    }
+
+    void apply(List<Transition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        Map<BookingPhase, List<Long>> byPhase = transitions.stream()
+                .collect(Collectors.groupingBy(Transition::phase,
+                        Collectors.mapping(Transition::bookingId, Collectors.toList())));
+        // CURRENT раньше PAST: если оба перехода наступили в одном тике, итоговой фазой будет PAST
+        for (BookingPhase phase : List.of(BookingPhase.CURRENT, BookingPhase.PAST)) {
+            List<Long> ids = byPhase.getOrDefault(phase, List.of());
+            for (int from = 0; from < ids.size(); from += UPDATE_BATCH) {
+                List<Long> batch = new ArrayList<>(ids.subList(from, Math.min(ids.size(), from + UPDATE_BATCH)));
+                // Догоняющее обновление могло уже перевести часть бронирований: их счётчики пересчитаны
+                List<Long> moving = bookingRepository.findIdsToMove(batch, phase);
+                if (moving.isEmpty()) {
+                    continue;
+                }
+                bookingRepository.updatePhase(moving, phase);
+                bookingCounters.phaseChanged(moving, phase);
+            }
+        }
+    }
+
+    // Уже наступивший переход сработает на ближайшем тике
+    private void schedule(Long bookingId, LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+        if (phase == BookingPhase.PAST) {
+            return;
+        }
+        if (phase == BookingPhase.FUTURE) {
+            wheel.schedule(new Transition(bookingId, BookingPhase.CURRENT), toMillis(start));
+        }
+        // PAST наступает строго после окончания
+        wheel.schedule(new Transition(bookingId, BookingPhase.PAST), toMillis(end) + 1);
+    }
+
+    private static long toMillis(LocalDateTime moment) {
+        return moment.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    record Transition(long bookingId, BookingPhase phase) {
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<BookingResponseDto> findBookings(BookingRole role, Long userId, BookingState state,
+                                          BookingCursor after, Integer size);
+
+    List<Booking> findLastBookingsForItems(List<Long> itemIds, LocalDateTime now);
+
+    List<Booking> findNextBookingsForItems(List<Long> itemIds, LocalDateTime now);
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Единый построитель запросов списков бронирований по роли пользователя и состоянию.
+ * Бронирование, арендатор и вещь выбираются одним запросом с соединениями и сразу
+ * проецируются в {@link BookingResponseDto}, поэтому число запросов не зависит от размера выборки.
+ * Состояния CURRENT/PAST/FUTURE отбираются по столбцу phase, который поддерживает
+ * {@link BookingPhaseScheduler}. Для последних и ближайших бронирований вещей в режиме
+ * {@code shareit.booking.storage=range} (PostgreSQL, schema-range.sql) используются операторы
+ * диапазонов над столбцом {@code period tsrange}, в обычном режиме — сравнения start_date/end_date.
+ * В режиме {@code partitioned} (PostgreSQL, schema-partitioned.sql) таблица разбита на секции по end_date,
+ * поэтому состояния отбираются сравнением дат с текущим моментом: условие на end_date позволяет
+ * планировщику отбросить секции, которые не могут содержать подходящих строк.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final String JPQL_SELECT = "SELECT b FROM Booking b WHERE ";
+    private static final String SQL_SELECT = "SELECT b.* FROM bookings b WHERE ";
+    private static final String JPQL_SELECT_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(" +
+            "b.id, b.start, b.end, u.id, u.name, u.email, i.id, i.name, i.description, i.available, r.id, b.status) " +
+            "FROM Booking b JOIN b.booker u JOIN b.item i LEFT JOIN i.request r WHERE ";
+    private static final String SQL_SELECT_DTO = "SELECT b.id AS id, b.start_date AS start_date, " +
+            "b.end_date AS end_date, u.id AS booker_id, u.name AS booker_name, u.email AS booker_email, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, " +
+            "i.available AS item_available, i.request_id AS item_request_id, b.status AS status " +
+            "FROM bookings b JOIN users u ON u.id = b.booker_id JOIN items i ON i.id = b.item_id WHERE ";
+
+    // Те же границы, что в BookingPhase.at
+    private static final Map<BookingPhase, String> PARTITION_PHASES = Map.of(
+            BookingPhase.CURRENT, "b.start_date <= :now AND b.end_date >= :now",
+            BookingPhase.PAST, "b.end_date < :now",
+            BookingPhase.FUTURE, "b.start_date > :now AND b.end_date > :now");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // range и partitioned — PostgreSQL со своей схемой, запросы пишутся на SQL
+    private final boolean nativeStorage;
+    private final boolean partitioned;
+
+    public BookingQueryRepositoryImpl(@Value("${shareit.booking.storage:plain}") String storage) {
+        this.partitioned = "partitioned".equalsIgnoreCase(storage);
+        this.nativeStorage = partitioned || "range".equalsIgnoreCase(storage);
+    }
+
+    @Override
+    public List<Booking> findLastBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+        return findByItems(Period.PAST, "b.item.id, b.end DESC", "b.item_id, b.end_date DESC", itemIds, now);
+    }
+
+    @Override
+    public List<Booking> findNextBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+        return findByItems(Period.FUTURE, "b.item.id, b.start ASC", "b.item_id, b.start_date ASC", itemIds, now);
+    }
+
+    @Override
+    public List<BookingResponseDto> findBookings(BookingRole role, Long userId, BookingState state,
+                                                 BookingCursor after, Integer size) {
+        List<String> conditions = new ArrayList<>();
+        if (role == BookingRole.OWNER) {
+            conditions.add(nativeStorage ? "i.owner_id = :userId" : "i.owner.id = :userId");
+        } else {
+            conditions.add(nativeStorage ? "b.booker_id = :userId" : "u.id = :userId");
+        }
+
+        BookingPhase phase = switch (state) {
+            case CURRENT -> BookingPhase.CURRENT;
+            case PAST -> BookingPhase.PAST;
+            case FUTURE -> BookingPhase.FUTURE;
+            default -> null;
+        };
+        if (phase != null) {
+            conditions.add(partitioned ? PARTITION_PHASES.get(phase) : "b.phase = :phase");
+        } else if (state != BookingState.ALL) {
+            conditions.add("b.status = :status");
+        }
+
+        String start = nativeStorage ? "b.start_date" : "b.start";
+        if (after != null) {
+            conditions.add("(" + start + " < :afterStart OR (" + start + " = :afterStart AND b.id < :afterId))");
+        }
+
+        String where = String.join(" AND ", conditions) + " ORDER BY " + start + " DESC, b.id DESC";
+        Query query = nativeStorage
+                ? nativeDtoQuery(SQL_SELECT_DTO + where)
+                : entityManager.createQuery(JPQL_SELECT_DTO + where, BookingResponseDto.class);
+
+        query.setParameter("userId", userId);
+        if (phase != null && partitioned) {
+            query.setParameter("now", LocalDateTime.now());
+        } else if (phase != null) {
+            query.setParameter("phase", nativeStorage ? phase.name() : phase);
+        } else if (state != BookingState.ALL) {
+            BookingStatus status = BookingStatus.valueOf(state.name());
+            query.setParameter("status", nativeStorage ? status.name() : status);
+        }
+        if (after != null) {
+            query.setParameter("afterStart", after.start()).setParameter("afterId", after.id());
+        }
+        if (size != null) {
+            query.setMaxResults(size);
+        }
+        return list(query);
+    }
+
+    private Query nativeDtoQuery(String sql) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        return query
+                .addScalar("id", Long.class)
+                .addScalar("start_date", LocalDateTime.class)
+                .addScalar("end_date", LocalDateTime.class)
+                .addScalar("booker_id", Long.class)
+                .addScalar("booker_name", String.class)
+                .addScalar("booker_email", String.class)
+                .addScalar("item_id", Long.class)
+                .addScalar("item_name", String.class)
+                .addScalar("item_description", String.class)
+                .addScalar("item_available", Boolean.class)
+                .addScalar("item_request_id", Long.class)
+                .addScalar("status", String.class)
+                .setTupleTransformer((tuple, aliases) -> new BookingResponseDto(
+                        (Long) tuple[0], (LocalDateTime) tuple[1], (LocalDateTime) tuple[2],
+                        (Long) tuple[3], (String) tuple[4], (String) tuple[5],
+                        (Long) tuple[6], (String) tuple[7], (String) tuple[8], (Boolean) tuple[9],
+                        (Long) tuple[10], BookingStatus.valueOf((String) tuple[11])));
+    }
+
+    private List<Booking> findByItems(Period period, String jpqlOrder, String sqlOrder,
+                                      List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Query query = nativeStorage
+                ? entityManager.createNativeQuery(SQL_SELECT + "b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND "
+                        + (partitioned ? period.partitionedSql : period.sql) + " ORDER BY " + sqlOrder, Booking.class)
+                : entityManager.createQuery(JPQL_SELECT + "b.item.id IN :itemIds AND b.status = 'APPROVED' AND "
+                        + period.jpql + " ORDER BY " + jpqlOrder, Booking.class);
+        return list(query.setParameter("itemIds", itemIds).setParameter("now", now));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> list(Query query) {
+        return query.getResultList();
+    }
+
+    private enum Period {
+        PAST("b.end < :now",
+                "b.period << tsrange(CAST(:now AS timestamp), NULL)",
+                "b.end_date < :now"),
+        // окончание после начала, условие на end_date добавлено только ради отсечения секций
+        FUTURE("b.start > :now",
+                "b.period >> tsrange(NULL, CAST(:now AS timestamp), '(]')",
+                "b.start_date > :now AND b.end_date > :now");
+
+        private final String jpql;
+        private final String sql;
+        private final String partitionedSql;
+
+        Period(String jpql, String sql, String partitionedSql) {
+            this.jpql = jpql;
+            this.sql = sql;
+            this.partitionedSql = partitionedSql;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Повторения одобренной серии бронирований: k-е повторение занимает
+ * [start + k·step, start + k·step + duration], k от 0 до count - 1. Повторения не хранятся —
+ * нужное вычисляется по номеру, поэтому проверки и выборки в окне не зависят от длины серии.
+ * Длительность меньше шага, так что повторения не пересекаются и упорядочены и по началу, и по окончанию.
+ */
+record BookingRecurrence(long seriesId, LocalDateTime start, Duration duration, Duration step, int count) {
+
+    static BookingRecurrence of(BookingSeries series) {
+        return new BookingRecurrence(series.getId() != null ? series.getId() : 0L, series.getStart(),
+                Duration.between(series.getStart(), series.getEnd()),
+                Duration.ofDays((long) series.getFrequency().getDays() * series.getRepeatInterval()),
+                series.getOccurrences());
+    }
+
+    /**
+     * Число повторений с началом не позже until.
+     */
+    static long countUntil(LocalDateTime start, Duration step, LocalDateTime until) {
+        return until.isBefore(start) ? 0 : steps(start, until, step) + 1;
+    }
+
+    LocalDateTime startOf(long k) {
+        return start.plus(step.multipliedBy(k));
+    }
+
+    LocalDateTime endOf(long k) {
+        return startOf(k).plus(duration);
+    }
+
+    LocalDateTime lastEnd() {
+        return endOf(count - 1L);
+    }
+
+    // Последнее повторение с началом не позже moment, -1 если такого нет
+    long lastStartingNotAfter(LocalDateTime moment) {
+        return moment.isBefore(start) ? -1 : Math.min(count - 1L, steps(start, moment, step));
+    }
+
+    // Первое повторение с окончанием не раньше moment, count если такого нет
+    long firstEndingNotBefore(LocalDateTime moment) {
+        LocalDateTime firstEnd = start.plus(duration);
+        if (!moment.isAfter(firstEnd)) {
+            return 0;
+        }
+        long k = steps(firstEnd, moment, step);
+        if (endOf(k).isBefore(moment)) {
+            k++;
+        }
+        return Math.min(k, count);
+    }
+
+    // Границы включительно, как в BookingTimeline
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        long k = lastStartingNotAfter(to);
+        return k >= 0 && !endOf(k).isBefore(from);
+    }
+
+    List<BookingTimeline.Interval> between(LocalDateTime from, LocalDateTime to) {
+        List<BookingTimeline.Interval> occurrences = new ArrayList<>();
+        for (long k = firstEndingNotBefore(from), last = lastStartingNotAfter(to); k <= last; k++) {
+            occurrences.add(new BookingTimeline.Interval(-seriesId, startOf(k), endOf(k)));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Пересекается ли хотя бы одно повторение с повторением другой серии: оба потока
+     * упорядочены, поэтому проход слиянием, начиная с первого повторения, способного пересечься.
+     */
+    boolean overlaps(BookingRecurrence other) {
+        long i = firstEndingNotBefore(other.start);
+        long j = other.firstEndingNotBefore(start);
+        while (i < count && j < other.count) {
+            LocalDateTime end = endOf(i);
+            LocalDateTime otherEnd = other.endOf(j);
+            if (!startOf(i).isAfter(otherEnd) && !other.startOf(j).isAfter(end)) {
+                return true;
+            }
+            if (end.isBefore(otherEnd)) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    // Число целых шагов от from до to с округлением вниз, to не раньше from
+    private static long steps(LocalDateTime from, LocalDateTime to, Duration step) {
+        return Duration.between(from, to).dividedBy(step);
+    }
+}
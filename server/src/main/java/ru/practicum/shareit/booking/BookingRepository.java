@@ -1,61 +1,65 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCountDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingUsersDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
-            "AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByBooker(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId" +
-            " AND b.end < :now ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByBooker(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId" +
-            " AND b.start > :now ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByBooker(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
-            "AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByOwner(
-            @Param("ownerId") Long ownerId,
-            @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
-            "AND b.end < :now ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByOwner(
-            @Param("ownerId") Long ownerId,
-            @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
-            "AND b.start > :now ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByOwner(
-            @Param("ownerId") Long ownerId,
-            @Param("now") LocalDateTime now);
-
-    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
-            "WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND ((b.start BETWEEN :start AND :end) OR (b.end BETWEEN :start AND :end))")
-    boolean existsApprovedBookingsForItemBetweenDates(
-            @Param("itemId") Long itemId,
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository,
+        BookingBatchRepository {
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.status = :status")
+    List<BookingIntervalDto> findIntervalsByStatus(@Param("status") BookingStatus status);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id IN :ids")
+    List<Booking> findAllWithItemAndBooker(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.phase <> 'PAST'")
+    List<BookingIntervalDto> findPendingPhaseIntervals();
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingUsersDto(b.id, b.booker.id, i.owner.id) " +
+            "FROM Booking b JOIN b.item i WHERE b.id IN :ids")
+    List<BookingUsersDto> findUsersByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingCountDto(b.booker.id, i.owner.id, b.status, b.phase, " +
+            "COUNT(b)) FROM Booking b JOIN b.item i GROUP BY b.booker.id, i.owner.id, b.status, b.phase")
+    List<BookingCountDto> countByUsers();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE VERSIONED Booking b SET b.phase = :phase " +
+            "WHERE b.id IN :ids AND b.phase <> 'PAST' AND b.phase <> :phase")
+    int updatePhase(@Param("ids") Collection<Long> ids, @Param("phase") BookingPhase phase);
+
+    /**
+     * Те из ids, которые {@link #updatePhase} действительно переведёт в phase: переход назад из PAST
+     * и повторный переход в ту же фазу не выполняются.
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.phase <> 'PAST' AND b.phase <> :phase")
+    List<Long> findIdsToMove(@Param("ids") Collection<Long> ids, @Param("phase") BookingPhase phase);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE VERSIONED Booking b SET b.phase = 'PAST' WHERE b.phase <> 'PAST' AND b.end < :now")
+    int markPast(@Param("now") LocalDateTime now);
+
+    // Закончившиеся бронирования переводит markPast; условие на окончание отсекает старые секции
+    @Modifying
+    @Transactional
+    @Query("UPDATE VERSIONED Booking b SET b.phase = 'CURRENT' WHERE b.phase = 'FUTURE' AND b.start <= :now AND b.end >= :now")
+    int markCurrent(@Param("now") LocalDateTime now);
 
     @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId " +
             "AND b.end < :now AND b.status = 'APPROVED' ORDER BY b.end DESC")
@@ -67,16 +71,6 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findNextBookings(@Param("itemId") Long itemId,
                                    @Param("now") LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds " +
-            "AND b.end < :now AND b.status = 'APPROVED' ORDER BY b.item.id, b.end DESC")
-    List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds " +
-            "AND b.start > :now AND b.status = 'APPROVED' ORDER BY b.item.id, b.start ASC")
-    List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
-
     @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.booker.id = :bookerId " +
             "AND b.item.id = :itemId AND b.end < :now AND b.status = 'APPROVED'")
     boolean existsByBookerIdAndItemIdAndEndBefore(
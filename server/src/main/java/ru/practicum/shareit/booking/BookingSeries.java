@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Серия повторяющихся бронирований одной вещи. Хранится правило, а не повторения:
+ * start/end — первое повторение, дальше через repeatInterval единиц frequency, всего occurrences раз.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "booking_series", indexes = {
+        @Index(name = "idx_booking_series_item", columnList = "item_id, status")
+})
+public class BookingSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingFrequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private Integer repeatInterval;
+
+    @Column(nullable = false)
+    private Integer occurrences;
+
+    @Column(name = "until_date")
+    private LocalDateTime until;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", nullable = false)
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookingSeries)) return false;
+        BookingSeries series = (BookingSeries) o;
+        return id != null && id.equals(series.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSeries{" +
+                "id=" + id +
+                ", start=" + start +
+                ", end=" + end +
+                ", frequency=" + frequency +
+                ", repeatInterval=" + repeatInterval +
+                ", occurrences=" + occurrences +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+
+    @Query("SELECT s FROM BookingSeries s JOIN FETCH s.item WHERE s.status = :status")
+    List<BookingSeries> findAllByStatusWithItem(@Param("status") BookingStatus status);
+
+    @Query("SELECT s FROM BookingSeries s JOIN FETCH s.item i JOIN FETCH i.owner JOIN FETCH s.booker WHERE s.id = :id")
+    Optional<BookingSeries> findWithItemAndBooker(@Param("id") Long id);
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Серии повторяющихся бронирований. В базе хранится только правило серии, повторения
+ * вычисляются по нему: при проверке пересечений — сразу для всей серии одним проходом
+ * по индексу {@link BookingTimeline}, при чтении — только внутри запрошенного окна.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class BookingSeriesService {
+    static final int OCCURRENCES_LIMIT = 500;
+
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingTimeline bookingTimeline;
+    private final BookingAdmission bookingAdmission;
+    private final BookingHolds bookingHolds;
+
+    public BookingSeriesService(BookingSeriesRepository bookingSeriesRepository,
+                                ItemRepository itemRepository,
+                                UserRepository userRepository,
+                                BookingTimeline bookingTimeline,
+                                BookingAdmission bookingAdmission,
+                                BookingHolds bookingHolds) {
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.bookingTimeline = bookingTimeline;
+        this.bookingAdmission = bookingAdmission;
+        this.bookingHolds = bookingHolds;
+    }
+
+    @Transactional
+    public BookingSeriesDto createSeries(BookingSeriesRequestDto dto, Long bookerId) {
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+
+        Item item = itemRepository.findById(dto.getItemId())
+                .orElseThrow(() -> new EntityNotFoundException("Вещь не найдена"));
+
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new IllegalArgumentException("Владелец не может забронировать свою вещь");
+        }
+        if (!item.getAvailable()) {
+            throw new IllegalArgumentException("Вещь не доступна для бронирования");
+        }
+        if (!dto.getStart().isBefore(dto.getEnd())) {
+            throw new IllegalArgumentException("Время начала должно быть раньше времени завершения");
+        }
+
+        int interval = dto.getInterval() != null ? dto.getInterval() : 1;
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Интервал повторения должен быть положительным");
+        }
+        Duration step = Duration.ofDays((long) dto.getFrequency().getDays() * interval);
+        if (Duration.between(dto.getStart(), dto.getEnd()).compareTo(step) >= 0) {
+            throw new IllegalArgumentException("Бронирование серии должно быть короче шага повторения");
+        }
+        int occurrences = countOccurrences(dto, step);
+
+        BookingSeries series = BookingMapper.toBookingSeries(dto, booker, item, interval, occurrences);
+        BookingRecurrence recurrence = BookingRecurrence.of(series);
+        bookingAdmission.lockItem(item.getId());
+        if (bookingTimeline.hasOverlap(item.getId(), recurrence)) {
+            throw new IllegalArgumentException("Вещь занята в даты одного из повторений серии");
+        }
+        if (bookingHolds.hasConflict(item.getId(), recurrence, bookerId)) {
+            throw new IllegalArgumentException("Выбранные даты удерживаются другим пользователем");
+        }
+
+        BookingSeries saved = bookingSeriesRepository.save(series);
+        log.info("Создана серия бронирований {} вещи {}: {} повторений", saved.getId(), item.getId(), occurrences);
+        return BookingMapper.toBookingSeriesDto(saved);
+    }
+
+    @Transactional
+    public BookingSeriesDto approveSeries(Long seriesId, Long ownerId, boolean approved) {
+        BookingSeries series = bookingSeriesRepository.findWithItemAndBooker(seriesId)
+                .orElseThrow(() -> new EntityNotFoundException("Серия бронирований не найдена"));
+
+        if (!series.getItem().getOwner().getId().equals(ownerId)) {
+            throw new SecurityException("Только владелец вещи может одобрить серию бронирований");
+        }
+        if (series.getStatus() != BookingStatus.WAITING) {
+            throw new IllegalArgumentException("Серия бронирований уже в работе");
+        }
+
+        Long itemId = series.getItem().getId();
+        BookingRecurrence recurrence = BookingRecurrence.of(series);
+        bookingAdmission.lockItem(itemId);
+        if (approved && bookingTimeline.hasOverlap(itemId, recurrence)) {
+            throw new IllegalArgumentException("Вещь занята в даты одного из повторений серии");
+        }
+        if (approved && bookingHolds.hasConflict(itemId, recurrence, series.getBooker().getId())) {
+            throw new IllegalArgumentException("Выбранные даты удерживаются другим пользователем");
+        }
+
+        series.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        BookingSeries saved = bookingSeriesRepository.save(series);
+        if (approved) {
+            bookingTimeline.addSeries(itemId, recurrence);
+        }
+        return BookingMapper.toBookingSeriesDto(saved);
+    }
+
+    public BookingSeriesDto getSeries(Long seriesId, Long userId) {
+        return BookingMapper.toBookingSeriesDto(findAccessible(seriesId, userId));
+    }
+
+    /**
+     * Повторения серии, пересекающие окно [from, to]. Вычисляются по правилу серии без обращения к базе.
+     */
+    public List<BookingOccurrenceDto> getOccurrences(Long seriesId, Long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше окончания");
+        }
+        BookingRecurrence recurrence = BookingRecurrence.of(findAccessible(seriesId, userId));
+        List<BookingOccurrenceDto> occurrences = new ArrayList<>();
+        for (long k = recurrence.firstEndingNotBefore(from), last = recurrence.lastStartingNotAfter(to);
+             k <= last; k++) {
+            occurrences.add(new BookingOccurrenceDto(seriesId, (int) k, recurrence.startOf(k), recurrence.endOf(k)));
+        }
+        return occurrences;
+    }
+
+    private BookingSeries findAccessible(Long seriesId, Long userId) {
+        BookingSeries series = bookingSeriesRepository.findWithItemAndBooker(seriesId)
+                .orElseThrow(() -> new EntityNotFoundException("Серия бронирований не найдена"));
+        if (!series.getBooker().getId().equals(userId) && !series.getItem().getOwner().getId().equals(userId)) {
+            throw new SecurityException("Доступ запрещен");
+        }
+        return series;
+    }
+
+    private static int countOccurrences(BookingSeriesRequestDto dto, Duration step) {
+        if ((dto.getCount() == null) == (dto.getUntil() == null)) {
+            throw new IllegalArgumentException("Нужно указать либо количество повторений, либо дату окончания серии");
+        }
+        long occurrences = dto.getCount() != null
+                ? dto.getCount()
+                : BookingRecurrence.countUntil(dto.getStart(), step, dto.getUntil());
+        if (occurrences <= 0) {
+            throw new IllegalArgumentException("Серия должна содержать хотя бы одно бронирование");
+        }
+        if (occurrences > OCCURRENCES_LIMIT) {
+            throw new IllegalArgumentException("Серия не может содержать больше " + OCCURRENCES_LIMIT + " бронирований");
+        }
+        return (int) occurrences;
+    }
+}
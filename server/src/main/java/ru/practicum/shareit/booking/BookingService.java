@@ -1,32 +1,78 @@
 package ru.practicum.shareit.booking;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingHoldRequestDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.concurrency.ETags;
+import ru.practicum.shareit.concurrency.RetryOnConflict;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional(readOnly = true)
 public class BookingService {
+    static final int BATCH_LIMIT = 500;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingTimeline bookingTimeline;
+    private final BookingAdmission bookingAdmission;
+    private final BookingHolds bookingHolds;
+    private final BookingPhaseScheduler bookingPhaseScheduler;
+    private final BookingCounters bookingCounters;
+    private final BookingEvents bookingEvents;
+    private final Outbox outbox;
 
     public BookingService(BookingRepository bookingRepository,
                           ItemRepository itemRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          BookingTimeline bookingTimeline,
+                          BookingAdmission bookingAdmission,
+                          BookingHolds bookingHolds,
+                          BookingPhaseScheduler bookingPhaseScheduler,
+                          BookingCounters bookingCounters,
+                          BookingEvents bookingEvents,
+                          Outbox outbox) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.bookingTimeline = bookingTimeline;
+        this.bookingAdmission = bookingAdmission;
+        this.bookingHolds = bookingHolds;
+        this.bookingPhaseScheduler = bookingPhaseScheduler;
+        this.bookingCounters = bookingCounters;
+        this.bookingEvents = bookingEvents;
+        this.outbox = outbox;
     }
 
     @Transactional
@@ -45,40 +91,360 @@ public class BookingService {
             throw new IllegalArgumentException("Вещь не доступна для бронирования");
         }
 
-        if (bookingDto.getStart().isAfter(bookingDto.getEnd())) {
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
             throw new IllegalArgumentException("Время начала должно быть раньше времени завершения");
         }
 
-        boolean hasConflicts = bookingRepository.existsApprovedBookingsForItemBetweenDates(
-                item.getId(), bookingDto.getStart(), bookingDto.getEnd());
-
-        if (hasConflicts) {
+        bookingAdmission.lockItem(item.getId());
+        if (bookingTimeline.hasOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
             throw new IllegalArgumentException("Вещь занята в выбраные даты");
         }
+        if (bookingHolds.hasConflict(item.getId(), bookingDto.getStart(), bookingDto.getEnd(), bookerId)) {
+            throw new IllegalArgumentException("Выбранные даты удерживаются другим пользователем");
+        }
 
         Booking savedBooking = bookingRepository.save(BookingMapper.toBooking(bookingDto, booker, item));
+        bookingHolds.releaseCovered(item.getId(), bookerId, savedBooking.getStart(), savedBooking.getEnd());
+        bookingPhaseScheduler.register(savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd(),
+                savedBooking.getPhase());
+        bookingCounters.created(bookerId, item.getOwner().getId(), savedBooking.getPhase());
+        bookingEvents.publish(savedBooking, savedBooking.getStatus());
+        outbox.record(OutboxEventType.BOOKING_CREATED, savedBooking.getId(),
+                BookingMapper.toBookingEventDto(savedBooking, savedBooking.getStatus()));
         return BookingMapper.toBookingResponseDto(savedBooking);
     }
 
+    /**
+     * Создаёт пакет бронирований одного арендатора. Пользователь и вещи загружаются одним
+     * запросом, пересечения проверяются в памяти с одобренными бронированиями и с ранее
+     * принятыми записями пакета, принятые записи вставляются одним JDBC batch.
+     * Ошибка отдельной записи попадает в её результат и не прерывает остальные.
+     */
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingRequestDto> bookingDtos, Long bookerId) {
+        if (bookingDtos.size() > BATCH_LIMIT) {
+            throw new IllegalArgumentException("Пакет не может содержать больше " + BATCH_LIMIT + " бронирований");
+        }
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .map(BookingRequestDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        bookingAdmission.lockItems(items.keySet());
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        Map<Long, List<Integer>> acceptedByItem = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingRequestDto dto = bookingDtos.get(i);
+            String error = validateBatchEntry(dto, items.get(dto.getItemId()), bookerId);
+            if (error == null) {
+                error = findBatchConflict(dto, bookingDtos, acceptedByItem.getOrDefault(dto.getItemId(), List.of()));
+            }
+            if (error != null) {
+                results[i] = BookingBatchResultDto.failed(i, error);
+                continue;
+            }
+            Booking booking = BookingMapper.toBooking(dto, booker, items.get(dto.getItemId()));
+            booking.setPhase(BookingPhase.at(booking.getStart(), booking.getEnd(), now));
+            bookings.add(booking);
+            accepted.add(i);
+            acceptedByItem.computeIfAbsent(dto.getItemId(), id -> new ArrayList<>()).add(i);
+        }
+
+        bookingRepository.insertAll(bookings);
+        for (int k = 0; k < bookings.size(); k++) {
+            Booking booking = bookings.get(k);
+            bookingHolds.releaseCovered(booking.getItem().getId(), bookerId, booking.getStart(), booking.getEnd());
+            bookingPhaseScheduler.register(booking.getId(), booking.getStart(), booking.getEnd(), booking.getPhase());
+            bookingCounters.created(bookerId, booking.getItem().getOwner().getId(), booking.getPhase());
+            bookingEvents.publish(booking, booking.getStatus());
+            outbox.record(OutboxEventType.BOOKING_CREATED, booking.getId(),
+                    BookingMapper.toBookingEventDto(booking, booking.getStatus()));
+            results[accepted.get(k)] = BookingBatchResultDto.created(accepted.get(k),
+                    BookingMapper.toBookingResponseDto(booking));
+        }
+        log.info("Пакет бронирований пользователя {}: создано {} из {}", bookerId, bookings.size(), results.length);
+        return List.of(results);
+    }
+
+    private String validateBatchEntry(BookingRequestDto dto, Item item, Long bookerId) {
+        if (dto.getItemId() == null || dto.getStart() == null || dto.getEnd() == null) {
+            return "Не указаны вещь или даты бронирования";
+        }
+        if (item == null) {
+            return "Вещь не найдена";
+        }
+        if (item.getOwner().getId().equals(bookerId)) {
+            return "Владелец не может забронировать свою вещь";
+        }
+        if (!item.getAvailable()) {
+            return "Вещь не доступна для бронирования";
+        }
+        if (!dto.getStart().isBefore(dto.getEnd())) {
+            return "Время начала должно быть раньше времени завершения";
+        }
+        if (bookingTimeline.hasOverlap(item.getId(), dto.getStart(), dto.getEnd())) {
+            return "Вещь занята в выбраные даты";
+        }
+        if (bookingHolds.hasConflict(item.getId(), dto.getStart(), dto.getEnd(), bookerId)) {
+            return "Выбранные даты удерживаются другим пользователем";
+        }
+        return null;
+    }
+
+    private String findBatchConflict(BookingRequestDto dto, List<BookingRequestDto> batch, List<Integer> sameItem) {
+        for (int other : sameItem) {
+            BookingRequestDto accepted = batch.get(other);
+            if (!dto.getStart().isAfter(accepted.getEnd()) && !accepted.getStart().isAfter(dto.getEnd())) {
+                return "Пересекается с бронированием №" + other + " в пакете";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Удерживает интервал вещи за арендатором на время оформления: пока удержание действует,
+     * другие пользователи не могут создать пересекающееся бронирование или удержание.
+     */
+    @Transactional
+    public BookingHoldDto createHold(BookingHoldRequestDto holdDto, Long bookerId) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+
+        Item item = itemRepository.findById(holdDto.getItemId())
+                .orElseThrow(() -> new EntityNotFoundException("Вещь не найдена"));
+
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new IllegalArgumentException("Владелец не может забронировать свою вещь");
+        }
+        if (!item.getAvailable()) {
+            throw new IllegalArgumentException("Вещь не доступна для бронирования");
+        }
+        if (!holdDto.getStart().isBefore(holdDto.getEnd())) {
+            throw new IllegalArgumentException("Время начала должно быть раньше времени завершения");
+        }
+
+        bookingAdmission.lockItem(item.getId());
+        if (bookingTimeline.hasOverlap(item.getId(), holdDto.getStart(), holdDto.getEnd())) {
+            throw new IllegalArgumentException("Вещь занята в выбраные даты");
+        }
+        BookingHolds.Hold hold = bookingHolds.place(item.getId(), bookerId, holdDto.getStart(), holdDto.getEnd(),
+                holdDto.getMinutes());
+        log.info("Пользователь {} удерживает вещь {} до {}", bookerId, item.getId(), hold.expires());
+        return BookingMapper.toBookingHoldDto(hold);
+    }
+
+    public void releaseHold(Long holdId, Long bookerId) {
+        BookingHolds.Hold hold = bookingHolds.find(holdId)
+                .orElseThrow(() -> new EntityNotFoundException("Удержание не найдено"));
+
+        if (!hold.bookerId().equals(bookerId)) {
+            throw new SecurityException("Доступ запрещен");
+        }
+        bookingHolds.release(hold);
+    }
+
     @Transactional
-    public BookingResponseDto approveBooking(Long bookingId, Long ownerId, boolean approved) {
+    @RetryOnConflict
+    public BookingResponseDto approveBooking(Long bookingId, Long ownerId, boolean approved, Long expectedVersion) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено"));
 
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new SecurityException("Только владелец вещи может одобрить пронирование");
         }
+        ETags.checkMatch(expectedVersion, booking.getVersion());
 
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new IllegalArgumentException("Бронирование уже в работе");
         }
 
+        Long itemId = booking.getItem().getId();
+        bookingAdmission.lockItem(itemId);
+        if (approved && bookingTimeline.hasOverlap(itemId, booking.getStart(), booking.getEnd())) {
+            throw new IllegalArgumentException("Вещь занята в выбраные даты");
+        }
+        // Удержание могло появиться после создания бронирования: одобрение его не перекрывает
+        if (approved && bookingHolds.hasConflict(itemId, booking.getStart(), booking.getEnd(),
+                booking.getBooker().getId())) {
+            throw new IllegalArgumentException("Выбранные даты удерживаются другим пользователем");
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        // Конфликт версий должен всплыть до изменения расписания, счётчиков и событий в памяти
+        bookingRepository.flush();
+
+        if (approved) {
+            bookingTimeline.add(itemId, updatedBooking.getId(), updatedBooking.getStart(), updatedBooking.getEnd());
+        } else {
+            bookingTimeline.remove(itemId, updatedBooking.getId());
+        }
+        bookingCounters.decided(booking.getBooker().getId(), ownerId, updatedBooking.getStatus());
+        bookingEvents.publish(updatedBooking, updatedBooking.getStatus());
+        outbox.record(decisionEvent(updatedBooking.getStatus()), updatedBooking.getId(),
+                BookingMapper.toBookingEventDto(updatedBooking, updatedBooking.getStatus()));
+
+        return BookingMapper.toBookingResponseDto(updatedBooking);
+    }
+
+    /**
+     * Отмена бронирования арендатором. Освобождённый интервал предлагается листу ожидания вещи
+     * через событие BOOKING_CANCELLED.
+     */
+    @Transactional
+    @RetryOnConflict
+    public BookingResponseDto cancelBooking(Long bookingId, Long bookerId, Long expectedVersion) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено"));
+
+        if (!booking.getBooker().getId().equals(bookerId)) {
+            throw new SecurityException("Только арендатор может отменить бронирование");
+        }
+        ETags.checkMatch(expectedVersion, booking.getVersion());
+
+        BookingStatus previous = booking.getStatus();
+        if (previous != BookingStatus.WAITING && previous != BookingStatus.APPROVED) {
+            throw new IllegalArgumentException("Бронирование уже отклонено или отменено");
+        }
+        if (!booking.getEnd().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Завершившееся бронирование нельзя отменить");
+        }
+
+        booking.setStatus(BookingStatus.CANCELLED);
+        Booking updatedBooking = bookingRepository.save(booking);
+        bookingRepository.flush();
+
+        bookingTimeline.remove(updatedBooking.getItem().getId(), updatedBooking.getId());
+        if (previous == BookingStatus.WAITING) {
+            bookingCounters.decided(bookerId, updatedBooking.getItem().getOwner().getId(), BookingStatus.CANCELLED);
+        }
+        bookingEvents.publish(updatedBooking, updatedBooking.getStatus());
+        outbox.record(OutboxEventType.BOOKING_CANCELLED, updatedBooking.getId(),
+                BookingMapper.toBookingEventDto(updatedBooking, updatedBooking.getStatus()));
 
         return BookingMapper.toBookingResponseDto(updatedBooking);
     }
 
+    /**
+     * Применяет решения владельца по пакету бронирований. Бронирования с вещами и арендаторами
+     * загружаются одним запросом, статусы меняются одним JDBC batch. Одобрения обрабатываются
+     * по возрастанию начала и id: из пересекающихся одобрений пакета принимается более раннее,
+     * остальные получают ошибку и остаются в ожидании.
+     */
+    @Transactional
+    public List<BookingBatchResultDto> decideBookings(List<BookingDecisionDto> decisions, Long ownerId) {
+        if (decisions.size() > BATCH_LIMIT) {
+            throw new IllegalArgumentException("Пакет не может содержать больше " + BATCH_LIMIT + " решений");
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBooker(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        bookingAdmission.lockItems(bookings.values().stream()
+                .filter(booking -> booking.getItem().getOwner().getId().equals(ownerId))
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[decisions.size()];
+        Set<Long> seen = new HashSet<>();
+        List<Integer> approvals = new ArrayList<>();
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        Map<Long, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = bookings.get(decision.getBookingId());
+            String error = validateDecision(decision, booking, ownerId, seen);
+            if (error != null) {
+                results[i] = BookingBatchResultDto.failed(i, error);
+            } else if (decision.getApproved()) {
+                approvals.add(i);
+            } else {
+                statuses.put(booking.getId(), BookingStatus.REJECTED);
+                indexes.put(booking.getId(), i);
+            }
+        }
+
+        approvals.sort(Comparator.comparing((Integer i) -> bookings.get(decisions.get(i).getBookingId()).getStart())
+                .thenComparing(i -> decisions.get(i).getBookingId()));
+        Map<Long, List<Booking>> approvedByItem = new HashMap<>();
+        for (int i : approvals) {
+            Booking booking = bookings.get(decisions.get(i).getBookingId());
+            Long itemId = booking.getItem().getId();
+            List<Booking> approvedForItem = approvedByItem.computeIfAbsent(itemId, id -> new ArrayList<>());
+            boolean conflict = bookingTimeline.hasOverlap(itemId, booking.getStart(), booking.getEnd())
+                    || approvedForItem.stream().anyMatch(other -> !booking.getStart().isAfter(other.getEnd())
+                    && !other.getStart().isAfter(booking.getEnd()));
+            if (conflict) {
+                results[i] = BookingBatchResultDto.failed(i, "Вещь занята в выбраные даты");
+                continue;
+            }
+            if (bookingHolds.hasConflict(itemId, booking.getStart(), booking.getEnd(), booking.getBooker().getId())) {
+                results[i] = BookingBatchResultDto.failed(i, "Выбранные даты удерживаются другим пользователем");
+                continue;
+            }
+            approvedForItem.add(booking);
+            statuses.put(booking.getId(), BookingStatus.APPROVED);
+            indexes.put(booking.getId(), i);
+        }
+
+        int[] updated = bookingRepository.updateStatuses(statuses);
+        int row = 0;
+        for (Map.Entry<Long, BookingStatus> entry : statuses.entrySet()) {
+            int i = indexes.get(entry.getKey());
+            Booking booking = bookings.get(entry.getKey());
+            if (updated[row++] == 0) {
+                results[i] = BookingBatchResultDto.failed(i, "Бронирование уже в работе");
+                continue;
+            }
+            if (entry.getValue() == BookingStatus.APPROVED) {
+                bookingTimeline.add(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            }
+            bookingCounters.decided(booking.getBooker().getId(), ownerId, entry.getValue());
+            bookingEvents.publish(booking, entry.getValue());
+            outbox.record(decisionEvent(entry.getValue()), booking.getId(),
+                    BookingMapper.toBookingEventDto(booking, entry.getValue()));
+            BookingResponseDto dto = BookingMapper.toBookingResponseDto(booking);
+            dto.setStatus(entry.getValue());
+            // Версию увеличил пакетный UPDATE, загруженная сущность её не знает
+            dto.setVersion(null);
+            results[i] = BookingBatchResultDto.created(i, dto);
+        }
+        log.info("Решения владельца {}: применено {} из {}", ownerId, statuses.size(), results.length);
+        return List.of(results);
+    }
+
+    private static OutboxEventType decisionEvent(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED;
+    }
+
+    private String validateDecision(BookingDecisionDto decision, Booking booking, Long ownerId, Set<Long> seen) {
+        if (decision.getBookingId() == null || decision.getApproved() == null) {
+            return "Не указаны бронирование или решение";
+        }
+        if (!seen.add(decision.getBookingId())) {
+            return "Повторное решение по бронированию";
+        }
+        if (booking == null) {
+            return "Бронирование не найдено";
+        }
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return "Только владелец вещи может одобрить пронирование";
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return "Бронирование уже в работе";
+        }
+        return null;
+    }
+
     public BookingResponseDto getBookingById(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено"));
@@ -91,40 +457,41 @@ public class BookingService {
         return BookingMapper.toBookingResponseDto(booking);
     }
 
-    public List<BookingResponseDto> getUserBookings(Long bookerId, String state) {
+    public List<BookingResponseDto> getUserBookings(Long bookerId, String state, String after, Integer size) {
         if (!userRepository.existsById(bookerId)) {
             throw new EntityNotFoundException("Пользователь не найден");
         }
+        return findBookings(BookingRole.BOOKER, bookerId, state, after, size);
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        return switch (state.toUpperCase()) {
-            case "ALL" -> BookingMapper.toDtoList(bookingRepository.findByBookerIdOrderByStartDesc(bookerId));
-            case "CURRENT" -> BookingMapper.toDtoList(bookingRepository.findCurrentBookingsByBooker(bookerId, now));
-            case "PAST" -> BookingMapper.toDtoList(bookingRepository.findPastBookingsByBooker(bookerId, now));
-            case "FUTURE" -> BookingMapper.toDtoList(bookingRepository.findFutureBookingsByBooker(bookerId, now));
-            case "WAITING" -> BookingMapper.toDtoList(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                    bookerId, BookingStatus.WAITING));
-            case "REJECTED" -> BookingMapper.toDtoList(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                    bookerId, BookingStatus.REJECTED));
-            default -> throw new IllegalArgumentException("Не известный статус: " + state);
-        };
-    }
-
-    public List<BookingResponseDto> getOwnerBookings(Long ownerId, String state) {
+    public List<BookingResponseDto> getOwnerBookings(Long ownerId, String state, String after, Integer size) {
         if (!userRepository.existsById(ownerId)) {
             throw new EntityNotFoundException("Пользователь не найден");
         }
-        LocalDateTime now = LocalDateTime.now();
-        return switch (state.toUpperCase()) {
-            case "ALL" -> BookingMapper.toDtoList(bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId));
-            case "CURRENT" -> BookingMapper.toDtoList(bookingRepository.findCurrentBookingsByOwner(ownerId, now));
-            case "PAST" -> BookingMapper.toDtoList(bookingRepository.findPastBookingsByOwner(ownerId, now));
-            case "FUTURE" -> BookingMapper.toDtoList(bookingRepository.findFutureBookingsByOwner(ownerId, now));
-            case "WAITING" -> BookingMapper.toDtoList(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                    ownerId, BookingStatus.WAITING));
-            case "REJECTED" -> BookingMapper.toDtoList(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                    ownerId, BookingStatus.REJECTED));
-            default -> throw new IllegalArgumentException("Не известный статус: " + state);
-        };
+        return findBookings(BookingRole.OWNER, ownerId, state, after, size);
+    }
+
+    public BookingStatsDto getStats(BookingRole role, Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+        return bookingCounters.get(role, userId);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+        return bookingEvents.subscribe(userId);
+    }
+
+    private List<BookingResponseDto> findBookings(BookingRole role, Long userId, String state,
+                                                  String after, Integer size) {
+        BookingState bookingState = BookingState.from(state);
+        if (size != null && size <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        BookingCursor cursor = after != null ? BookingCursor.parse(after) : null;
+        return bookingRepository.findBookings(role, userId, bookingState, cursor, size);
     }
 }
\ No newline at end of file
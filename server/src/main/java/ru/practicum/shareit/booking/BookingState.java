@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equalsIgnoreCase(state)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Не известный статус: " + state);
+    }
+}
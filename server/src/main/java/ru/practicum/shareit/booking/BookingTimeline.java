@@ -0,0 +1,322 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingSummary;
+import ru.practicum.shareit.concurrency.AfterCommit;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс одобренных бронирований по вещам для проверки пересечений без запроса в БД.
+ * Для каждой вещи хранится неизменяемый снимок интервалов, отсортированных по началу,
+ * с префиксным максимумом окончаний: поиск пересечения занимает O(log n).
+ * Одобренные серии бронирований хранятся в снимке правилами {@link BookingRecurrence}
+ * и разворачиваются в повторения только внутри запрошенного окна.
+ * Снимок также кэширует последнее и ближайшее бронирование вещи вместе с окном, в котором они верны.
+ */
+@Slf4j
+@Component
+public class BookingTimeline {
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public BookingTimeline(BookingRepository bookingRepository, BookingSeriesRepository bookingSeriesRepository) {
+        this.bookingRepository = bookingRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        List<BookingIntervalDto> intervals = bookingRepository.findIntervalsByStatus(BookingStatus.APPROVED);
+        intervals.stream()
+                .collect(Collectors.groupingBy(BookingIntervalDto::getItemId))
+                .forEach((itemId, itemIntervals) -> timelines.put(itemId, ItemTimeline.of(itemIntervals)));
+        List<BookingSeries> series = bookingSeriesRepository.findAllByStatusWithItem(BookingStatus.APPROVED);
+        series.forEach(s -> timelines.compute(s.getItem().getId(), (id, timeline) ->
+                (timeline == null ? ItemTimeline.EMPTY : timeline).withSeries(BookingRecurrence.of(s))));
+        log.info("Индекс бронирований загружен: {} интервалов и {} серий для {} вещей",
+                intervals.size(), series.size(), timelines.size());
+    }
+
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline != null && timeline.overlaps(start, end);
+    }
+
+    /**
+     * Пересекается ли хоть одно повторение серии с одобренными бронированиями и сериями вещи.
+     * Бронирования проверяются одним проходом по снимку вместе с повторениями серии.
+     */
+    public boolean hasOverlap(Long itemId, BookingRecurrence recurrence) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline != null && timeline.overlaps(recurrence);
+    }
+
+    /**
+     * Свободные промежутки вещи внутри окна [from, to]: одобренные бронирования обходятся
+     * по возрастанию начала, пересекающиеся и смежные занятые отрезки сливаются.
+     * Промежутки отстоят от соседних бронирований на секунду, поэтому любой из них можно забронировать целиком.
+     */
+    public List<FreeIntervalDto> freeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return (timeline == null ? ItemTimeline.EMPTY : timeline).gaps(from, to);
+    }
+
+    /**
+     * Последнее и ближайшее одобренные бронирования вещи на момент now без запроса в БД.
+     * Запись бронирования заменяет снимок вещи вместе с кэшем, а переход фазы любого бронирования
+     * вещи выводит момент за окно кэша — в обоих случаях сводка пересчитывается при следующем чтении.
+     */
+    public BookingSummary summary(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? BookingSummary.EMPTY : timeline.summary(now);
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        AfterCommit.run(() -> timelines.compute(itemId, (id, timeline) ->
+                (timeline == null ? ItemTimeline.EMPTY : timeline).with(bookingId, start, end)));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        AfterCommit.run(() -> timelines.computeIfPresent(itemId, (id, timeline) -> timeline.without(bookingId)));
+    }
+
+    public void addSeries(Long itemId, BookingRecurrence recurrence) {
+        AfterCommit.run(() -> timelines.compute(itemId, (id, timeline) ->
+                (timeline == null ? ItemTimeline.EMPTY : timeline).withSeries(recurrence)));
+    }
+
+    record Interval(long id, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Сводка верна для моментов из [from, nextStart) с окончанием окна не позже ближайшего окончания
+     * незавершённого бронирования (until): в эти моменты меняется одна из фаз бронирований вещи.
+     */
+    record CachedSummary(BookingSummary summary, LocalDateTime from, LocalDateTime until) {
+        boolean validAt(LocalDateTime now) {
+            return !now.isBefore(from)
+                    && (summary.nextStart() == null || now.isBefore(summary.nextStart()))
+                    && (until == null || !now.isAfter(until));
+        }
+    }
+
+    static final class ItemTimeline {
+        static final ItemTimeline EMPTY = new ItemTimeline(new Interval[0], new BookingRecurrence[0]);
+
+        // Бронирования пересекаются включительно по границам, а время в API передаётся с точностью до секунды,
+        // поэтому свободный промежуток начинается через секунду после бронирования и заканчивается за секунду до
+        private static final Duration GAP_STEP = Duration.ofSeconds(1);
+
+        private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::start)
+                .thenComparingLong(Interval::id);
+
+        private final Interval[] intervals;
+        // maxEnds[i] — самое позднее окончание среди интервалов 0..i
+        private final LocalDateTime[] maxEnds;
+        private final BookingRecurrence[] series;
+        private volatile CachedSummary cached;
+
+        private ItemTimeline(Interval[] intervals, BookingRecurrence[] series) {
+            this.intervals = intervals;
+            this.series = series;
+            this.maxEnds = new LocalDateTime[intervals.length];
+            for (int i = 0; i < intervals.length; i++) {
+                LocalDateTime end = intervals[i].end();
+                maxEnds[i] = i > 0 && end.isBefore(maxEnds[i - 1]) ? maxEnds[i - 1] : end;
+            }
+        }
+
+        static ItemTimeline of(List<BookingIntervalDto> bookings) {
+            return new ItemTimeline(bookings.stream()
+                    .map(b -> new Interval(b.getId(), b.getStart(), b.getEnd()))
+                    .sorted(ORDER)
+                    .toArray(Interval[]::new), EMPTY.series);
+        }
+
+        // Границы включительно: бронирования, касающиеся концами, тоже считаются пересекающимися
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            int last = countStartingNotAfter(end) - 1;
+            if (last >= 0 && !maxEnds[last].isBefore(start)) {
+                return true;
+            }
+            for (BookingRecurrence other : series) {
+                if (other.overlaps(start, end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Концы повторений растут, поэтому граница уже начавшихся интервалов только сдвигается вперёд
+        boolean overlaps(BookingRecurrence recurrence) {
+            if (intervals.length > 0) {
+                LocalDateTime latestEnd = maxEnds[maxEnds.length - 1];
+                int started = 0;
+                for (long k = recurrence.firstEndingNotBefore(intervals[0].start());
+                     k < recurrence.count() && !recurrence.startOf(k).isAfter(latestEnd); k++) {
+                    LocalDateTime end = recurrence.endOf(k);
+                    while (started < intervals.length && !intervals[started].start().isAfter(end)) {
+                        started++;
+                    }
+                    if (started > 0 && !maxEnds[started - 1].isBefore(recurrence.startOf(k))) {
+                        return true;
+                    }
+                }
+            }
+            for (BookingRecurrence other : series) {
+                if (other.overlaps(recurrence)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        BookingSummary summary(LocalDateTime now) {
+            CachedSummary current = cached;
+            if (current == null || !current.validAt(now)) {
+                current = summarize(now);
+                cached = current;
+            }
+            return current.summary();
+        }
+
+        // Прошедшими считаются окончания строго раньше now, будущими — начала строго позже now,
+        // как в BookingRepository.findLastBookingsForItems и findNextBookingsForItems
+        private CachedSummary summarize(LocalDateTime now) {
+            int started = countStartingNotAfter(now);
+            Interval last = null;
+            LocalDateTime until = null;
+            for (int i = 0; i < started; i++) {
+                Interval interval = intervals[i];
+                if (interval.end().isBefore(now)) {
+                    if (last == null || !interval.end().isBefore(last.end())) {
+                        last = interval;
+                    }
+                } else if (until == null || interval.end().isBefore(until)) {
+                    until = interval.end();
+                }
+            }
+            LocalDateTime next = started < intervals.length ? intervals[started].start() : null;
+            for (BookingRecurrence recurrence : series) {
+                long current = recurrence.lastStartingNotAfter(now);
+                long ended = current;
+                if (current >= 0 && !recurrence.endOf(current).isBefore(now)) {
+                    // повторение идёт сейчас: завершилось предыдущее
+                    ended = current - 1;
+                    if (until == null || recurrence.endOf(current).isBefore(until)) {
+                        until = recurrence.endOf(current);
+                    }
+                }
+                if (ended >= 0 && (last == null || !recurrence.endOf(ended).isBefore(last.end()))) {
+                    last = new Interval(-recurrence.seriesId(), recurrence.startOf(ended), recurrence.endOf(ended));
+                }
+                if (current + 1 < recurrence.count() && (next == null || recurrence.startOf(current + 1).isBefore(next))) {
+                    next = recurrence.startOf(current + 1);
+                }
+            }
+            return new CachedSummary(new BookingSummary(last == null ? null : last.start(), next), now, until);
+        }
+
+        List<FreeIntervalDto> gaps(LocalDateTime from, LocalDateTime to) {
+            List<Interval> window = new ArrayList<>();
+            for (int i = firstEndingNotBefore(from); i < intervals.length && !intervals[i].start().isAfter(to); i++) {
+                window.add(intervals[i]);
+            }
+            if (series.length > 0) {
+                for (BookingRecurrence recurrence : series) {
+                    window.addAll(recurrence.between(from, to));
+                }
+                window.sort(ORDER);
+            }
+            List<FreeIntervalDto> gaps = new ArrayList<>();
+            // cursor — первый момент, не занятый уже пройденными бронированиями
+            LocalDateTime cursor = from;
+            for (Interval busy : window) {
+                LocalDateTime gapEnd = busy.start().minus(GAP_STEP);
+                if (cursor.isBefore(gapEnd)) {
+                    gaps.add(new FreeIntervalDto(cursor, gapEnd));
+                }
+                if (!busy.end().isBefore(cursor)) {
+                    cursor = busy.end().plus(GAP_STEP);
+                }
+            }
+            if (cursor.isBefore(to)) {
+                gaps.add(new FreeIntervalDto(cursor, to));
+            }
+            return gaps;
+        }
+
+        ItemTimeline with(long bookingId, LocalDateTime start, LocalDateTime end) {
+            Interval added = new Interval(bookingId, start, end);
+            Interval[] current = without(bookingId).intervals;
+            int pos = Arrays.binarySearch(current, added, ORDER);
+            pos = pos < 0 ? -pos - 1 : pos;
+            Interval[] updated = new Interval[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, pos);
+            updated[pos] = added;
+            System.arraycopy(current, pos, updated, pos + 1, current.length - pos);
+            return new ItemTimeline(updated, series);
+        }
+
+        ItemTimeline without(long bookingId) {
+            for (int i = 0; i < intervals.length; i++) {
+                if (intervals[i].id() == bookingId) {
+                    Interval[] updated = new Interval[intervals.length - 1];
+                    System.arraycopy(intervals, 0, updated, 0, i);
+                    System.arraycopy(intervals, i + 1, updated, i, intervals.length - i - 1);
+                    return new ItemTimeline(updated, series);
+                }
+            }
+            return this;
+        }
+
+        ItemTimeline withSeries(BookingRecurrence recurrence) {
+            BookingRecurrence[] updated = Arrays.copyOf(series, series.length + 1);
+            updated[series.length] = recurrence;
+            return new ItemTimeline(intervals, updated);
+        }
+
+        // maxEnds не убывает, поэтому первый интервал, способный задеть момент, ищется бинарно
+        private int firstEndingNotBefore(LocalDateTime moment) {
+            int low = 0;
+            int high = maxEnds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (maxEnds[mid].isBefore(moment)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int countStartingNotAfter(LocalDateTime moment) {
+            int low = 0;
+            int high = intervals.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (intervals[mid].start().isAfter(moment)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Хэшированное колесо таймеров: переходы фаз бронирований, сроки удержаний.
+ * Таймер попадает в ячейку по номеру тика своего срока; за один тик просматривается
+ * одна ячейка, и из неё забираются таймеры, срок которых уже наступил, а более
+ * поздние (следующие обороты колеса) остаются на месте.
+ */
+class BookingTimingWheel<T> {
+    private final long tickMillis;
+    private final List<Timer<T>>[] slots;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    BookingTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = new List[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    synchronized void schedule(T value, long deadlineMillis) {
+        // Просроченный таймер сработает на ближайшем тике
+        long tick = Math.max(currentTick + 1, ceilDiv(deadlineMillis, tickMillis));
+        slots[slotOf(tick)].add(new Timer<>(value, tick));
+    }
+
+    /**
+     * Продвигает колесо до момента nowMillis и возвращает значения наступивших таймеров.
+     * После долгой паузы достаточно одного полного оборота: каждая ячейка просматривается один раз.
+     */
+    synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        long lastTick = Math.min(targetTick, currentTick + slots.length);
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            Iterator<Timer<T>> iterator = slots[slotOf(tick)].iterator();
+            while (iterator.hasNext()) {
+                Timer<T> timer = iterator.next();
+                if (timer.tick() <= targetTick) {
+                    due.add(timer.value());
+                    iterator.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    synchronized int size() {
+        int size = 0;
+        for (List<Timer<T>> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick & (slots.length - 1));
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private record Timer<T>(T value, long tick) {
+    }
+}
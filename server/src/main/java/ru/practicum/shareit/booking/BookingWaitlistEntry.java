@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Заявка в лист ожидания вещи: арендатор хочет получить интервал [start, end], как только он освободится.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "booking_waitlist", indexes = {
+        @Index(name = "idx_booking_waitlist_item", columnList = "item_id, created, id"),
+        @Index(name = "idx_booking_waitlist_booker", columnList = "booker_id")
+})
+public class BookingWaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", nullable = false)
+    private User booker;
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookingWaitlistEntry)) return false;
+        BookingWaitlistEntry entry = (BookingWaitlistEntry) o;
+        return id != null && id.equals(entry.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "BookingWaitlistEntry{" +
+                "id=" + id +
+                ", start=" + start +
+                ", end=" + end +
+                ", created=" + created +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingWaitlistDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingWaitlistRepository extends JpaRepository<BookingWaitlistEntry, Long> {
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingWaitlistDto(w.id, w.item.id, w.booker.id, " +
+            "w.start, w.end, w.created) FROM BookingWaitlistEntry w WHERE w.item.id = :itemId " +
+            "ORDER BY w.created, w.id")
+    List<BookingWaitlistDto> findQueue(@Param("itemId") Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingWaitlistDto(w.id, w.item.id, w.booker.id, " +
+            "w.start, w.end, w.created) FROM BookingWaitlistEntry w WHERE w.booker.id = :bookerId " +
+            "ORDER BY w.created, w.id")
+    List<BookingWaitlistDto> findByBooker(@Param("bookerId") Long bookerId);
+
+    boolean existsByBookerIdAndItemIdAndStartAndEnd(Long bookerId, Long itemId,
+                                                    LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingWaitlistDto;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxSink;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Лист ожидания вещей. Заявку можно оставить только на занятый интервал; когда бронирование
+ * отклонено или отменено, освободившийся интервал предлагается заявкам вещи в порядке подачи:
+ * каждая совместимая заявка превращается в обычное бронирование в статусе WAITING.
+ * Продвижение выполняется в потоке outbox relay, а не в запросе владельца или арендатора.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class BookingWaitlistService implements OutboxSink {
+    private final BookingWaitlistRepository bookingWaitlistRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingService bookingService;
+    private final BookingTimeline bookingTimeline;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BookingWaitlistService(BookingWaitlistRepository bookingWaitlistRepository,
+                                  ItemRepository itemRepository,
+                                  UserRepository userRepository,
+                                  BookingService bookingService,
+                                  BookingTimeline bookingTimeline,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper) {
+        this.bookingWaitlistRepository = bookingWaitlistRepository;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.bookingService = bookingService;
+        this.bookingTimeline = bookingTimeline;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public BookingWaitlistDto join(BookingRequestDto dto, Long bookerId) {
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+
+        Item item = itemRepository.findById(dto.getItemId())
+                .orElseThrow(() -> new EntityNotFoundException("Вещь не найдена"));
+
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new IllegalArgumentException("Владелец не может забронировать свою вещь");
+        }
+        if (!dto.getStart().isBefore(dto.getEnd())) {
+            throw new IllegalArgumentException("Время начала должно быть раньше времени завершения");
+        }
+        if (!bookingTimeline.hasOverlap(item.getId(), dto.getStart(), dto.getEnd())) {
+            throw new IllegalArgumentException("Вещь свободна в выбранные даты, создайте бронирование");
+        }
+        if (bookingWaitlistRepository.existsByBookerIdAndItemIdAndStartAndEnd(bookerId, item.getId(),
+                dto.getStart(), dto.getEnd())) {
+            throw new IllegalArgumentException("Заявка уже в листе ожидания");
+        }
+
+        BookingWaitlistEntry entry = bookingWaitlistRepository.save(
+                BookingMapper.toBookingWaitlistEntry(dto, booker, item, LocalDateTime.now()));
+        log.info("Пользователь {} встал в лист ожидания вещи {}", bookerId, item.getId());
+        return BookingMapper.toBookingWaitlistDto(entry);
+    }
+
+    public List<BookingWaitlistDto> getEntries(Long bookerId) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+        return bookingWaitlistRepository.findByBooker(bookerId);
+    }
+
+    @Transactional
+    public void leave(Long entryId, Long bookerId) {
+        BookingWaitlistEntry entry = bookingWaitlistRepository.findById(entryId)
+                .orElseThrow(() -> new EntityNotFoundException("Заявка не найдена"));
+
+        if (!entry.getBooker().getId().equals(bookerId)) {
+            throw new SecurityException("Доступ запрещен");
+        }
+        bookingWaitlistRepository.delete(entry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handle(OutboxEvent event) {
+        if (event.getType() != OutboxEventType.BOOKING_REJECTED
+                && event.getType() != OutboxEventType.BOOKING_CANCELLED) {
+            return;
+        }
+        BookingEventDto released;
+        try {
+            released = objectMapper.readValue(event.getPayload(), BookingEventDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать событие " + event.getId(), e);
+        }
+        promote(released.getItemId(), released.getStart(), released.getEnd(), LocalDateTime.now());
+    }
+
+    /**
+     * Проходит очередь вещи по порядку подачи и предлагает интервал [from, to] каждой заявке, которая
+     * с ним пересекается, не пересекается с одобренными бронированиями и с заявками, продвинутыми
+     * раньше в этом проходе. Заявки, срок которых уже прошёл, удаляются. Каждое продвижение — отдельная
+     * транзакция: отказ одной заявки не откатывает остальные.
+     */
+    void promote(Long itemId, LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        List<BookingWaitlistDto> promoted = new ArrayList<>();
+        for (BookingWaitlistDto entry : bookingWaitlistRepository.findQueue(itemId)) {
+            if (!entry.getEnd().isAfter(now)) {
+                bookingWaitlistRepository.deleteById(entry.getId());
+                continue;
+            }
+            if (!overlaps(entry, from, to)
+                    || promoted.stream().anyMatch(other -> overlaps(entry, other.getStart(), other.getEnd()))
+                    || bookingTimeline.hasOverlap(itemId, entry.getStart(), entry.getEnd())) {
+                continue;
+            }
+            if (offer(entry)) {
+                promoted.add(entry);
+            }
+        }
+    }
+
+    private boolean offer(BookingWaitlistDto entry) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookingService.createBooking(
+                        new BookingRequestDto(entry.getItemId(), entry.getStart(), entry.getEnd()),
+                        entry.getBookerId());
+                bookingWaitlistRepository.deleteById(entry.getId());
+            });
+        } catch (IllegalArgumentException e) {
+            log.debug("Заявка {} из листа ожидания не продвинута: {}", entry.getId(), e.getMessage());
+            return false;
+        } catch (EntityNotFoundException e) {
+            bookingWaitlistRepository.deleteById(entry.getId());
+            return false;
+        }
+        log.info("Заявка {} из листа ожидания вещи {} превращена в бронирование", entry.getId(), entry.getItemId());
+        return true;
+    }
+
+    private static boolean overlaps(BookingWaitlistDto entry, LocalDateTime start, LocalDateTime end) {
+        return !entry.getStart().isAfter(end) && !start.isAfter(entry.getEnd());
+    }
+}
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.booking.dto;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingHolds;
+import ru.practicum.shareit.booking.BookingSeries;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingWaitlistEntry;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +21,7 @@ public class BookingMapper {
         dto.setStart(booking.getStart());
         dto.setEnd(booking.getEnd());
         dto.setStatus(booking.getStatus());
+        dto.setVersion(booking.getVersion());
 
         User booker = booking.getBooker();
         dto.setBooker(UserMapper.toUserDto(booker));
@@ -28,6 +33,11 @@ public class BookingMapper {
     }
 
 
+    public static BookingEventDto toBookingEventDto(Booking booking, BookingStatus status) {
+        return new BookingEventDto(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), status);
+    }
+
     public static List<BookingResponseDto> toDtoList(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingResponseDto)
@@ -43,4 +53,45 @@ public class BookingMapper {
         booking.setStatus(BookingStatus.WAITING);
         return booking;
     }
+
+    public static BookingSeries toBookingSeries(BookingSeriesRequestDto dto, User booker, Item item,
+                                                int interval, int occurrences) {
+        BookingSeries series = new BookingSeries();
+        series.setStart(dto.getStart());
+        series.setEnd(dto.getEnd());
+        series.setFrequency(dto.getFrequency());
+        series.setRepeatInterval(interval);
+        series.setOccurrences(occurrences);
+        series.setUntil(dto.getUntil());
+        series.setItem(item);
+        series.setBooker(booker);
+        series.setStatus(BookingStatus.WAITING);
+        return series;
+    }
+
+    public static BookingSeriesDto toBookingSeriesDto(BookingSeries series) {
+        return new BookingSeriesDto(series.getId(), series.getItem().getId(), series.getBooker().getId(),
+                series.getStart(), series.getEnd(), series.getFrequency(), series.getRepeatInterval(),
+                series.getOccurrences(), series.getUntil(), series.getStatus());
+    }
+
+    public static BookingWaitlistEntry toBookingWaitlistEntry(BookingRequestDto dto, User booker, Item item,
+                                                              LocalDateTime created) {
+        BookingWaitlistEntry entry = new BookingWaitlistEntry();
+        entry.setStart(dto.getStart());
+        entry.setEnd(dto.getEnd());
+        entry.setItem(item);
+        entry.setBooker(booker);
+        entry.setCreated(created);
+        return entry;
+    }
+
+    public static BookingWaitlistDto toBookingWaitlistDto(BookingWaitlistEntry entry) {
+        return new BookingWaitlistDto(entry.getId(), entry.getItem().getId(), entry.getBooker().getId(),
+                entry.getStart(), entry.getEnd(), entry.getCreated());
+    }
+
+    public static BookingHoldDto toBookingHoldDto(BookingHolds.Hold hold) {
+        return new BookingHoldDto(hold.id(), hold.itemId(), hold.bookerId(), hold.start(), hold.end(), hold.expires());
+    }
 }
@@ -25,4 +25,20 @@ public class BookingResponseDto {
     private UserDto booker;
     private ItemDto item;
     private BookingStatus status;
+
+    private Long version;
+
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, UserDto booker, ItemDto item,
+                              BookingStatus status) {
+        this(id, start, end, booker, item, status, null);
+    }
+
+    // Плоская проекция строки запроса: бронирование, арендатор и вещь без загрузки сущностей
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end,
+                              Long bookerId, String bookerName, String bookerEmail,
+                              Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                              Long itemRequestId, BookingStatus status) {
+        this(id, start, end, new UserDto(bookerId, bookerName, bookerEmail),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId), status);
+    }
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingFrequency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Серия бронирований: первое повторение [start, end], дальше каждые interval единиц frequency.
+ * Задаётся либо количеством повторений count, либо датой until, после которой повторения не начинаются.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSeriesRequestDto {
+    @NotNull
+    private Long itemId;
+
+    @NotNull
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime start;
+
+    @NotNull
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime end;
+
+    @NotNull
+    private BookingFrequency frequency;
+
+    private Integer interval;
+
+    private Integer count;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime until;
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Начало последнего завершившегося и ближайшего будущего одобренного бронирования вещи.
+ */
+public record BookingSummary(LocalDateTime lastStart, LocalDateTime nextStart) {
+    public static final BookingSummary EMPTY = new BookingSummary(null, null);
+}
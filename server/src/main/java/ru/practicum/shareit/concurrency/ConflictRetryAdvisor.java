@@ -0,0 +1,94 @@
+package ru.practicum.shareit.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exeption.ConcurrentUpdateException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Повторяет методы с {@link RetryOnConflict}, транзакция которых упала на проверке версии.
+ * Совет стоит снаружи транзакционного, поэтому каждая попытка перечитывает сущность в новой
+ * транзакции. Между попытками пауза растёт вдвое от backoff-ms до max-backoff-ms со случайным
+ * разбросом, чтобы конкурирующие запросы не сталкивались снова. Внутри уже открытой транзакции
+ * повтор бессмысленен, и конфликт пробрасывается наружу. После max-attempts неудачных попыток
+ * клиент получает 409.
+ */
+@Slf4j
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class ConflictRetryAdvisor extends AbstractPointcutAdvisor implements MethodInterceptor {
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public ConflictRetryAdvisor(@Value("${shareit.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${shareit.retry.backoff-ms:20}") long backoffMillis,
+                                @Value("${shareit.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return new AnnotationMatchingPointcut(null, RetryOnConflict.class, true);
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return this;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return copy(invocation).proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConcurrentUpdateException("Объект изменён другим запросом, повторите попытку", e);
+                }
+                log.debug("Конфликт версий в {}, попытка {} из {}", invocation.getMethod().getName(),
+                        attempt, maxAttempts);
+                pause(attempt, e);
+            }
+        }
+    }
+
+    private static MethodInvocation copy(MethodInvocation invocation) {
+        // Цепочка советов продвигается внутри invocation, для повтора нужна её свежая копия
+        if (invocation instanceof ProxyMethodInvocation proxyInvocation) {
+            return proxyInvocation.invocableClone();
+        }
+        return invocation;
+    }
+
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        try {
+            Thread.sleep(jittered);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Повтор прерван", conflict);
+        }
+    }
+}
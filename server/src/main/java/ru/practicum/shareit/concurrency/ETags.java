@@ -0,0 +1,48 @@
+package ru.practicum.shareit.concurrency;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exeption.PreconditionFailedException;
+
+/**
+ * ETag сущности — её версия в кавычках. If-Match принимает такой тег, слабый тег W/"n" или *.
+ */
+public class ETags {
+    public static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Версия из заголовка If-Match; null, если заголовка нет или он равен *.
+     */
+    public static Long parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Некорректный заголовок If-Match: " + ifMatch);
+        }
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(of(version));
+        }
+        return builder.body(body);
+    }
+
+    public static void checkMatch(Long expectedVersion, Long actualVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion)) {
+            throw new PreconditionFailedException("Объект уже изменён, текущая версия " + of(actualVersion));
+        }
+    }
+}
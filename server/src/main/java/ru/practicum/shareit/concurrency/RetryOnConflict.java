@@ -0,0 +1,14 @@
+package ru.practicum.shareit.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Транзакционный метод, который повторяется при конфликте версий, см. {@link ConflictRetryAdvisor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Результаты запросов с заголовком Idempotency-Key. Повтор с тем же ключом от того же пользователя
+ * получает сохранённый результат без повторного выполнения; пока первый запрос выполняется, повтор
+ * ждёт его завершения. Неудачный запрос не сохраняется, и повтор выполнит его заново.
+ * Хранилище ограничено max-entries записями, записи старше ttl-ms удаляются.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(@Value("${shareit.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${shareit.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Выполняет action один раз на ключ. operation и request защищают от повторного использования
+     * ключа для другого запроса.
+     */
+    public <T> T execute(String key, Long userId, String operation, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String storeKey = userId + ":" + key;
+        Entry entry = new Entry(operation, request, System.currentTimeMillis() + ttlMillis);
+        Entry existing = putIfAbsent(storeKey, entry);
+        if (existing != null) {
+            if (!existing.operation.equals(operation) || !Objects.equals(existing.request, request)) {
+                throw new IllegalArgumentException("Ключ идемпотентности уже использован для другого запроса");
+            }
+            log.debug("Повтор запроса {} с ключом {}", operation, key);
+            return await(existing);
+        }
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            remove(storeKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Entry putIfAbsent(String storeKey, Entry entry) {
+        long now = System.currentTimeMillis();
+        // Срок у всех записей одинаковый, поэтому истёкшие лежат в начале порядка вставки
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt <= now) {
+            iterator.remove();
+        }
+        Entry existing = entries.get(storeKey);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(storeKey, entry);
+        if (entries.size() > maxEntries) {
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return null;
+    }
+
+    private synchronized void remove(String storeKey, Entry entry) {
+        entries.remove(storeKey, entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(Entry entry) {
+        try {
+            return (T) entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        private final String operation;
+        private final Object request;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(String operation, Object request, long expiresAt) {
+            this.operation = operation;
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.concurrency.ETags;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,24 +21,31 @@ import java.util.Map;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto addItem(@RequestBody ItemDto itemDto,
-                           @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        return itemService.addItem(itemDto, userId);
+                           @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                           @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, userId, "POST /items", itemDto,
+                () -> itemService.addItem(itemDto, userId));
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(@RequestBody ItemUpdateDto updatedItem,
-                              @RequestHeader(Constants.SHARER_USER_ID) Long userId,
-                              @PathVariable Long itemId) {
-        return itemService.updateItem(updatedItem, userId, itemId);
+    public ResponseEntity<ItemDto> updateItem(@RequestBody ItemUpdateDto updatedItem,
+                                              @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+                                              @PathVariable Long itemId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        ItemDto item = itemService.updateItem(updatedItem, userId, itemId, ETags.parse(ifMatch));
+        return ETags.ok(item, item.getVersion());
     }
 
     @GetMapping("/{itemId}")
-    public ItemResponseDto getItemById(@PathVariable Long itemId) {
-        return itemService.getItemById(itemId);
+    public ResponseEntity<ItemResponseDto> getItemById(@PathVariable Long itemId) {
+        ItemResponseDto item = itemService.getItemById(itemId);
+        return ETags.ok(item, item.getVersion());
     }
 
     @GetMapping
@@ -41,15 +54,37 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public ResponseEntity<List<ItemDto>> search(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "${shareit.item.search.page-size:20}") Integer size) {
+        ItemSearchPage page = from == null && to == null
+                ? itemService.search(text, after, size)
+                : itemService.searchAvailable(text, from, to, after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(Constants.NEXT_CURSOR, page.next().toString());
+        }
+        return response.body(page.items());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(
         @PathVariable Long itemId,
         @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+        @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
         @RequestBody Map<String, String> request) {
-            return itemService.addComment(itemId, userId, request.get("text"));
+            return idempotencyStore.execute(idempotencyKey, userId, "POST /items/" + itemId + "/comment", request,
+                    () -> itemService.addComment(itemId, userId, request.get("text")));
     }
 }
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов поиска вещей: нормализованный запрос → id найденных вещей с их оценками. Хранит не больше
+ * max-entries запросов, давно не запрошенные вытесняются первыми, записи старше ttl-ms не используются.
+ * Вместе с запросом хранится условие совпадения, и при изменении вещи в {@link ItemSearchIndex}
+ * удаляются только те запросы, которым соответствует её прежний или новый текст.
+ * Результат, посчитанный во время изменения вещей, в кэш не попадает: он мог быть получен до изменения.
+ * Попадания, промахи, вытеснения и удаления по изменениям публикуются как метрики shareit.item.search.cache.*.
+ */
+@Component
+public class ItemSearchCache {
+    private final ItemSearchIndex itemSearchIndex;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Меняется при каждом изменении индекса
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter evictedBySize;
+    private final Counter evictedByTtl;
+    private final Counter invalidated;
+
+    public ItemSearchCache(ItemSearchIndex itemSearchIndex,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search-cache.max-entries:1000}") int maxEntries,
+                           @Value("${shareit.item.search-cache.ttl-ms:60000}") long ttlMillis) {
+        this.itemSearchIndex = itemSearchIndex;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        itemSearchIndex.addListener(this::invalidate);
+
+        FunctionCounter.builder("shareit.item.search.cache.hits", hits, AtomicLong::get)
+                .description("Запросы поиска, обслуженные из кэша")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.item.search.cache.misses", misses, AtomicLong::get)
+                .description("Запросы поиска, выполненные без кэша")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.hit.ratio", this, ItemSearchCache::hitRatio)
+                .description("Доля запросов поиска, обслуженных из кэша")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.size", this, ItemSearchCache::size)
+                .description("Запросы в кэше поиска")
+                .register(meterRegistry);
+        this.evictedBySize = Counter.builder("shareit.item.search.cache.evictions")
+                .tag("cause", "size")
+                .description("Запросы, вытесненные из кэша поиска")
+                .register(meterRegistry);
+        this.evictedByTtl = Counter.builder("shareit.item.search.cache.evictions")
+                .tag("cause", "ttl")
+                .description("Запросы, вытесненные из кэша поиска")
+                .register(meterRegistry);
+        this.invalidated = Counter.builder("shareit.item.search.cache.invalidations")
+                .description("Запросы, удалённые из кэша из-за изменения подходящих вещей")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Результат запроса key из кэша или от loader. matcher решает, подходит ли вещь под запрос.
+     */
+    List<ItemSearchRanking.Scored> get(String key, Predicate<ItemSearchIndex.Document> matcher,
+                                       Supplier<List<ItemSearchRanking.Scored>> loader) {
+        Entry entry = lookup(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            List<ItemSearchRanking.Scored> items = new ArrayList<>(entry.ids().length);
+            for (int i = 0; i < entry.ids().length; i++) {
+                ItemDto item = itemSearchIndex.item(entry.ids()[i]);
+                if (item != null) {
+                    items.add(new ItemSearchRanking.Scored(item, entry.scores()[i]));
+                }
+            }
+            return items;
+        }
+        misses.incrementAndGet();
+        long started = generation.get();
+        List<ItemSearchRanking.Scored> items = loader.get();
+        store(key, new Entry(items.stream().mapToLong(scored -> scored.item().getId()).toArray(),
+                items.stream().mapToInt(ItemSearchRanking.Scored::score).toArray(), matcher,
+                System.currentTimeMillis() + ttlMillis), started);
+        return items;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            evictedByTtl.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(String key, Entry entry, long started) {
+        if (generation.get() != started) {
+            return;
+        }
+        entries.put(key, entry);
+        if (entries.size() > maxEntries) {
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictedBySize.increment();
+        }
+    }
+
+    private synchronized void invalidate(ItemSearchIndex.Document previous, ItemSearchIndex.Document current) {
+        generation.incrementAndGet();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Predicate<ItemSearchIndex.Document> matcher = iterator.next().matcher();
+            if (previous != null && matcher.test(previous) || current != null && matcher.test(current)) {
+                iterator.remove();
+                invalidated.increment();
+            }
+        }
+    }
+
+    private record Entry(long[] ids, int[] scores, Predicate<ItemSearchIndex.Document> matcher, long expiresAt) {
+    }
+}
@@ -0,0 +1,340 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.concurrency.AfterCommit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxSink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс доступных вещей по словам названия и описания. Для каждого слова
+ * хранится отсортированный массив id вещей. Слово запроса совпадает со всеми словами индекса,
+ * которые с него начинаются, а вещь попадает в выдачу, если совпали все слова запроса.
+ * Массивы не изменяются на месте, запись заменяет их копией, поэтому поиск идёт без блокировок.
+ * Найденные вещи перепроверяются по текущему снимку: во время записи вещь может на мгновение
+ * остаться в списке старого слова. Индекс строится при старте и обновляется по событиям
+ * ITEM_CREATED и ITEM_UPDATED из outbox, а вместе с ним через слушателей — {@link ItemSearchCache}.
+ * Поэтому поиск отстаёт от записи на время до следующего прохода {@link ru.practicum.shareit.outbox.OutboxRelay}
+ * ({@code shareit.outbox.poll-ms}): новая вещь до него не находится, изменённая находится по старому тексту.
+ * Кэш собирает выдачу из документов индекса, так что id из кэша, которых в индексе ещё нет, в выдачу не попадают.
+ * <p>
+ * Рядом хранятся такие же списки по триграммам названия и описания в нижнем регистре для поиска
+ * по подстроке ({@link #searchSubstring}): кандидаты — вещи, содержащие все триграммы запроса,
+ * а подстрока проверяется у каждого кандидата, так что результат совпадает с запросом LIKE.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements OutboxSink {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, long[]> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, long[]> trigrams = new ConcurrentHashMap<>();
+    private final List<BiConsumer<Document, Document>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        List<Item> items = itemRepository.findByAvailableTrue();
+        items.forEach(item -> apply(Document.of(item)));
+        log.info("Поисковый индекс вещей загружен: {} вещей, {} слов, {} триграмм",
+                documents.size(), postings.size(), trigrams.size());
+    }
+
+    /**
+     * Доступные вещи, в названии или описании которых есть слова, начинающиеся с каждого слова запроса.
+     * Результат упорядочен по id.
+     */
+    public List<ItemDto> search(String text) {
+        String[] terms = tokenize(text);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        long[] ids = null;
+        for (String term : terms) {
+            long[] matches = prefixMatches(term);
+            ids = ids == null ? matches : intersect(ids, matches);
+            if (ids.length == 0) {
+                return List.of();
+            }
+        }
+        List<ItemDto> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Document document = documents.get(id);
+            if (document != null && document.matches(terms)) {
+                result.add(document.item());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Доступные вещи, в названии или описании которых без учёта регистра встречается text,
+     * как в {@link ItemRepository#searchByText}. Результат упорядочен по id.
+     */
+    public List<ItemDto> searchSubstring(String text) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        String[] grams = trigrams(needle);
+        long[] ids;
+        if (grams.length == 0) {
+            ids = documents.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        } else {
+            // Начинаем с самого короткого списка, чтобы пересечение сразу стало маленьким
+            long[][] lists = Arrays.stream(grams)
+                    .map(gram -> trigrams.getOrDefault(gram, EMPTY))
+                    .sorted(Comparator.comparingInt(list -> list.length))
+                    .toArray(long[][]::new);
+            ids = lists[0];
+            for (int i = 1; i < lists.length && ids.length > 0; i++) {
+                ids = intersect(ids, lists[i]);
+            }
+        }
+        List<ItemDto> result = new ArrayList<>();
+        for (long id : ids) {
+            Document document = documents.get(id);
+            if (document != null && document.contains(needle)) {
+                result.add(document.item());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Переиндексирует вещь после фиксации транзакции. Недоступная вещь убирается из индекса.
+     */
+    public void put(Item item) {
+        Document document = Document.of(item);
+        AfterCommit.run(() -> apply(document));
+    }
+
+    /**
+     * Переиндексирует вещь из события outbox по её текущему состоянию в БД, а не по снимку из события:
+     * повторная или запоздалая доставка не вернёт индексу устаревший текст.
+     */
+    @Override
+    public void handle(OutboxEvent event) {
+        if (event.getType() != OutboxEventType.ITEM_CREATED && event.getType() != OutboxEventType.ITEM_UPDATED) {
+            return;
+        }
+        Long itemId = event.getAggregateId();
+        itemRepository.findById(itemId).ifPresentOrElse(this::put, () -> apply(Document.removed(itemId)));
+    }
+
+    /**
+     * Убирает вещи владельца после фиксации транзакции: они удаляются каскадом вместе с пользователем.
+     */
+    public void removeOwner(Long ownerId) {
+        AfterCommit.run(() -> documents.values().stream()
+                .filter(document -> ownerId.equals(document.ownerId()))
+                .map(Document::id)
+                .toList()
+                .forEach(id -> apply(Document.removed(id))));
+    }
+
+    /**
+     * Вещь из индекса по id или null, если её нет среди доступных.
+     */
+    ItemDto item(long id) {
+        Document document = documents.get(id);
+        return document != null ? document.item() : null;
+    }
+
+    /**
+     * Слушатель получает прежний и новый вид вещи после каждого изменения индекса; null — вещи нет среди доступных.
+     */
+    void addListener(BiConsumer<Document, Document> listener) {
+        listeners.add(listener);
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    private synchronized void apply(Document document) {
+        Document previous = document.available()
+                ? documents.put(document.id(), document)
+                : documents.remove(document.id());
+        update(postings, document.id(), previous != null ? previous.terms() : null,
+                document.available() ? document.terms() : null);
+        update(trigrams, document.id(), previous != null ? previous.trigrams() : null,
+                document.available() ? document.trigrams() : null);
+        Document current = document.available() ? document : null;
+        if (previous != null || current != null) {
+            listeners.forEach(listener -> listener.accept(previous, current));
+        }
+    }
+
+    private static void update(Map<String, long[]> lists, long id, String[] previous, String[] current) {
+        Set<String> stale = new LinkedHashSet<>(previous != null ? List.of(previous) : List.of());
+        if (current != null) {
+            for (String key : current) {
+                if (!stale.remove(key)) {
+                    lists.compute(key, (k, ids) -> insert(ids == null ? EMPTY : ids, id));
+                }
+            }
+        }
+        for (String key : stale) {
+            lists.computeIfPresent(key, (k, ids) -> {
+                long[] rest = delete(ids, id);
+                return rest.length == 0 ? null : rest;
+            });
+        }
+    }
+
+    private long[] prefixMatches(String prefix) {
+        Collection<long[]> lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        long[] union = EMPTY;
+        for (long[] ids : lists) {
+            union = union.length == 0 ? ids : union(union, ids);
+        }
+        return union;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Различные подстроки длины 3. У строки короче трёх символов триграмм нет.
+     */
+    static String[] trigrams(String... texts) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                grams.add(text.substring(i, i + 3));
+            }
+        }
+        return grams.toArray(String[]::new);
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int at = -position - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                merged[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                merged[n++] = b[j++];
+            } else {
+                merged[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            merged[n++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[n++] = b[j++];
+        }
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] common = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common[n++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, n);
+    }
+
+    record Document(long id, Long ownerId, boolean available, ItemDto item, String[] terms,
+                            String name, String description, String[] trigrams) {
+
+        static Document of(Item item) {
+            String name = Objects.toString(item.getName(), "").toLowerCase(Locale.ROOT);
+            String description = Objects.toString(item.getDescription(), "").toLowerCase(Locale.ROOT);
+            String[] terms = tokenize(name + " " + description);
+            Arrays.sort(terms);
+            return new Document(item.getId(), item.getOwner() != null ? item.getOwner().getId() : null,
+                    Boolean.TRUE.equals(item.getAvailable()), ItemMapper.toItemDto(item), terms,
+                    name, description, ItemSearchIndex.trigrams(name, description));
+        }
+
+        static Document removed(long id) {
+            return new Document(id, null, false, null, new String[0], "", "", new String[0]);
+        }
+
+        boolean contains(String needle) {
+            return name.contains(needle) || description.contains(needle);
+        }
+
+        boolean matches(String[] query) {
+            for (String prefix : query) {
+                int at = Arrays.binarySearch(terms, prefix);
+                if (at < 0 && (-at - 1 >= terms.length || !terms[-at - 1].startsWith(prefix))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Ранжирование найденных вещей. Каждое слово запроса добавляет к оценке вещи лучший из вариантов:
+ * слово названия совпало целиком — 6, начинается со слова запроса — 4, то же в описании — 3 и 2,
+ * слово запроса встречается внутри текста — 1. В режиме fulltext эта оценка не применяется:
+ * вещи приходят с оценкой ts_rank из БД (см. {@link ItemTextSearch}). Выдача упорядочена по (score DESC, id ASC).
+ * Страница размера size набирается в куче из size элементов, так что полный список совпадений
+ * не сортируется. Курсор отсекает всё, что было на предыдущих страницах, по значению (score, id),
+ * поэтому добавление и изменение других вещей между запросами не приводит к повторам и пропускам.
+ */
+final class ItemSearchRanking {
+    // Худший элемент в голове кучи
+    private static final Comparator<Scored> WORST_FIRST = Comparator.comparingInt(Scored::score)
+            .thenComparing(Scored::id, Comparator.reverseOrder());
+
+    private ItemSearchRanking() {
+    }
+
+    static ItemSearchPage page(List<Scored> matches, ItemSearchCursor after, Integer size) {
+        if (size != null && size <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        PriorityQueue<Scored> heap = new PriorityQueue<>(size != null ? size + 1 : 16, WORST_FIRST);
+        for (Scored scored : matches) {
+            if (after != null && !isAfter(scored, after)) {
+                continue;
+            }
+            if (size == null || heap.size() < size) {
+                heap.add(scored);
+            } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+        List<Scored> page = new ArrayList<>(heap);
+        page.sort(WORST_FIRST.reversed());
+        ItemSearchCursor next = null;
+        if (size != null && page.size() == size) {
+            Scored last = page.getLast();
+            next = new ItemSearchCursor(last.score(), last.id());
+        }
+        return new ItemSearchPage(page.stream().map(Scored::item).toList(), next);
+    }
+
+    static int score(String[] terms, ItemDto item) {
+        String[] name = ItemSearchIndex.tokenize(item.getName());
+        String[] description = ItemSearchIndex.tokenize(item.getDescription());
+        String text = (Objects.toString(item.getName(), "") + " "
+                + Objects.toString(item.getDescription(), "")).toLowerCase(Locale.ROOT);
+        int score = 0;
+        for (String term : terms) {
+            int best = Math.max(wordScore(name, term, 6, 4), wordScore(description, term, 3, 2));
+            score += best > 0 ? best : text.contains(term) ? 1 : 0;
+        }
+        return score;
+    }
+
+    private static int wordScore(String[] words, String term, int exact, int prefix) {
+        int best = 0;
+        for (String word : words) {
+            if (word.equals(term)) {
+                return exact;
+            }
+            if (word.startsWith(term)) {
+                best = prefix;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isAfter(Scored scored, ItemSearchCursor cursor) {
+        return scored.score() < cursor.score() || scored.score() == cursor.score() && scored.id() > cursor.id();
+    }
+
+    record Scored(ItemDto item, int score) {
+        long id() {
+            return item.getId();
+        }
+    }
+}
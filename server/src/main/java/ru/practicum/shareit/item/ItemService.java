@@ -2,19 +2,33 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto addItem(ItemDto itemDto, Long userId);
 
-    ItemDto updateItem(ItemUpdateDto updatedItem, Long userId, Long itemId);
+    /**
+     * expectedVersion из If-Match; null — обновление без проверки версии.
+     */
+    ItemDto updateItem(ItemUpdateDto updatedItem, Long userId, Long itemId, Long expectedVersion);
 
     ItemResponseDto getItemById(Long itemId);
 
     List<ItemResponseDto> getOwnerItems(long userId);
 
-    List<ItemDto> search(String text);
+    /**
+     * Страница выдачи, упорядоченной по релевантности. after — курсор из предыдущей страницы,
+     * size — размер страницы; без size возвращаются все совпадения. Контроллер всегда передаёт size:
+     * если клиент его не указал — {@code shareit.item.search.page-size} (20), и выдача обрезается
+     * до первой страницы с курсором продолжения в заголовке X-Next-Cursor.
+     */
+    ItemSearchPage search(String text, String after, Integer size);
+
+    ItemSearchPage searchAvailable(String text, LocalDateTime from, LocalDateTime to, String after, Integer size);
+
+    List<FreeIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDto addComment(Long itemId, Long userId, String text);
 }
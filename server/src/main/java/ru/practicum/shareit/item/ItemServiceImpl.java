@@ -4,12 +4,16 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.concurrency.ETags;
+import ru.practicum.shareit.concurrency.RetryOnConflict;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
@@ -18,7 +22,6 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +34,9 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final BookingTimeline bookingTimeline;
+    private final ItemTextSearch itemTextSearch;
+    private final Outbox outbox;
 
     @Override
     @Transactional
@@ -50,17 +56,21 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(owner);
         Item savedItem = itemRepository.save(item);
 
-        return ItemMapper.toItemDto(savedItem);
+        ItemDto savedDto = ItemMapper.toItemDto(savedItem);
+        outbox.record(OutboxEventType.ITEM_CREATED, savedItem.getId(), savedDto);
+        return savedDto;
     }
 
     @Override
     @Transactional
-    public ItemDto updateItem(ItemUpdateDto updatedItem, Long userId, Long itemId) {
+    @RetryOnConflict
+    public ItemDto updateItem(ItemUpdateDto updatedItem, Long userId, Long itemId, Long expectedVersion) {
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new EntityNotFoundException("Предмет не найден с id " + itemId));
         if (!item.getOwner().getId().equals(userId)) {
             throw new EntityNotFoundException("Пользователь не владелец");
         }
+        ETags.checkMatch(expectedVersion, item.getVersion());
 
         if (updatedItem.getName() != null) {
             item.setName(updatedItem.getName());
@@ -72,7 +82,12 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(updatedItem.getAvailable());
         }
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        // Конфликт версий всплывает здесь, а не при коммите, и в ответ попадает новая версия
+        itemRepository.flush();
+        ItemDto savedDto = ItemMapper.toItemDto(savedItem);
+        outbox.record(OutboxEventType.ITEM_UPDATED, itemId, savedDto);
+        return savedDto;
     }
 
     @Override
@@ -85,7 +100,7 @@ public class ItemServiceImpl implements ItemService {
                 .map(CommentMapper::toCommentDto)
                 .toList();
 
-        return ItemMapper.toItemResponseDto(item, null, null, comments);
+        return ItemMapper.toItemResponseDto(item, bookingTimeline.summary(itemId, now), comments);
     }
 
     @Override
@@ -93,22 +108,6 @@ public class ItemServiceImpl implements ItemService {
         LocalDateTime now = LocalDateTime.now();
         List<Item> items = itemRepository.findByOwnerId(userId);
 
-        Map<Long, Booking> lastBookings = bookingRepository
-                .findLastBookingsForItems(items.stream().map(Item::getId).toList(), now)
-                .stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        Function.identity()
-                ));
-
-        Map<Long, Booking> nextBookings = bookingRepository
-                .findNextBookingsForItems(items.stream().map(Item::getId).toList(), now)
-                .stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        Function.identity()
-                ));
-
         Map<Long, List<CommentDto>> commentsByItem = commentRepository.findByItemIn(items).stream()
                 .collect(Collectors.groupingBy(
                         comment -> comment.getItem().getId(),
@@ -116,26 +115,54 @@ public class ItemServiceImpl implements ItemService {
                 ));
 
         return items.stream()
-                .map(item -> {
-                    Booking last = lastBookings.get(item.getId());
-                    Booking next = nextBookings.get(item.getId());
-                    List<CommentDto> comments = commentsByItem.getOrDefault(item.getId(), List.of());
-                    return ItemMapper.toItemResponseDto(item, last, next, comments);
-                })
+                .map(item -> ItemMapper.toItemResponseDto(item, bookingTimeline.summary(item.getId(), now),
+                        commentsByItem.getOrDefault(item.getId(), List.of())))
                 .toList();
     }
 
 
     @Override
-    public List<ItemDto> search(String text) {
+    public ItemSearchPage search(String text, String after, Integer size) {
         if (text == null || text.isBlank()) {
-            return List.of();
+            return new ItemSearchPage(List.of(), null);
         }
-        return itemRepository
-                .searchByText(text)
-                .stream()
-                .map(ItemMapper::toItemDto)
+        return ItemSearchRanking.page(itemTextSearch.searchScored(text), cursor(after), size);
+    }
+
+    @Override
+    public ItemSearchPage searchAvailable(String text, LocalDateTime from, LocalDateTime to,
+                                          String after, Integer size) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Для поиска свободных вещей нужны обе даты");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше окончания");
+        }
+        if (text == null || text.isBlank()) {
+            return new ItemSearchPage(List.of(), null);
+        }
+        // Совпадений по тексту обычно намного меньше, чем вещей с бронированиями
+        List<ItemSearchRanking.Scored> freeMatches = itemTextSearch.searchScored(text).stream()
+                .filter(scored -> !bookingTimeline.hasOverlap(scored.item().getId(), from, to))
                 .toList();
+        return ItemSearchRanking.page(freeMatches, cursor(after), size);
+    }
+
+    private static ItemSearchCursor cursor(String after) {
+        return after != null ? ItemSearchCursor.parse(after) : null;
+    }
+
+    @Override
+    public List<FreeIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше окончания");
+        }
+        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                new EntityNotFoundException("Предмет не найден с id " + itemId));
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return List.of();
+        }
+        return bookingTimeline.freeIntervals(itemId, from, to);
     }
 
     @Override
@@ -158,6 +185,8 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(author);
         comment.setCreated(LocalDateTime.now());
 
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto savedDto = CommentMapper.toCommentDto(commentRepository.save(comment));
+        outbox.record(OutboxEventType.COMMENT_ADDED, itemId, savedDto);
+        return savedDto;
     }
 }
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск доступных вещей по тексту в режиме {@code shareit.item.search}:
+ * {@code index} — {@link ItemSearchIndex} в памяти, {@code like} — запрос LIKE по подстроке
+ * (в схемах PostgreSQL его обслуживают индексы pg_trgm), {@code trigram} — тот же поиск по подстроке
+ * через триграммы {@link ItemSearchIndex} в памяти, {@code fulltext} — полнотекстовый поиск PostgreSQL
+ * по столбцу search_vector с индексом GIN (schema-range.sql, schema-partitioned.sql). В режиме fulltext
+ * оценкой вещи служит ts_rank из БД, в остальных режимах — {@link ItemSearchRanking#score}.
+ * Если столбца search_vector нет (H2 в тестах, обычная схема), режим fulltext работает как like.
+ * <p>
+ * Результаты запросов хранятся в {@link ItemSearchCache} по нормализованному запросу: в режимах
+ * index и fulltext — по отсортированным словам, в режимах like и trigram — по тексту в нижнем регистре.
+ * Запросы с символами шаблона LIKE не кэшируются.
+ */
+@Slf4j
+@Component
+public class ItemTextSearch {
+    private static final String SEARCH_VECTOR_SQL = "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE LOWER(table_name) = 'items' AND LOWER(column_name) = 'search_vector'";
+
+    // Символы шаблона LIKE: с ними результат запроса отличается от поиска подстроки
+    private static final String LIKE_WILDCARDS = "%_\\";
+
+    // Совпадения в названии весят больше, чем в описании (веса A и B в search_vector).
+    // ts_rank — дробное число, в оценку он попадает с шестью знаками после запятой
+    private static final String RANKED_SQL = "SELECT i.id, i.name, i.description, i.available, i.request_id, " +
+            "i.version, CAST(ts_rank(i.search_vector, q) * 1000000 AS integer) AS score " +
+            "FROM items i, to_tsquery('simple', ?) q " +
+            "WHERE i.available AND i.search_vector @@ q " +
+            "ORDER BY score DESC, i.id";
+
+    enum Mode { INDEX, LIKE, TRIGRAM, FULLTEXT }
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final JdbcTemplate jdbcTemplate;
+    private Mode mode;
+
+    public ItemTextSearch(ItemRepository itemRepository,
+                          ItemSearchIndex itemSearchIndex,
+                          ItemSearchCache itemSearchCache,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${shareit.item.search:index}") String mode) {
+        this.itemRepository = itemRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemSearchCache = itemSearchCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+    }
+
+    @PostConstruct
+    void checkSchema() {
+        if (mode == Mode.FULLTEXT) {
+            Integer columns = jdbcTemplate.queryForObject(SEARCH_VECTOR_SQL, Integer.class);
+            if (columns == null || columns == 0) {
+                log.warn("В таблице items нет столбца search_vector, поиск вещей выполняется запросом LIKE");
+                mode = Mode.LIKE;
+            }
+        }
+        log.info("Режим поиска вещей: {}", mode);
+    }
+
+    public List<ItemDto> search(String text) {
+        return find(text).stream().map(ItemSearchRanking.Scored::item).toList();
+    }
+
+    /**
+     * Найденные вещи с оценками для {@link ItemSearchRanking#page(List, ItemSearchCursor, Integer)}.
+     */
+    List<ItemSearchRanking.Scored> searchScored(String text) {
+        List<ItemSearchRanking.Scored> found = find(text);
+        if (mode == Mode.FULLTEXT) {
+            return found;
+        }
+        String[] terms = ItemSearchIndex.tokenize(text);
+        return found.stream()
+                .map(ItemSearchRanking.Scored::item)
+                .map(item -> new ItemSearchRanking.Scored(item, ItemSearchRanking.score(terms, item)))
+                .toList();
+    }
+
+    private List<ItemSearchRanking.Scored> find(String text) {
+        if (mode == Mode.INDEX || mode == Mode.FULLTEXT) {
+            String[] terms = ItemSearchIndex.tokenize(text);
+            if (terms.length == 0) {
+                return List.of();
+            }
+            Arrays.sort(terms);
+            return itemSearchCache.get(String.join(" ", terms), document -> document.matches(terms),
+                    () -> load(text));
+        }
+        if (hasWildcards(text)) {
+            return unscored(toDtos(itemRepository.searchByText(text)));
+        }
+        String needle = text.toLowerCase(Locale.ROOT);
+        return itemSearchCache.get(needle, document -> document.contains(needle), () -> load(text));
+    }
+
+    private List<ItemSearchRanking.Scored> load(String text) {
+        return switch (mode) {
+            case INDEX -> unscored(itemSearchIndex.search(text));
+            case LIKE -> unscored(toDtos(itemRepository.searchByText(text)));
+            case TRIGRAM -> unscored(itemSearchIndex.searchSubstring(text));
+            case FULLTEXT -> {
+                String query = toTsQuery(text);
+                yield query.isEmpty() ? List.of() : jdbcTemplate.query(RANKED_SQL, (rs, rowNum) ->
+                        new ItemSearchRanking.Scored(new ItemDto(rs.getLong("id"), rs.getString("name"),
+                                rs.getString("description"), rs.getBoolean("available"),
+                                rs.getObject("request_id", Long.class), rs.getLong("version")),
+                                rs.getInt("score")), query);
+            }
+        };
+    }
+
+    Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Слова запроса как префиксы, объединённые через И: «дрел удар» → {@code дрел:* & удар:*}.
+     * Слова состоят только из букв и цифр, поэтому не содержат операторов tsquery.
+     */
+    static String toTsQuery(String text) {
+        return Arrays.stream(ItemSearchIndex.tokenize(text))
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static boolean hasWildcards(String text) {
+        return text.chars().anyMatch(c -> LIKE_WILDCARDS.indexOf(c) >= 0);
+    }
+
+    // Оценку в этих режимах считает searchScored
+    private static List<ItemSearchRanking.Scored> unscored(List<ItemDto> items) {
+        return items.stream().map(item -> new ItemSearchRanking.Scored(item, 0)).toList();
+    }
+
+    private static List<ItemDto> toDtos(List<Item> items) {
+        return items.stream().map(ItemMapper::toItemDto).toList();
+    }
+}
@@ -19,4 +19,10 @@ public class ItemDto {
     private Boolean available;
 
     private Long requestId;
+
+    private Long version;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, requestId, null);
+    }
 }
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingSummary;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 
@@ -13,12 +13,12 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                item.getRequest() != null ? item.getRequest().getId() : null);
+                item.getRequest() != null ? item.getRequest().getId() : null,
+                item.getVersion());
     }
 
     public static ItemResponseDto toItemResponseDto(Item item,
-                                                    Booking lastBooking,
-                                                    Booking nextBooking,
+                                                    BookingSummary bookings,
                                                     List<CommentDto> comments) {
         ItemResponseDto dto = new ItemResponseDto();
         dto.setId(item.getId());
@@ -26,15 +26,9 @@ public class ItemMapper {
         dto.setDescription(item.getDescription());
         dto.setAvailable(item.getAvailable());
         dto.setComments(comments);
-
-        if (lastBooking != null) {
-            dto.setLastBooking(lastBooking.getStart());
-        }
-
-        if (nextBooking != null) {
-            dto.setNextBooking(nextBooking.getStart());
-        }
-
+        dto.setLastBooking(bookings.lastStart());
+        dto.setNextBooking(bookings.nextStart());
+        dto.setVersion(item.getVersion());
         return dto;
     }
 
@@ -20,4 +20,6 @@ public class ItemResponseDto {
     private LocalDateTime nextBooking;
 
     private List<CommentDto> comments;
+
+    private Long version;
 }
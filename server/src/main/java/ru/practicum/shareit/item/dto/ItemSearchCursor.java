@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Позиция в выдаче поиска вещей, отсортированной по (score DESC, id ASC).
+ * Сервер возвращает её в заголовке X-Next-Cursor, клиент передаёт обратно как {@code after=<score>,<id>}.
+ */
+public record ItemSearchCursor(int score, long id) {
+
+    public static ItemSearchCursor parse(String value) {
+        int separator = value.lastIndexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+        try {
+            return new ItemSearchCursor(Integer.parseInt(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return score + "," + id;
+    }
+}
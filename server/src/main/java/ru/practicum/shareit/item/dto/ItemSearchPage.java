@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+/**
+ * Страница выдачи поиска. next — курсор следующей страницы, null если страница последняя.
+ */
+public record ItemSearchPage(List<ItemDto> items, ItemSearchCursor next) {
+}
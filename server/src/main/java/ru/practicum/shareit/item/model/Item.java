@@ -13,7 +13,7 @@ import ru.practicum.shareit.user.model.User;
 @Getter
 @Setter
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = @Index(name = "idx_items_owner", columnList = "owner_id"))
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +31,13 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    @Version
+    private Long version;
+
+    public Item(Long id, String name, String description, Boolean available, User owner, ItemRequest request) {
+        this(id, name, description, available, owner, request, null);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
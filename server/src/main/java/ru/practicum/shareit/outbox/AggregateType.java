@@ -0,0 +1,7 @@
+package ru.practicum.shareit.outbox;
+
+public enum AggregateType {
+    BOOKING,
+    ITEM,
+    REQUEST
+}
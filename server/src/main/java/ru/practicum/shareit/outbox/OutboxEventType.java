@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+
+/**
+ * Тип события вместе с агрегатом, к которому оно относится. Комментарии входят в агрегат вещи.
+ */
+@Getter
+public enum OutboxEventType {
+    BOOKING_CREATED(AggregateType.BOOKING),
+    BOOKING_APPROVED(AggregateType.BOOKING),
+    BOOKING_REJECTED(AggregateType.BOOKING),
+    BOOKING_CANCELLED(AggregateType.BOOKING),
+    ITEM_CREATED(AggregateType.ITEM),
+    ITEM_UPDATED(AggregateType.ITEM),
+    COMMENT_ADDED(AggregateType.ITEM),
+    REQUEST_CREATED(AggregateType.REQUEST);
+
+    private final AggregateType aggregateType;
+
+    OutboxEventType(AggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+}
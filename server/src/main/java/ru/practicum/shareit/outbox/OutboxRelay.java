@@ -0,0 +1,138 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Переносит события из outbox в получателей пачками в порядке id и удаляет доставленные.
+ * Работает в одном потоке, поэтому события одного агрегата доставляются в порядке записи:
+ * если событие не обработано, более поздние события того же агрегата в этом проходе пропускаются,
+ * остальные агрегаты продолжают обрабатываться. После max-attempts неудачных попыток событие
+ * записывается в лог и удаляется, чтобы не блокировать агрегат навсегда.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final long pollMillis;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ScheduledExecutorService executor;
+    private final Counter relayed;
+    private final Counter failures;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       List<OutboxSink> sinks,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit.outbox.poll-ms:200}") long pollMillis,
+                       @Value("${shareit.outbox.batch-size:500}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.pollMillis = pollMillis;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.relayed = Counter.builder("shareit.outbox.relayed")
+                .description("Доставленные события outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("shareit.outbox.failures")
+                .description("Неудачные попытки доставки событий outbox")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Возраст самого старого недоставленного события")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                int done;
+                do {
+                    done = relay();
+                } while (done == batchSize);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обработать outbox", e);
+            }
+        }, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Один проход по outbox. Возвращает число удалённых событий: полная пачка значит, что outbox не пуст.
+     */
+    public int relay() {
+        List<OutboxEvent> batch = outboxRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+        List<Long> done = new ArrayList<>();
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            if (deliver(event)) {
+                done.add(event.getId());
+                relayed.increment();
+            } else if (event.getAttempts() + 1 >= maxAttempts) {
+                log.error("Событие outbox {} {} агрегата {} отброшено после {} попыток",
+                        event.getId(), event.getType(), aggregate, maxAttempts);
+                done.add(event.getId());
+            } else {
+                outboxRepository.incrementAttempts(event.getId());
+                blocked.add(aggregate);
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(done);
+        }
+        lagMillis.set(outboxRepository.findFirstByOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreated(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+        return done.size();
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.handle(event);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Получатель {} не обработал событие outbox {}", sink.getClass().getSimpleName(),
+                        event.getId(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Получатель событий outbox внутри приложения. События одного агрегата приходят в порядке записи;
+ * доставка не реже одного раза, поэтому обработка должна быть идемпотентной.
+ */
+public interface OutboxSink {
+
+    void handle(OutboxEvent event);
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -15,13 +16,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemRequestDto createRequest(
             @RequestBody CreateItemRequestDto requestDto,
-            @RequestHeader(Constants.SHARER_USER_ID) Long userId) {
-        return itemRequestService.createRequest(requestDto, userId);
+            @RequestHeader(Constants.SHARER_USER_ID) Long userId,
+            @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, userId, "POST /requests", requestDto,
+                () -> itemRequestService.createRequest(requestDto, userId));
     }
 
     @GetMapping
@@ -6,6 +6,8 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
@@ -23,13 +25,16 @@ public class ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final Outbox outbox;
 
     @Transactional
     public ItemRequestDto createRequest(CreateItemRequestDto requestDto, Long userId) {
         User requester = UserMapper.toUser(userService.getUserById(userId));
         ItemRequest newRequest = ItemRequestMapper.toItemRequest(requestDto, requester);
         ItemRequest savedRequest = itemRequestRepository.save(newRequest);
-        return ItemRequestMapper.toItemRequestDto(savedRequest);
+        ItemRequestDto savedDto = ItemRequestMapper.toItemRequestDto(savedRequest);
+        outbox.record(OutboxEventType.REQUEST_CREATED, savedRequest.getId(), savedDto);
+        return savedDto;
     }
 
     public List<ItemRequestDto> getUserRequests(Long userId) {
@@ -4,7 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.concurrency.ETags;
+import ru.practicum.shareit.concurrency.RetryOnConflict;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -18,6 +21,7 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class UserService {
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Transactional
     public UserDto addUser(UserDto userDto) {
@@ -33,6 +37,7 @@ public class UserService {
         User user = userRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Пользователь не найден с id " + id));
         userRepository.delete(user);
+        itemSearchIndex.removeOwner(id);
     }
 
     public UserDto getUserById(Long id) {
@@ -50,9 +55,11 @@ public class UserService {
     }
 
     @Transactional
-    public UserDto updateUser(Long id, UserUpdateDto updatedUser) {
+    @RetryOnConflict
+    public UserDto updateUser(Long id, UserUpdateDto updatedUser, Long expectedVersion) {
         return userRepository.findById(id)
                 .map(existingUser -> {
+                    ETags.checkMatch(expectedVersion, existingUser.getVersion());
                     if (updatedUser.getEmail() != null) {
                         if (userRepository.existsByEmailAndIdNot(updatedUser.getEmail(), id)) {
                             throw new RuntimeException("Email уже используется другим пользователем");
@@ -64,7 +71,9 @@ public class UserService {
                         existingUser.setName(updatedUser.getName());
                     }
 
-                    return UserMapper.toUserDto(userRepository.save(existingUser));
+                    User savedUser = userRepository.save(existingUser);
+                    userRepository.flush();
+                    return UserMapper.toUserDto(savedUser);
                 })
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден с id " + id));
     }
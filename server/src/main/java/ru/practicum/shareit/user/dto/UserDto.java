@@ -17,4 +17,10 @@ public class UserDto {
     @NotNull
     @Email
     private String email;
+
+    private Long version;
+
+    public UserDto(Long id, String name, String email) {
+        this(id, name, email, null);
+    }
 }
@@ -18,6 +18,13 @@ public class User {
     private String name;
     private String email;
 
+    @Version
+    private Long version;
+
+    public User(Long id, String name, String email) {
+        this(id, name, email, null);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,123 @@
+DROP TABLE IF EXISTS outbox_events;
+DROP TABLE IF EXISTS comments;
+DROP TABLE IF EXISTS booking_waitlist;
+DROP TABLE IF EXISTS booking_series;
+DROP TABLE IF EXISTS bookings CASCADE;
+DROP TABLE IF EXISTS items;
+DROP TABLE IF EXISTS requests;
+DROP TABLE IF EXISTS users;
+
+CREATE TABLE IF NOT EXISTS users (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(100) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  description VARCHAR(512) NOT NULL,
+  requester_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT fk_request_requester FOREIGN KEY (requester_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS items (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  owner_id BIGINT NOT NULL,
+  name VARCHAR(512) NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  available BOOLEAN NOT NULL,
+  request_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
+  search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')) STORED,
+  CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE
+);
+
+-- Бронирования разбиты на помесячные секции по end_date: запросы с условием на end_date
+-- читают только нужные секции. Секции создаёт и отсоединяет BookingPartitionMaintenance,
+-- строки вне созданных секций попадают в bookings_default. Первичный ключ секционированной таблицы
+-- обязан включать ключ секционирования, ограничение исключения по вещам здесь недоступно —
+-- пересечения одобренных бронирований отсекает BookingAdmission.
+CREATE TABLE IF NOT EXISTS bookings (
+  id BIGSERIAL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL,
+  phase VARCHAR(20) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (id, end_date),
+  CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT chk_dates CHECK (end_date > start_date)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_end ON bookings (phase, end_date);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_search ON items USING gin (search_vector);
+-- Поиск подстроки LOWER(...) LIKE '%текст%' читает только строки-кандидаты из триграммных индексов
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops);
+
+CREATE TABLE IF NOT EXISTS booking_series (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  frequency VARCHAR(20) NOT NULL,
+  repeat_interval INT NOT NULL,
+  occurrences INT NOT NULL,
+  until_date TIMESTAMP WITHOUT TIME ZONE,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL,
+  CONSTRAINT fk_booking_series_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_series_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT chk_booking_series_dates CHECK (end_date > start_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_series_item ON booking_series (item_id, status);
+
+CREATE TABLE IF NOT EXISTS booking_waitlist (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT fk_booking_waitlist_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_waitlist_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT chk_booking_waitlist_dates CHECK (end_date > start_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_waitlist_item ON booking_waitlist (item_id, created, id);
+CREATE INDEX IF NOT EXISTS idx_booking_waitlist_booker ON booking_waitlist (booker_id);
+
+CREATE TABLE IF NOT EXISTS comments (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  text VARCHAR(512) NOT NULL,
+  item_id BIGINT NOT NULL,
+  author_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  aggregate_type VARCHAR(20) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  event_type VARCHAR(50) NOT NULL,
+  payload VARCHAR(4000) NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
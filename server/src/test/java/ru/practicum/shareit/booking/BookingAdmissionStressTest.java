@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAdmissionStressTest {
+    private static final int ITEMS = 4;
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentOverlappingRequests_ShouldNeverProduceDoubleBooking() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "stress-owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "Booker", "stress-booker@mail.ru"));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(new Item(null, "Дрель " + i, "Ударная", true, owner, null)).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long itemId = itemIds.get(random.nextInt(ITEMS));
+                LocalDateTime start = base.plusHours(random.nextInt(24 * 30));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+                try {
+                    BookingResponseDto created = bookingService.createBooking(
+                            new BookingRequestDto(itemId, start, end), booker.getId());
+                    bookingService.approveBooking(created.getId(), owner.getId(), true, null);
+                    approved.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    conflicts.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(REQUESTS, approved.get() + conflicts.get());
+        assertTrue(approved.get() > 0);
+
+        Map<Long, List<BookingIntervalDto>> byItem = bookingRepository
+                .findIntervalsByStatus(BookingStatus.APPROVED).stream()
+                .filter(interval -> itemIds.contains(interval.getItemId()))
+                .collect(Collectors.groupingBy(BookingIntervalDto::getItemId));
+        assertEquals(approved.get(), byItem.values().stream().mapToInt(List::size).sum());
+
+        for (List<BookingIntervalDto> intervals : byItem.values()) {
+            intervals.sort(Comparator.comparing(BookingIntervalDto::getStart));
+            for (int i = 1; i < intervals.size(); i++) {
+                assertTrue(intervals.get(i).getStart().isAfter(intervals.get(i - 1).getEnd()),
+                        "Пересечение одобренных бронирований: " + intervals.get(i - 1) + " и " + intervals.get(i));
+            }
+        }
+    }
+}
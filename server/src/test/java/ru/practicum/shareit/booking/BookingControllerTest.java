@@ -4,11 +4,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingHoldRequestDto;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingWaitlistDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,6 +33,12 @@ class BookingControllerTest {
 
     @Mock
     private BookingService bookingService;
+    @Mock
+    private BookingSeriesService bookingSeriesService;
+    @Mock
+    private BookingWaitlistService bookingWaitlistService;
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60_000);
 
     @InjectMocks
     private BookingController bookingController;
@@ -37,24 +55,123 @@ class BookingControllerTest {
 
         bookingRequestDto.setStart(LocalDateTime.now());
         bookingRequestDto.setEnd(bookingRequestDto.getStart().plusSeconds(1));
-        BookingResponseDto result = bookingController.createBooking(bookingRequestDto, userId);
+        BookingResponseDto result = bookingController.createBooking(bookingRequestDto, userId, null);
 
         assertNotNull(result);
         assertEquals(bookingResponseDto, result);
         verify(bookingService).createBooking(bookingRequestDto, userId);
     }
 
+    @Test
+    void createBooking_ShouldReturnStoredResultOnRetryWithSameKey() {
+        bookingRequestDto.setItemId(2L);
+        when(bookingService.createBooking(bookingRequestDto, userId)).thenReturn(bookingResponseDto);
+
+        BookingResponseDto first = bookingController.createBooking(bookingRequestDto, userId, "key-1");
+        BookingResponseDto retry = bookingController.createBooking(bookingRequestDto, userId, "key-1");
+
+        assertSame(first, retry);
+        verify(bookingService, times(1)).createBooking(bookingRequestDto, userId);
+    }
+
+    @Test
+    void createBookings_ShouldReturnPerEntryResults() {
+        List<BookingRequestDto> requests = List.of(bookingRequestDto);
+        List<BookingBatchResultDto> results = List.of(BookingBatchResultDto.created(0, bookingResponseDto));
+        when(bookingService.createBookings(requests, userId)).thenReturn(results);
+
+        assertEquals(results, bookingController.createBookings(requests, userId));
+        verify(bookingService).createBookings(requests, userId);
+    }
+
+    @Test
+    void createSeries_ShouldDelegateToSeriesService() {
+        BookingSeriesRequestDto request = new BookingSeriesRequestDto(2L, LocalDateTime.now(),
+                LocalDateTime.now().plusHours(2), BookingFrequency.WEEKLY, 1, 10, null);
+        BookingSeriesDto series = new BookingSeriesDto();
+        when(bookingSeriesService.createSeries(request, userId)).thenReturn(series);
+
+        assertEquals(series, bookingController.createSeries(request, userId));
+    }
+
+    @Test
+    void holds_ShouldDelegateToService() {
+        BookingHoldRequestDto request = new BookingHoldRequestDto(2L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), 5);
+        BookingHoldDto hold = new BookingHoldDto();
+        when(bookingService.createHold(request, userId)).thenReturn(hold);
+
+        assertEquals(hold, bookingController.createHold(request, userId));
+        bookingController.releaseHold(3L, userId);
+        verify(bookingService).releaseHold(3L, userId);
+    }
+
+    @Test
+    void cancelBooking_ShouldDelegateToService() {
+        when(bookingService.cancelBooking(bookingId, userId, null)).thenReturn(bookingResponseDto);
+
+        assertEquals(bookingResponseDto, bookingController.cancelBooking(bookingId, userId, null).getBody());
+    }
+
+    @Test
+    void waitlist_ShouldDelegateToWaitlistService() {
+        BookingWaitlistDto entry = new BookingWaitlistDto();
+        when(bookingWaitlistService.join(bookingRequestDto, userId)).thenReturn(entry);
+        when(bookingWaitlistService.getEntries(userId)).thenReturn(List.of(entry));
+
+        assertEquals(entry, bookingController.joinWaitlist(bookingRequestDto, userId));
+        assertEquals(List.of(entry), bookingController.getWaitlist(userId));
+        bookingController.leaveWaitlist(4L, userId);
+        verify(bookingWaitlistService).leave(4L, userId);
+    }
+
+    @Test
+    void getOccurrences_ShouldDelegateToSeriesService() {
+        LocalDateTime from = LocalDateTime.now();
+        List<BookingOccurrenceDto> occurrences = List.of(new BookingOccurrenceDto(3L, 0, from, from.plusHours(1)));
+        when(bookingSeriesService.getOccurrences(3L, userId, from, from.plusDays(7))).thenReturn(occurrences);
+
+        assertEquals(occurrences, bookingController.getOccurrences(3L, from, from.plusDays(7), userId));
+    }
+
+    @Test
+    void decideBookings_ShouldReturnPerEntryResults() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(bookingId, true));
+        List<BookingBatchResultDto> results = List.of(BookingBatchResultDto.failed(0, "Бронирование не найдено"));
+        when(bookingService.decideBookings(decisions, userId)).thenReturn(results);
+
+        assertEquals(results, bookingController.decideBookings(decisions, userId));
+    }
+
+    @Test
+    void streamEvents_ShouldReturnEmitterOfService() {
+        SseEmitter emitter = new SseEmitter();
+        when(bookingService.subscribe(userId)).thenReturn(emitter);
+
+        assertSame(emitter, bookingController.streamEvents(userId));
+    }
+
+    @Test
+    void getStats_ShouldPassRoleToService() {
+        BookingStatsDto bookerStats = new BookingStatsDto(2, 1, 0, 1, 1, 0);
+        BookingStatsDto ownerStats = new BookingStatsDto(5, 0, 3, 2, 0, 1);
+        when(bookingService.getStats(BookingRole.BOOKER, userId)).thenReturn(bookerStats);
+        when(bookingService.getStats(BookingRole.OWNER, userId)).thenReturn(ownerStats);
+
+        assertEquals(bookerStats, bookingController.getUserStats(userId));
+        assertEquals(ownerStats, bookingController.getOwnerStats(userId));
+    }
+
     @Test
     void approveBooking_ShouldReturnApprovedBooking() {
         boolean approved = true;
-        when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean()))
+        when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean(), any()))
                 .thenReturn(bookingResponseDto);
 
-        BookingResponseDto result = bookingController.approveBooking(bookingId, approved, userId);
+        BookingResponseDto result = bookingController.approveBooking(bookingId, approved, userId, null).getBody();
 
         assertNotNull(result);
         assertEquals(bookingResponseDto, result);
-        verify(bookingService).approveBooking(bookingId, userId, approved);
+        verify(bookingService).approveBooking(bookingId, userId, approved, null);
     }
 
     @Test
@@ -62,7 +179,7 @@ class BookingControllerTest {
         when(bookingService.getBookingById(anyLong(), anyLong()))
                 .thenReturn(bookingResponseDto);
 
-        BookingResponseDto result = bookingController.getBooking(bookingId, userId);
+        BookingResponseDto result = bookingController.getBooking(bookingId, userId).getBody();
 
         assertNotNull(result);
         assertEquals(bookingResponseDto, result);
@@ -81,50 +198,62 @@ class BookingControllerTest {
     @Test
     void getUserBookings_ShouldReturnList() {
         String state = "ALL";
-        when(bookingService.getUserBookings(anyLong(), anyString()))
+        when(bookingService.getUserBookings(anyLong(), anyString(), isNull(), isNull()))
                 .thenReturn(List.of(bookingResponseDto));
 
-        List<BookingResponseDto> result = bookingController.getUserBookings(state, userId);
+        List<BookingResponseDto> result = bookingController.getUserBookings(state, null, null, userId);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(bookingResponseDto, result.getFirst());
-        verify(bookingService).getUserBookings(userId, state);
+        verify(bookingService).getUserBookings(userId, state, null, null);
     }
 
     @Test
     void getOwnerBookings_ShouldReturnList() {
         String state = "FUTURE";
-        when(bookingService.getOwnerBookings(anyLong(), anyString()))
+        when(bookingService.getOwnerBookings(anyLong(), anyString(), isNull(), isNull()))
                 .thenReturn(List.of(bookingResponseDto));
 
-        List<BookingResponseDto> result = bookingController.getOwnerBookings(state, userId);
+        List<BookingResponseDto> result = bookingController.getOwnerBookings(state, null, null, userId);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(bookingResponseDto, result.getFirst());
-        verify(bookingService).getOwnerBookings(userId, state);
+        verify(bookingService).getOwnerBookings(userId, state, null, null);
     }
 
     @Test
     void getUserBookings_ShouldUseDefaultState() {
-        when(bookingService.getUserBookings(eq(userId), eq("ALL")))
+        when(bookingService.getUserBookings(eq(userId), eq("ALL"), isNull(), isNull()))
                 .thenReturn(List.of(bookingResponseDto));
 
-        List<BookingResponseDto> result = bookingController.getUserBookings("ALL", userId);
+        List<BookingResponseDto> result = bookingController.getUserBookings("ALL", null, null, userId);
 
         assertNotNull(result);
-        verify(bookingService).getUserBookings(userId, "ALL");
+        verify(bookingService).getUserBookings(userId, "ALL", null, null);
     }
 
     @Test
     void getOwnerBookings_ShouldUseDefaultState() {
-        when(bookingService.getOwnerBookings(eq(userId), eq("ALL")))
+        when(bookingService.getOwnerBookings(eq(userId), eq("ALL"), isNull(), isNull()))
                 .thenReturn(List.of(bookingResponseDto));
 
-        List<BookingResponseDto> result = bookingController.getOwnerBookings("ALL", userId);
+        List<BookingResponseDto> result = bookingController.getOwnerBookings("ALL", null, null, userId);
 
         assertNotNull(result);
-        verify(bookingService).getOwnerBookings(userId, "ALL");
+        verify(bookingService).getOwnerBookings(userId, "ALL", null, null);
+    }
+
+    @Test
+    void getOwnerBookings_ShouldPassCursorAndSize() {
+        String after = "2030-01-01T12:00:00,5";
+        when(bookingService.getOwnerBookings(userId, "ALL", after, 10))
+                .thenReturn(List.of(bookingResponseDto));
+
+        List<BookingResponseDto> result = bookingController.getOwnerBookings("ALL", after, 10, userId);
+
+        assertEquals(1, result.size());
+        verify(bookingService).getOwnerBookings(userId, "ALL", after, 10);
     }
 }
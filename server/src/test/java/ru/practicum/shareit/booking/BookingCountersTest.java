@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingCountDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingUsersDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCountersTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingCounters bookingCounters;
+
+    private final Long bookerId = 1L;
+    private final Long ownerId = 2L;
+
+    @BeforeEach
+    void setUp() {
+        bookingCounters = new BookingCounters(bookingRepository, 60_000);
+    }
+
+    @Test
+    void reconcile_ShouldBuildCountersFromGroupedRows() {
+        when(bookingRepository.countByUsers()).thenReturn(List.of(
+                new BookingCountDto(bookerId, ownerId, BookingStatus.APPROVED, BookingPhase.PAST, 3L),
+                new BookingCountDto(bookerId, ownerId, BookingStatus.WAITING, BookingPhase.FUTURE, 2L),
+                new BookingCountDto(bookerId, 3L, BookingStatus.REJECTED, BookingPhase.CURRENT, 1L)));
+
+        bookingCounters.reconcile();
+
+        assertEquals(new BookingStatsDto(6, 1, 3, 2, 2, 1), bookingCounters.get(BookingRole.BOOKER, bookerId));
+        assertEquals(new BookingStatsDto(5, 0, 3, 2, 2, 0), bookingCounters.get(BookingRole.OWNER, ownerId));
+        assertEquals(new BookingStatsDto(), bookingCounters.get(BookingRole.OWNER, bookerId));
+    }
+
+    @Test
+    void incrementalUpdates_ShouldMatchReconciledCounters() {
+        bookingCounters.created(bookerId, ownerId, BookingPhase.FUTURE);
+        bookingCounters.created(bookerId, ownerId, BookingPhase.FUTURE);
+        bookingCounters.decided(bookerId, ownerId, BookingStatus.APPROVED);
+        bookingCounters.decided(bookerId, ownerId, BookingStatus.REJECTED);
+        when(bookingRepository.findUsersByIds(List.of(10L))).thenReturn(List.of(new BookingUsersDto(10L, bookerId, ownerId)));
+        bookingCounters.phaseChanged(List.of(10L), BookingPhase.CURRENT);
+        bookingCounters.phaseChanged(List.of(10L), BookingPhase.PAST);
+
+        BookingStatsDto incremental = bookingCounters.get(BookingRole.BOOKER, bookerId);
+        assertEquals(new BookingStatsDto(2, 0, 1, 1, 0, 1), incremental);
+        assertEquals(incremental, bookingCounters.get(BookingRole.OWNER, ownerId));
+
+        when(bookingRepository.countByUsers()).thenReturn(List.of(
+                new BookingCountDto(bookerId, ownerId, BookingStatus.APPROVED, BookingPhase.PAST, 1L),
+                new BookingCountDto(bookerId, ownerId, BookingStatus.REJECTED, BookingPhase.FUTURE, 1L)));
+        bookingCounters.reconcile();
+
+        assertEquals(incremental, bookingCounters.get(BookingRole.BOOKER, bookerId));
+    }
+
+    @Test
+    void phaseChanged_ShouldSkipEmptyBatch() {
+        bookingCounters.phaseChanged(List.of(), BookingPhase.PAST);
+
+        verifyNoInteractions(bookingRepository);
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingEventsTest {
+    private static final int BUFFER = 4;
+
+    @Mock
+    private ScheduledExecutorService executor;
+
+    private final User owner = new User(2L, "Owner", "owner@mail.ru");
+    private final User booker = new User(1L, "Booker", "booker@mail.ru");
+    private final Booking booking = new Booking(10L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+            new Item(5L, "Дрель", "Ударная", true, owner, null), booker, BookingStatus.WAITING);
+
+    @Test
+    void publish_ShouldSendEventToBookerAndOwner() throws IOException {
+        runTasksImmediately();
+        BookingEvents events = new BookingEvents(60_000, BUFFER, 30_000, 10_000, executor, executor);
+        SseEmitter bookerEmitter = mock(SseEmitter.class);
+        SseEmitter ownerEmitter = mock(SseEmitter.class);
+        SseEmitter strangerEmitter = mock(SseEmitter.class);
+        events.subscribe(booker.getId(), bookerEmitter);
+        events.subscribe(owner.getId(), ownerEmitter);
+        events.subscribe(99L, strangerEmitter);
+
+        events.publish(booking, BookingStatus.APPROVED);
+
+        verify(bookerEmitter).send(any(SseEmitter.SseEventBuilder.class));
+        verify(ownerEmitter).send(any(SseEmitter.SseEventBuilder.class));
+        verify(strangerEmitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void publish_ShouldDropSubscriberWhoseBufferOverflows() {
+        BookingEvents events = new BookingEvents(60_000, BUFFER, 30_000, 10_000, executor, executor);
+        SseEmitter slow = mock(SseEmitter.class);
+        events.subscribe(booker.getId(), slow);
+
+        // Исполнитель не запускает отправку, события копятся в очереди подписчика
+        for (int i = 0; i < BUFFER; i++) {
+            events.publish(booking, BookingStatus.WAITING);
+        }
+        assertEquals(1, events.subscriberCount(booker.getId()));
+        verify(executor, times(1)).execute(any());
+
+        events.publish(booking, BookingStatus.WAITING);
+
+        assertEquals(0, events.subscriberCount(booker.getId()));
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(2)).execute(tasks.capture());
+        tasks.getValue().run();
+        verify(slow).complete();
+    }
+
+    @Test
+    void publish_ShouldUnsubscribeWhenConnectionIsClosed() throws IOException {
+        runTasksImmediately();
+        BookingEvents events = new BookingEvents(60_000, BUFFER, 30_000, 10_000, executor, executor);
+        SseEmitter closed = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(closed).send(any(SseEmitter.SseEventBuilder.class));
+        events.subscribe(owner.getId(), closed);
+        events.subscribe(owner.getId(), mock(SseEmitter.class));
+
+        events.publish(booking, BookingStatus.REJECTED);
+
+        assertEquals(1, events.subscriberCount(owner.getId()));
+    }
+
+    @Test
+    void publish_ShouldKeepDeliveringWhileOtherSubscribersDoNotRead() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        BookingEvents events = new BookingEvents(60_000, BUFFER, 30_000, 100, scheduler,
+                Executors.newVirtualThreadPerTaskExecutor());
+        CountDownLatch neverRead = new CountDownLatch(1);
+        List<SseEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            SseEmitter emitter = mock(SseEmitter.class);
+            doAnswer(invocation -> {
+                neverRead.await();
+                return null;
+            }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+            events.subscribe(booker.getId(), emitter);
+            stalled.add(emitter);
+        }
+        SseEmitter reader = mock(SseEmitter.class);
+        events.subscribe(booker.getId(), reader);
+        events.start();
+        try {
+            events.publish(booking, BookingStatus.WAITING);
+            events.publish(booking, BookingStatus.APPROVED);
+
+            verify(reader, timeout(1_000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+            long deadline = System.currentTimeMillis() + 1_000;
+            while (events.subscriberCount(booker.getId()) > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, events.subscriberCount(booker.getId()));
+
+            // Эмиттер завершается, как только зависшая отправка вернёт управление
+            neverRead.countDown();
+            for (SseEmitter emitter : stalled) {
+                verify(emitter, timeout(1_000)).complete();
+            }
+            verify(reader, never()).complete();
+        } finally {
+            neverRead.countDown();
+            events.stop();
+        }
+    }
+
+    private void runTasksImmediately() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingHoldsTest {
+    private static final long NOW = 1_000_000;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private final BookingHolds holds = new BookingHolds(1000, 64, 10, 30, NOW);
+
+    @Test
+    void place_ShouldRejectOverlappingHoldOfAnotherBooker() {
+        holds.place(5L, 1L, MONDAY, MONDAY.plusDays(2), null, NOW);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> holds.place(5L, 2L, MONDAY.plusDays(1), MONDAY.plusDays(3), null, NOW));
+        assertDoesNotThrow(() -> holds.place(5L, 2L, MONDAY.plusDays(3), MONDAY.plusDays(4), null, NOW));
+        assertDoesNotThrow(() -> holds.place(6L, 2L, MONDAY, MONDAY.plusDays(2), null, NOW));
+        assertDoesNotThrow(() -> holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), null, NOW));
+    }
+
+    @Test
+    void hasConflict_ShouldIgnoreOwnAndExpiredHolds() {
+        holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), 5, NOW);
+
+        assertTrue(holds.hasConflict(5L, MONDAY, MONDAY.plusHours(1), 2L, NOW));
+        assertFalse(holds.hasConflict(5L, MONDAY, MONDAY.plusHours(1), 1L, NOW));
+        assertFalse(holds.hasConflict(5L, MONDAY, MONDAY.plusHours(1), 2L, NOW + TimeUnit.MINUTES.toMillis(5)));
+    }
+
+    @Test
+    void hasConflict_ShouldCheckEveryOccurrenceOfSeries() {
+        holds.place(5L, 1L, MONDAY.plusWeeks(2), MONDAY.plusWeeks(2).plusHours(2), null, NOW);
+        BookingRecurrence weekly = new BookingRecurrence(1L, MONDAY.plusHours(1), Duration.ofHours(2),
+                Duration.ofDays(7), 4);
+        BookingRecurrence shifted = new BookingRecurrence(1L, MONDAY.plusDays(1), Duration.ofHours(2),
+                Duration.ofDays(7), 4);
+
+        assertTrue(holds.hasConflict(5L, weekly, 2L, NOW));
+        assertFalse(holds.hasConflict(5L, weekly, 1L, NOW));
+        assertFalse(holds.hasConflict(5L, shifted, 2L, NOW));
+        assertFalse(holds.hasConflict(6L, weekly, 2L, NOW));
+    }
+
+    @Test
+    void expire_ShouldSweepHoldsThroughWheel() {
+        holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), 1, NOW);
+        holds.place(5L, 2L, MONDAY.plusDays(2), MONDAY.plusDays(3), 2, NOW);
+
+        holds.expire(NOW + TimeUnit.MINUTES.toMillis(1));
+        assertEquals(1, holds.size());
+
+        holds.expire(NOW + TimeUnit.MINUTES.toMillis(2));
+        assertEquals(0, holds.size());
+        assertDoesNotThrow(() -> holds.place(5L, 3L, MONDAY, MONDAY.plusDays(3), null, NOW));
+    }
+
+    @Test
+    void place_ShouldTakeExpiredHoldsOutOfConflicts() {
+        holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), 1, NOW);
+
+        assertDoesNotThrow(() -> holds.place(5L, 2L, MONDAY, MONDAY.plusDays(1), null,
+                NOW + TimeUnit.MINUTES.toMillis(1)));
+    }
+
+    @Test
+    void place_ShouldValidateTtl() {
+        assertThrows(IllegalArgumentException.class, () -> holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), 0, NOW));
+        assertThrows(IllegalArgumentException.class, () -> holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), 31, NOW));
+    }
+
+    @Test
+    void releaseCovered_ShouldDropHoldsOfBookerOverlappingBooking() {
+        BookingHolds.Hold covered = holds.place(5L, 1L, MONDAY, MONDAY.plusDays(1), null, NOW);
+        BookingHolds.Hold other = holds.place(5L, 1L, MONDAY.plusDays(5), MONDAY.plusDays(6), null, NOW);
+
+        holds.releaseCovered(5L, 1L, MONDAY, MONDAY.plusDays(1));
+
+        assertEquals(1, holds.size());
+        assertFalse(holds.hasConflict(5L, covered.start(), covered.end(), 2L, NOW));
+        assertTrue(holds.hasConflict(5L, other.start(), other.end(), 2L, NOW));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionMaintenanceTest {
+    private static final YearMonth NOW = YearMonth.of(2026, 10);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void missing_ShouldSkipExistingPartitions() {
+        List<YearMonth> months = BookingPartitionMaintenance.missing(
+                Set.of("bookings_p202610", "bookings_default"), YearMonth.of(2026, 9), YearMonth.of(2026, 12));
+
+        assertEquals(List.of(YearMonth.of(2026, 9), YearMonth.of(2026, 11), YearMonth.of(2026, 12)), months);
+    }
+
+    @Test
+    void expired_ShouldReturnOnlyMonthlyPartitionsOlderThanRetention() {
+        List<String> expired = BookingPartitionMaintenance.expired(
+                Set.of("bookings_p202301", "bookings_p202310", "bookings_default", "bookings_p202309"),
+                YearMonth.of(2023, 10));
+
+        assertEquals(List.of("bookings_p202301", "bookings_p202309"), expired);
+    }
+
+    @Test
+    void maintain_ShouldCreateMonthsAheadAndDetachExpired() {
+        BookingPartitionMaintenance maintenance = maintenance(2, 12);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("bookings")))
+                .thenReturn(List.of("bookings_default", "bookings_p202609", "bookings_p202610", "bookings_p202509"));
+        when(jdbcTemplate.queryForObject(contains("MIN(end_date)"), eq(LocalDateTime.class))).thenReturn(null);
+
+        maintenance.maintain(NOW);
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202611"));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_p202612"));
+        verify(jdbcTemplate, times(2)).execute(startsWith("CREATE TABLE"));
+        verify(jdbcTemplate).execute("ALTER TABLE bookings DETACH PARTITION bookings_p202509");
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), (Object) any(), (Object) any());
+    }
+
+    @Test
+    void maintain_ShouldMoveOldRowsOutOfDefaultPartition() {
+        BookingPartitionMaintenance maintenance = maintenance(0, 0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("bookings")))
+                .thenReturn(List.of("bookings_default", "bookings_p202609", "bookings_p202610"));
+        when(jdbcTemplate.queryForObject(contains("MIN(end_date)"), eq(LocalDateTime.class)))
+                .thenReturn(LocalDateTime.of(2026, 8, 15, 12, 0));
+        when(jdbcTemplate.update(anyString(), (Object) any(), (Object) any())).thenReturn(3);
+
+        maintenance.maintain(NOW);
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO bookings_p202608"), (Object) any(), (Object) any());
+        verify(jdbcTemplate).update(startsWith("DELETE FROM bookings_default"), (Object) any(), (Object) any());
+        verify(jdbcTemplate).execute(contains("ATTACH PARTITION bookings_p202608 FOR VALUES FROM ('2026-08-01"));
+        verify(jdbcTemplate, never()).execute(contains("DETACH"));
+    }
+
+    private BookingPartitionMaintenance maintenance(int monthsAhead, int retentionMonths) {
+        return new BookingPartitionMaintenance(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), monthsAhead, retentionMonths, 60_000);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPhaseSchedulerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingCounters bookingCounters;
+
+    @Test
+    void apply_ShouldUpdateCurrentBeforePastInBatches() {
+        BookingPhaseScheduler scheduler = new BookingPhaseScheduler(bookingRepository, bookingCounters, 1000, 64);
+        List<BookingPhaseScheduler.Transition> transitions = new ArrayList<>();
+        transitions.add(new BookingPhaseScheduler.Transition(1L, BookingPhase.PAST));
+        LongStream.rangeClosed(1, 1200)
+                .forEach(id -> transitions.add(new BookingPhaseScheduler.Transition(id, BookingPhase.CURRENT)));
+
+        when(bookingRepository.findIdsToMove(anyCollection(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Long>>getArgument(0)));
+
+        scheduler.apply(transitions);
+
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository, times(3)).updatePhase(anyCollection(), eq(BookingPhase.CURRENT));
+        inOrder.verify(bookingRepository).updatePhase(List.of(1L), BookingPhase.PAST);
+        verify(bookingCounters, times(3)).phaseChanged(anyCollection(), eq(BookingPhase.CURRENT));
+        verify(bookingCounters).phaseChanged(List.of(1L), BookingPhase.PAST);
+    }
+
+    @Test
+    void apply_ShouldMoveCountersOnlyForChangedBookings() {
+        BookingPhaseScheduler scheduler = new BookingPhaseScheduler(bookingRepository, bookingCounters, 1000, 64);
+        // Бронирование 2 уже переведено в PAST догоняющим обновлением, 3 — уже CURRENT
+        when(bookingRepository.findIdsToMove(List.of(1L, 2L, 3L), BookingPhase.CURRENT)).thenReturn(List.of(1L));
+        when(bookingRepository.findIdsToMove(List.of(2L), BookingPhase.PAST)).thenReturn(List.of());
+
+        scheduler.apply(List.of(
+                new BookingPhaseScheduler.Transition(1L, BookingPhase.CURRENT),
+                new BookingPhaseScheduler.Transition(2L, BookingPhase.CURRENT),
+                new BookingPhaseScheduler.Transition(3L, BookingPhase.CURRENT),
+                new BookingPhaseScheduler.Transition(2L, BookingPhase.PAST)));
+
+        verify(bookingRepository).updatePhase(List.of(1L), BookingPhase.CURRENT);
+        verify(bookingCounters).phaseChanged(List.of(1L), BookingPhase.CURRENT);
+        verify(bookingRepository, never()).updatePhase(anyCollection(), eq(BookingPhase.PAST));
+        verify(bookingCounters, never()).phaseChanged(anyCollection(), eq(BookingPhase.PAST));
+    }
+
+    @Test
+    void tick_ShouldCatchUpAfterFailedUpdate() throws InterruptedException {
+        BookingPhaseScheduler scheduler = new BookingPhaseScheduler(bookingRepository, bookingCounters, 1, 64);
+        scheduler.register(1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                BookingPhase.CURRENT);
+        when(bookingRepository.findIdsToMove(anyCollection(), any())).thenThrow(new IllegalStateException("БД недоступна"));
+        // Колесо с тиком в 1 мс должно продвинуться хотя бы на один тик
+        Thread.sleep(5);
+
+        scheduler.tick();
+        scheduler.tick();
+
+        verify(bookingRepository).markPast(any(LocalDateTime.class));
+        verify(bookingRepository).markCurrent(any(LocalDateTime.class));
+        verifyNoInteractions(bookingCounters);
+    }
+}
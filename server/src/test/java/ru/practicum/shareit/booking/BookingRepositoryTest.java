@@ -0,0 +1,276 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCountDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingUsersDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "repo-owner@mail.ru"));
+        booker = userRepository.save(new User(null, "Booker", "repo-booker@mail.ru"));
+        item = itemRepository.save(new Item(null, "Палатка", "Трёхместная", true, owner, null));
+        past = save(now.minusDays(5), now.minusDays(3));
+        current = save(now.minusDays(1), now.plusDays(1));
+        future = save(now.plusDays(3), now.plusDays(5));
+    }
+
+    @Test
+    void findBookings_ShouldSplitBookingsByBookerState() {
+        assertEquals(ids(current), findIds(BookingRole.BOOKER, booker, BookingState.CURRENT));
+        assertEquals(ids(past), findIds(BookingRole.BOOKER, booker, BookingState.PAST));
+        assertEquals(ids(future), findIds(BookingRole.BOOKER, booker, BookingState.FUTURE));
+        assertEquals(ids(future, current, past), findIds(BookingRole.BOOKER, booker, BookingState.ALL));
+        assertTrue(findIds(BookingRole.BOOKER, owner, BookingState.CURRENT).isEmpty());
+    }
+
+    @Test
+    void findBookings_ShouldSplitBookingsByOwnerState() {
+        Booking waiting = bookingRepository.save(
+                new Booking(null, now.plusDays(7), now.plusDays(8), item, booker, BookingStatus.WAITING));
+
+        assertEquals(ids(current), findIds(BookingRole.OWNER, owner, BookingState.CURRENT));
+        assertEquals(ids(past), findIds(BookingRole.OWNER, owner, BookingState.PAST));
+        assertEquals(ids(waiting, future), findIds(BookingRole.OWNER, owner, BookingState.FUTURE));
+        assertEquals(ids(waiting), findIds(BookingRole.OWNER, owner, BookingState.WAITING));
+        assertTrue(findIds(BookingRole.OWNER, owner, BookingState.REJECTED).isEmpty());
+        assertTrue(findIds(BookingRole.OWNER, booker, BookingState.PAST).isEmpty());
+    }
+
+    @Test
+    void findBookings_ShouldReturnBookerAndItemInProjection() {
+        BookingResponseDto dto = bookingRepository.findBookings(
+                BookingRole.OWNER, owner.getId(), BookingState.CURRENT, null, null).getFirst();
+
+        assertEquals(current.getStart(), dto.getStart());
+        assertEquals(BookingStatus.APPROVED, dto.getStatus());
+        assertEquals("repo-booker@mail.ru", dto.getBooker().getEmail());
+        assertEquals("Палатка", dto.getItem().getName());
+        assertNull(dto.getItem().getRequestId());
+    }
+
+    @Test
+    void findBookings_ShouldUseSingleQueryRegardlessOfResultSize() {
+        for (int i = 0; i < 50; i++) {
+            Item other = itemRepository.save(new Item(null, "Вещь " + i, "Описание", true, owner, null));
+            bookingRepository.save(new Booking(null, now.plusDays(10 + i), now.plusDays(11 + i), other,
+                    userRepository.save(new User(null, "Booker " + i, "repo-booker-" + i + "@mail.ru")),
+                    BookingStatus.WAITING));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            for (BookingState state : BookingState.values()) {
+                statistics.clear();
+                bookingRepository.findBookings(BookingRole.OWNER, owner.getId(), state, null, null);
+                assertEquals(1, statistics.getPrepareStatementCount(), "Состояние " + state);
+            }
+            statistics.clear();
+            assertEquals(53, bookingRepository.findBookings(
+                    BookingRole.OWNER, owner.getId(), BookingState.ALL, null, null).size());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void save_ShouldDerivePhaseFromDates() {
+        assertEquals(BookingPhase.PAST, past.getPhase());
+        assertEquals(BookingPhase.CURRENT, current.getPhase());
+        assertEquals(BookingPhase.FUTURE, future.getPhase());
+    }
+
+    @Test
+    void phaseUpdates_ShouldCatchUpMissedTransitionsAndNeverGoBack() {
+        Booking started = bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker,
+                BookingStatus.APPROVED, BookingPhase.FUTURE));
+        Booking finished = bookingRepository.save(new Booking(null, now.minusHours(3), now.minusHours(2), item, booker,
+                BookingStatus.APPROVED, BookingPhase.FUTURE));
+        entityManager.flush();
+
+        assertEquals(1, bookingRepository.markPast(now));
+        assertEquals(1, bookingRepository.markCurrent(now));
+        assertEquals(0, bookingRepository.updatePhase(List.of(past.getId(), finished.getId()), BookingPhase.CURRENT));
+        assertEquals(List.of(future.getId()), bookingRepository.findIdsToMove(
+                List.of(past.getId(), started.getId(), future.getId()), BookingPhase.CURRENT));
+        assertEquals(1, bookingRepository.updatePhase(List.of(future.getId()), BookingPhase.CURRENT));
+        assertEquals(0, bookingRepository.updatePhase(List.of(started.getId()), BookingPhase.CURRENT));
+        entityManager.clear();
+
+        assertEquals(BookingPhase.CURRENT, bookingRepository.findById(started.getId()).orElseThrow().getPhase());
+        assertEquals(BookingPhase.PAST, bookingRepository.findById(finished.getId()).orElseThrow().getPhase());
+        assertEquals(ids(future, current), findIds(BookingRole.BOOKER, booker, BookingState.CURRENT).stream()
+                .filter(id -> !id.equals(started.getId())).toList());
+        assertEquals(3, bookingRepository.findPendingPhaseIntervals().stream()
+                .filter(interval -> interval.getItemId().equals(item.getId())).count());
+    }
+
+    @Test
+    void insertAll_ShouldWriteBatchAndAssignIds() {
+        List<Booking> batch = List.of(
+                new Booking(null, now.plusDays(20), now.plusDays(21), item, booker,
+                        BookingStatus.WAITING, BookingPhase.FUTURE),
+                new Booking(null, now.plusDays(22), now.plusDays(23), item, booker,
+                        BookingStatus.WAITING, BookingPhase.FUTURE));
+
+        bookingRepository.insertAll(batch);
+        entityManager.clear();
+
+        assertNotNull(batch.get(0).getId());
+        assertTrue(batch.get(1).getId() > batch.get(0).getId());
+        Booking stored = bookingRepository.findById(batch.get(1).getId()).orElseThrow();
+        assertEquals(now.plusDays(22), stored.getStart());
+        assertEquals(BookingPhase.FUTURE, stored.getPhase());
+        assertEquals(booker.getId(), stored.getBooker().getId());
+    }
+
+    @Test
+    void updateStatuses_ShouldChangeOnlyWaitingBookings() {
+        Booking waiting = bookingRepository.save(
+                new Booking(null, now.plusDays(7), now.plusDays(8), item, booker, BookingStatus.WAITING));
+        entityManager.flush();
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        statuses.put(waiting.getId(), BookingStatus.APPROVED);
+        statuses.put(past.getId(), BookingStatus.REJECTED);
+
+        assertArrayEquals(new int[]{1, 0}, bookingRepository.updateStatuses(statuses));
+        entityManager.clear();
+
+        List<Booking> loaded = bookingRepository.findAllWithItemAndBooker(List.of(waiting.getId(), past.getId()));
+        assertEquals(2, loaded.size());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(past.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void countByUsers_ShouldGroupByStatusAndPhase() {
+        bookingRepository.save(new Booking(null, now.plusDays(7), now.plusDays(8), item, booker, BookingStatus.WAITING));
+        entityManager.flush();
+
+        List<BookingCountDto> counts = bookingRepository.countByUsers().stream()
+                .filter(row -> row.getOwnerId().equals(owner.getId()))
+                .toList();
+
+        assertEquals(4, counts.size());
+        assertTrue(counts.contains(new BookingCountDto(booker.getId(), owner.getId(),
+                BookingStatus.WAITING, BookingPhase.FUTURE, 1L)));
+        assertTrue(counts.contains(new BookingCountDto(booker.getId(), owner.getId(),
+                BookingStatus.APPROVED, BookingPhase.FUTURE, 1L)));
+        assertEquals(List.of(new BookingUsersDto(past.getId(), booker.getId(), owner.getId())),
+                bookingRepository.findUsersByIds(List.of(past.getId())));
+    }
+
+    @Test
+    void lastAndNextBookings_ShouldReturnApprovedBookingsOfItems() {
+        List<Long> itemIds = List.of(item.getId());
+
+        assertEquals(List.of(past), bookingRepository.findLastBookingsForItems(itemIds, now));
+        assertEquals(List.of(future), bookingRepository.findNextBookingsForItems(itemIds, now));
+        assertTrue(bookingRepository.findLastBookingsForItems(List.of(), now).isEmpty());
+    }
+
+    @Test
+    void findBookings_ShouldWalkThroughPagesWithCursor() {
+        Booking sameStart = save(future.getStart(), future.getEnd().plusDays(1));
+
+        List<BookingResponseDto> first = bookingRepository.findBookings(
+                BookingRole.OWNER, owner.getId(), BookingState.ALL, null, 2);
+        assertEquals(ids(sameStart, future), first.stream().map(BookingResponseDto::getId).toList());
+
+        BookingResponseDto last = first.getLast();
+        List<BookingResponseDto> second = bookingRepository.findBookings(BookingRole.OWNER, owner.getId(),
+                BookingState.ALL, new BookingCursor(last.getStart(), last.getId()), 2);
+        assertEquals(ids(current, past), second.stream().map(BookingResponseDto::getId).toList());
+
+        List<BookingResponseDto> futurePage = bookingRepository.findBookings(
+                BookingRole.BOOKER, booker.getId(), BookingState.FUTURE, null, 1);
+        assertEquals(ids(sameStart), futurePage.stream().map(BookingResponseDto::getId).toList());
+        assertTrue(bookingRepository.findBookings(
+                BookingRole.BOOKER, booker.getId(), BookingState.WAITING, null, 10).isEmpty());
+    }
+
+    @Test
+    void partitionedQueries_ShouldMatchPhaseColumnResults() {
+        BookingQueryRepositoryImpl partitioned = new BookingQueryRepositoryImpl("partitioned");
+        ReflectionTestUtils.setField(partitioned, "entityManager", entityManager);
+        entityManager.flush();
+
+        for (BookingState state : BookingState.values()) {
+            assertEquals(findIds(BookingRole.OWNER, owner, state),
+                    partitioned.findBookings(BookingRole.OWNER, owner.getId(), state, null, null).stream()
+                            .map(BookingResponseDto::getId)
+                            .toList(), "Состояние " + state);
+        }
+        List<Long> itemIds = List.of(item.getId());
+        assertEquals(List.of(past.getId()), partitioned.findLastBookingsForItems(itemIds, now).stream()
+                .map(Booking::getId).toList());
+        assertEquals(List.of(future.getId()), partitioned.findNextBookingsForItems(itemIds, now).stream()
+                .map(Booking::getId).toList());
+    }
+
+    private List<Long> findIds(BookingRole role, User user, BookingState state) {
+        return bookingRepository.findBookings(role, user.getId(), state, null, null).stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+
+    private static List<Long> ids(Booking... bookings) {
+        return Arrays.stream(bookings).map(Booking::getId).toList();
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, BookingStatus.APPROVED));
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSeriesServiceTest {
+
+    @Mock
+    private BookingSeriesRepository bookingSeriesRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BookingTimeline bookingTimeline;
+    @Mock
+    private BookingAdmission bookingAdmission;
+    @Mock
+    private BookingHolds bookingHolds;
+
+    @InjectMocks
+    private BookingSeriesService bookingSeriesService;
+
+    private final User owner = new User(2L, "Owner", "owner@mail.ru");
+    private final User booker = new User(1L, "Booker", "booker@mail.ru");
+    private final Item item = new Item(5L, "Дрель", "Ударная", true, owner, null);
+    private final LocalDateTime saturday = LocalDateTime.of(2030, 1, 5, 10, 0);
+
+    @Test
+    void createSeries_ShouldDeriveOccurrencesFromUntil() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingSeriesRepository.save(any(BookingSeries.class))).thenAnswer(invocation -> {
+            BookingSeries series = invocation.getArgument(0);
+            series.setId(7L);
+            return series;
+        });
+
+        BookingSeriesDto result = bookingSeriesService.createSeries(weekend(null, saturday.plusWeeks(3)), booker.getId());
+
+        assertEquals(4, result.getCount());
+        assertEquals(BookingStatus.WAITING, result.getStatus());
+        verify(bookingAdmission).lockItem(item.getId());
+        verify(bookingTimeline).hasOverlap(eq(item.getId()), any(BookingRecurrence.class));
+    }
+
+    @Test
+    void createSeries_ShouldRejectConflictingSeries() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingTimeline.hasOverlap(eq(item.getId()), any(BookingRecurrence.class))).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingSeriesService.createSeries(weekend(10, null), booker.getId()));
+        verify(bookingSeriesRepository, never()).save(any());
+    }
+
+    @Test
+    void createSeries_ShouldRejectSeriesOverAnotherUsersHold() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingHolds.hasConflict(eq(item.getId()), any(BookingRecurrence.class), eq(booker.getId())))
+                .thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingSeriesService.createSeries(weekend(10, null), booker.getId()));
+        verify(bookingSeriesRepository, never()).save(any());
+    }
+
+    @Test
+    void createSeries_ShouldValidateRule() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingSeriesService.createSeries(weekend(null, null), booker.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingSeriesService.createSeries(weekend(3, saturday.plusWeeks(3)), booker.getId()));
+        assertThrows(IllegalArgumentException.class, () -> bookingSeriesService.createSeries(
+                weekend(BookingSeriesService.OCCURRENCES_LIMIT + 1, null), booker.getId()));
+        BookingSeriesRequestDto tooLong = weekend(3, null);
+        tooLong.setFrequency(BookingFrequency.DAILY);
+        assertThrows(IllegalArgumentException.class, () -> bookingSeriesService.createSeries(tooLong, booker.getId()));
+    }
+
+    @Test
+    void approveSeries_ShouldAddSeriesToTimeline() {
+        BookingSeries series = series(BookingStatus.WAITING);
+        when(bookingSeriesRepository.findWithItemAndBooker(series.getId())).thenReturn(Optional.of(series));
+        when(bookingSeriesRepository.save(series)).thenReturn(series);
+
+        BookingSeriesDto result = bookingSeriesService.approveSeries(series.getId(), owner.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(bookingTimeline).addSeries(eq(item.getId()), any(BookingRecurrence.class));
+        assertThrows(SecurityException.class,
+                () -> bookingSeriesService.approveSeries(series.getId(), booker.getId(), true));
+    }
+
+    @Test
+    void approveSeries_ShouldRejectSeriesOverHold() {
+        BookingSeries series = series(BookingStatus.WAITING);
+        when(bookingSeriesRepository.findWithItemAndBooker(series.getId())).thenReturn(Optional.of(series));
+        when(bookingHolds.hasConflict(eq(item.getId()), any(BookingRecurrence.class), eq(booker.getId())))
+                .thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingSeriesService.approveSeries(series.getId(), owner.getId(), true));
+        assertEquals(BookingStatus.WAITING, series.getStatus());
+        verify(bookingTimeline, never()).addSeries(any(), any());
+    }
+
+    @Test
+    void getOccurrences_ShouldExpandOnlyInsideWindow() {
+        BookingSeries series = series(BookingStatus.APPROVED);
+        when(bookingSeriesRepository.findWithItemAndBooker(series.getId())).thenReturn(Optional.of(series));
+
+        List<BookingOccurrenceDto> occurrences = bookingSeriesService.getOccurrences(series.getId(), booker.getId(),
+                saturday.plusWeeks(2).plusDays(1), saturday.plusWeeks(4));
+
+        assertEquals(List.of(
+                new BookingOccurrenceDto(7L, 2, saturday.plusWeeks(2), saturday.plusWeeks(2).plusDays(1)),
+                new BookingOccurrenceDto(7L, 3, saturday.plusWeeks(3), saturday.plusWeeks(3).plusDays(1)),
+                new BookingOccurrenceDto(7L, 4, saturday.plusWeeks(4), saturday.plusWeeks(4).plusDays(1))),
+                occurrences);
+        assertThrows(SecurityException.class, () -> bookingSeriesService.getOccurrences(series.getId(), 99L,
+                saturday, saturday.plusWeeks(1)));
+    }
+
+    private BookingSeriesRequestDto weekend(Integer count, LocalDateTime until) {
+        return new BookingSeriesRequestDto(item.getId(), saturday, saturday.plusDays(1), BookingFrequency.WEEKLY,
+                null, count, until);
+    }
+
+    private BookingSeries series(BookingStatus status) {
+        return new BookingSeries(7L, saturday, saturday.plusDays(1), BookingFrequency.WEEKLY, 1, 52, null,
+                item, booker, status);
+    }
+}
@@ -8,17 +8,32 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingHoldRequestDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.exeption.PreconditionFailedException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +50,27 @@ class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingTimeline bookingTimeline;
+
+    @Mock
+    private BookingAdmission bookingAdmission;
+
+    @Mock
+    private BookingHolds bookingHolds;
+
+    @Mock
+    private BookingPhaseScheduler bookingPhaseScheduler;
+
+    @Mock
+    private BookingCounters bookingCounters;
+
+    @Mock
+    private BookingEvents bookingEvents;
+
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -64,7 +100,7 @@ class BookingServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.existsApprovedBookingsForItemBetweenDates(itemId, start, end)).thenReturn(false);
+        when(bookingTimeline.hasOverlap(itemId, start, end)).thenReturn(false);
         when(bookingRepository.save(any())).thenReturn(savedBooking);
 
         BookingResponseDto result = bookingService.createBooking(request, userId);
@@ -72,6 +108,10 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(bookingId, result.getId());
         assertEquals(BookingStatus.WAITING, result.getStatus());
+        verify(bookingPhaseScheduler).register(bookingId, start, end, null);
+        verify(bookingCounters).created(userId, ownerId, null);
+        verify(bookingEvents).publish(savedBooking, BookingStatus.WAITING);
+        verify(outbox).record(eq(OutboxEventType.BOOKING_CREATED), eq(bookingId), any(BookingEventDto.class));
     }
 
     @Test
@@ -143,8 +183,7 @@ class BookingServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.existsApprovedBookingsForItemBetweenDates(itemId, start, end))
-                .thenReturn(true);
+        when(bookingTimeline.hasOverlap(itemId, start, end)).thenReturn(true);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> bookingService.createBooking(request, userId));
@@ -152,6 +191,200 @@ class BookingServiceTest {
         assertEquals("Вещь занята в выбраные даты", exception.getMessage());
     }
 
+    @Test
+    void createBooking_ShouldThrowWhenDatesHeldByAnotherUser() {
+        BookingRequestDto request = new BookingRequestDto(itemId, start, end);
+        User user = new User(userId, "user@email.com", "User");
+        Item item = new Item(itemId, "Item", "Description", true, new User(ownerId, "owner@email.com", "Owner"), null);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingHolds.hasConflict(itemId, start, end, userId)).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookingService.createBooking(request, userId));
+
+        assertEquals("Выбранные даты удерживаются другим пользователем", exception.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createHold_ShouldPlaceHoldUnderItemLock() {
+        Item item = new Item(itemId, "Item", "Description", true, new User(ownerId, "owner@email.com", "Owner"), null);
+        BookingHolds.Hold hold = new BookingHolds.Hold(3L, itemId, userId, start, end, System.currentTimeMillis());
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingHolds.place(itemId, userId, start, end, 5)).thenReturn(hold);
+
+        BookingHoldDto result = bookingService.createHold(new BookingHoldRequestDto(itemId, start, end, 5), userId);
+
+        assertEquals(3L, result.getId());
+        assertEquals(hold.expires(), result.getExpires());
+        verify(bookingAdmission).lockItem(itemId);
+    }
+
+    @Test
+    void createHold_ShouldRejectZeroLengthHold() {
+        Item item = new Item(itemId, "Item", "Description", true, new User(ownerId, "owner@email.com", "Owner"), null);
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.createHold(new BookingHoldRequestDto(itemId, start, start, null), userId));
+        verifyNoInteractions(bookingHolds);
+    }
+
+    @Test
+    void createHold_ShouldThrowWhenDatesConflict() {
+        Item item = new Item(itemId, "Item", "Description", true, new User(ownerId, "owner@email.com", "Owner"), null);
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingTimeline.hasOverlap(itemId, start, end)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.createHold(new BookingHoldRequestDto(itemId, start, end, null), userId));
+        verifyNoInteractions(bookingHolds);
+    }
+
+    @Test
+    void releaseHold_ShouldThrowForForeignHold() {
+        BookingHolds.Hold hold = new BookingHolds.Hold(3L, itemId, userId, start, end, System.currentTimeMillis());
+        when(bookingHolds.find(3L)).thenReturn(Optional.of(hold));
+
+        assertThrows(SecurityException.class, () -> bookingService.releaseHold(3L, ownerId));
+        verify(bookingHolds, never()).release(any());
+    }
+
+    @Test
+    void createBookings_ShouldReportEachEntry() {
+        User booker = new User(userId, "Booker", "booker@email.com");
+        User owner = new User(ownerId, "Owner", "owner@email.com");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Item busyItem = new Item(5L, "Busy", "Description", true, owner, null);
+        List<BookingRequestDto> batch = List.of(
+                new BookingRequestDto(itemId, start, end),
+                new BookingRequestDto(99L, start, end),
+                new BookingRequestDto(itemId, end, end.plusDays(1)),
+                new BookingRequestDto(5L, start, end),
+                new BookingRequestDto(itemId, end.plusDays(2), end.plusDays(3)),
+                new BookingRequestDto(itemId, end, start));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(anySet())).thenReturn(List.of(item, busyItem));
+        when(bookingTimeline.hasOverlap(eq(itemId), any(), any())).thenReturn(false);
+        when(bookingTimeline.hasOverlap(5L, start, end)).thenReturn(true);
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(bookingRepository).insertAll(anyList());
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(batch, userId);
+
+        assertEquals(6, results.size());
+        assertEquals(100L, results.get(0).getBooking().getId());
+        assertEquals("Вещь не найдена", results.get(1).getError());
+        assertEquals("Пересекается с бронированием №0 в пакете", results.get(2).getError());
+        assertEquals("Вещь занята в выбраные даты", results.get(3).getError());
+        assertEquals(101L, results.get(4).getBooking().getId());
+        assertEquals(BookingStatus.WAITING, results.get(4).getBooking().getStatus());
+        assertEquals("Время начала должно быть раньше времени завершения", results.get(5).getError());
+        verify(bookingAdmission).lockItems(Set.of(itemId, 5L));
+        verify(bookingPhaseScheduler, times(2)).register(anyLong(), any(), any(), eq(BookingPhase.FUTURE));
+        verify(bookingCounters, times(2)).created(userId, ownerId, BookingPhase.FUTURE);
+    }
+
+    @Test
+    void createBookings_ShouldRejectZeroLengthEntryAndCreateOthers() {
+        User booker = new User(userId, "Booker", "booker@email.com");
+        Item item = new Item(itemId, "Item", "Description", true, new User(ownerId, "Owner", "owner@email.com"), null);
+        List<BookingRequestDto> batch = List.of(
+                new BookingRequestDto(itemId, start, end),
+                new BookingRequestDto(itemId, end.plusDays(1), end.plusDays(1)),
+                new BookingRequestDto(itemId, end.plusDays(2), end.plusDays(3)));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(anySet())).thenReturn(List.of(item));
+        when(bookingTimeline.hasOverlap(eq(itemId), any(), any())).thenReturn(false);
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            // Строка с началом, равным окончанию, нарушила бы chk_dates и уронила бы весь пакет
+            assertTrue(bookings.stream().allMatch(booking -> booking.getStart().isBefore(booking.getEnd())));
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(bookingRepository).insertAll(anyList());
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(batch, userId);
+
+        assertEquals(100L, results.get(0).getBooking().getId());
+        assertEquals("Время начала должно быть раньше времени завершения", results.get(1).getError());
+        assertEquals(101L, results.get(2).getBooking().getId());
+    }
+
+    @Test
+    void decideBookings_ShouldApproveEarliestOfOverlappingAndReportOthers() {
+        User owner = new User(ownerId, "Owner", "owner@email.com");
+        User booker = new User(userId, "Booker", "booker@email.com");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Item foreignItem = new Item(7L, "Foreign", "Description", true, booker, null);
+        Booking late = new Booking(10L, start.plusHours(12), end, item, booker, BookingStatus.WAITING);
+        Booking early = new Booking(11L, start, start.plusHours(12), item, booker, BookingStatus.WAITING);
+        Booking rejected = new Booking(12L, start, end, item, booker, BookingStatus.WAITING);
+        Booking done = new Booking(13L, start, end, item, booker, BookingStatus.APPROVED);
+        Booking foreign = new Booking(14L, start, end, foreignItem, owner, BookingStatus.WAITING);
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(10L, true),
+                new BookingDecisionDto(11L, true),
+                new BookingDecisionDto(12L, false),
+                new BookingDecisionDto(13L, false),
+                new BookingDecisionDto(14L, true),
+                new BookingDecisionDto(99L, true),
+                new BookingDecisionDto(12L, true));
+
+        when(bookingRepository.findAllWithItemAndBooker(anySet()))
+                .thenReturn(List.of(late, early, rejected, done, foreign));
+        when(bookingTimeline.hasOverlap(eq(itemId), any(), any())).thenReturn(false);
+        when(bookingRepository.updateStatuses(anyMap())).thenReturn(new int[]{1, 1});
+
+        List<BookingBatchResultDto> results = bookingService.decideBookings(decisions, ownerId);
+
+        assertEquals("Вещь занята в выбраные даты", results.get(0).getError());
+        assertEquals(BookingStatus.APPROVED, results.get(1).getBooking().getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(2).getBooking().getStatus());
+        assertEquals("Бронирование уже в работе", results.get(3).getError());
+        assertEquals("Только владелец вещи может одобрить пронирование", results.get(4).getError());
+        assertEquals("Бронирование не найдено", results.get(5).getError());
+        assertEquals("Повторное решение по бронированию", results.get(6).getError());
+        verify(bookingRepository).updateStatuses(Map.of(12L, BookingStatus.REJECTED, 11L, BookingStatus.APPROVED));
+        verify(bookingAdmission).lockItems(Set.of(itemId));
+        verify(bookingTimeline).add(itemId, 11L, early.getStart(), early.getEnd());
+        verify(bookingCounters).decided(userId, ownerId, BookingStatus.APPROVED);
+        verify(bookingEvents).publish(early, BookingStatus.APPROVED);
+        verify(outbox).record(eq(OutboxEventType.BOOKING_APPROVED), eq(11L), any(BookingEventDto.class));
+        verify(outbox).record(eq(OutboxEventType.BOOKING_REJECTED), eq(12L), any(BookingEventDto.class));
+        verify(bookingCounters).decided(userId, ownerId, BookingStatus.REJECTED);
+        assertEquals(BookingStatus.WAITING, early.getStatus());
+    }
+
+    @Test
+    void createBookings_ShouldRejectOversizedBatchAndUnknownBooker() {
+        List<BookingRequestDto> oversized = Collections.nCopies(BookingService.BATCH_LIMIT + 1,
+                new BookingRequestDto(itemId, start, end));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(oversized, userId));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.createBookings(List.of(new BookingRequestDto(itemId, start, end)), userId));
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void approveBooking_ShouldApprove() {
         User owner = new User(ownerId, "owner@email.com", "Owner");
@@ -170,11 +403,35 @@ class BookingServiceTest {
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        BookingResponseDto result = bookingService.approveBooking(bookingId, ownerId, true);
+        BookingResponseDto result = bookingService.approveBooking(bookingId, ownerId, true, null);
 
         assertNotNull(result);
         assertEquals(BookingStatus.APPROVED, result.getStatus());
         verify(bookingRepository).save(booking);
+        verify(bookingTimeline).add(itemId, bookingId, start, end);
+    }
+
+    @Test
+    void approveBooking_ShouldRejectStaleIfMatchVersion() {
+        User owner = new User(ownerId, "owner@email.com", "Owner");
+        User booker = new User(userId, "booker@email.com", "Booker");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .version(2L)
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.approveBooking(bookingId, ownerId, true, 1L));
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(bookingTimeline);
     }
 
     @Test
@@ -195,11 +452,151 @@ class BookingServiceTest {
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        BookingResponseDto result = bookingService.approveBooking(bookingId, ownerId, false);
+        BookingResponseDto result = bookingService.approveBooking(bookingId, ownerId, false, null);
 
         assertNotNull(result);
         assertEquals(BookingStatus.REJECTED, result.getStatus());
         verify(bookingRepository).save(booking);
+        verify(bookingTimeline, never()).add(any(), any(), any(), any());
+        verify(bookingCounters).decided(userId, ownerId, BookingStatus.REJECTED);
+        verify(bookingEvents).publish(booking, BookingStatus.REJECTED);
+        verify(outbox).record(OutboxEventType.BOOKING_REJECTED, bookingId,
+                BookingMapper.toBookingEventDto(booking, BookingStatus.REJECTED));
+    }
+
+    @Test
+    void cancelBooking_ShouldReleaseApprovedInterval() {
+        User owner = new User(ownerId, "owner@email.com", "Owner");
+        User booker = new User(userId, "booker@email.com", "Booker");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookingResponseDto result = bookingService.cancelBooking(bookingId, userId, null);
+
+        assertEquals(BookingStatus.CANCELLED, result.getStatus());
+        verify(bookingTimeline).remove(itemId, bookingId);
+        verify(bookingCounters, never()).decided(any(), any(), any());
+        verify(bookingEvents).publish(booking, BookingStatus.CANCELLED);
+        verify(outbox).record(OutboxEventType.BOOKING_CANCELLED, bookingId,
+                BookingMapper.toBookingEventDto(booking, BookingStatus.CANCELLED));
+    }
+
+    @Test
+    void cancelBooking_ShouldThrowWhenNotBooker() {
+        User owner = new User(ownerId, "owner@email.com", "Owner");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(new User(userId, "booker@email.com", "Booker"))
+                .status(BookingStatus.WAITING)
+                .build();
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(SecurityException.class, () -> bookingService.cancelBooking(bookingId, ownerId, null));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelBooking_ShouldThrowWhenAlreadyFinished() {
+        Item item = new Item(itemId, "Item", "Description", true, new User(ownerId, "owner@email.com", "Owner"), null);
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .item(item)
+                .booker(new User(userId, "booker@email.com", "Booker"))
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelBooking(bookingId, userId, null));
+        verify(outbox, never()).record(any(), any(), any());
+    }
+
+    @Test
+    void subscribe_ShouldCheckUserBeforeOpeningStream() {
+        SseEmitter emitter = new SseEmitter();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingEvents.subscribe(userId)).thenReturn(emitter);
+
+        assertSame(emitter, bookingService.subscribe(userId));
+
+        when(userRepository.existsById(ownerId)).thenReturn(false);
+        assertThrows(EntityNotFoundException.class, () -> bookingService.subscribe(ownerId));
+        verify(bookingEvents, never()).subscribe(ownerId);
+    }
+
+    @Test
+    void getStats_ShouldReturnCountersOfExistingUser() {
+        BookingStatsDto stats = new BookingStatsDto(3, 1, 1, 1, 1, 0);
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingCounters.get(BookingRole.OWNER, ownerId)).thenReturn(stats);
+
+        assertEquals(stats, bookingService.getStats(BookingRole.OWNER, ownerId));
+    }
+
+    @Test
+    void getStats_ShouldThrowWhenUserNotFound() {
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> bookingService.getStats(BookingRole.BOOKER, userId));
+        verifyNoInteractions(bookingCounters);
+    }
+
+    @Test
+    void approveBooking_ShouldThrowWhenDatesConflict() {
+        User owner = new User(ownerId, "owner@email.com", "Owner");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(new User(userId, "booker@email.com", "Booker"))
+                .status(BookingStatus.WAITING)
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingTimeline.hasOverlap(itemId, start, end)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.approveBooking(bookingId, ownerId, true, null));
+        verify(bookingAdmission).lockItem(itemId);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveBooking_ShouldThrowWhenDatesHeldByAnotherUser() {
+        User owner = new User(ownerId, "owner@email.com", "Owner");
+        Item item = new Item(itemId, "Item", "Description", true, owner, null);
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(new User(userId, "booker@email.com", "Booker"))
+                .status(BookingStatus.WAITING)
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingHolds.hasConflict(itemId, start, end, userId)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.approveBooking(bookingId, ownerId, true, null));
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -207,7 +604,7 @@ class BookingServiceTest {
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.approveBooking(bookingId, ownerId, true));
+                () -> bookingService.approveBooking(bookingId, ownerId, true, null));
     }
 
     @Test
@@ -221,7 +618,7 @@ class BookingServiceTest {
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(SecurityException.class,
-                () -> bookingService.approveBooking(bookingId, ownerId, true));
+                () -> bookingService.approveBooking(bookingId, ownerId, true, null));
     }
 
     @Test
@@ -235,7 +632,7 @@ class BookingServiceTest {
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.approveBooking(bookingId, ownerId, true));
+                () -> bookingService.approveBooking(bookingId, ownerId, true, null));
     }
 
     @Test
@@ -278,44 +675,18 @@ class BookingServiceTest {
     @ParameterizedTest
     @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
     void getUserBookings_ShouldReturnForEachState(String state) {
-        User booker = new User(userId, "booker@email.com", "Booker");
-        Item item = new Item(itemId, "Item", "Description", true,
-                new User(ownerId, "owner@email.com", "Owner"), null);
-        Booking booking = new Booking(bookingId, start, end, item, booker, BookingStatus.WAITING);
+        BookingResponseDto dto = new BookingResponseDto(bookingId, start, end, userId, "Booker", "booker@email.com",
+                itemId, "Item", "Description", true, null, BookingStatus.WAITING);
 
-        LocalDateTime fixedNow = LocalDateTime.now();
         when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), eq(userId), eq(BookingState.valueOf(state)),
+                isNull(), isNull())).thenReturn(List.of(dto));
 
-        switch (state) {
-            case "ALL":
-                doReturn(List.of(booking)).when(bookingRepository).findByBookerIdOrderByStartDesc(userId);
-                break;
-            case "CURRENT":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findCurrentBookingsByBooker(eq(userId), any(LocalDateTime.class));
-                break;
-            case "PAST":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findPastBookingsByBooker(eq(userId), any(LocalDateTime.class));
-                break;
-            case "FUTURE":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findFutureBookingsByBooker(eq(userId), any(LocalDateTime.class));
-                break;
-            case "WAITING":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-                break;
-            case "REJECTED":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-                break;
-        }
-
-        List<BookingResponseDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingResponseDto> result = bookingService.getUserBookings(userId, state, null, null);
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
+        assertEquals(List.of(dto), result);
+        assertEquals(userId, result.getFirst().getBooker().getId());
+        assertEquals(itemId, result.getFirst().getItem().getId());
     }
 
     @Test
@@ -323,7 +694,7 @@ class BookingServiceTest {
         when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.getUserBookings(userId, "ALL"));
+                () -> bookingService.getUserBookings(userId, "ALL", null, null));
     }
 
     @Test
@@ -331,51 +702,22 @@ class BookingServiceTest {
         when(userRepository.existsById(userId)).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getUserBookings(userId, "INVALID"));
+                () -> bookingService.getUserBookings(userId, "INVALID", null, null));
     }
 
     @ParameterizedTest
     @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
     void getOwnerBookings_ShouldReturnForEachState(String state) {
-        User owner = new User(ownerId, "owner@email.com", "Owner");
-        Item item = new Item(itemId, "Item", "Description", true, owner, null);
-        Booking booking = new Booking(bookingId, start, end, item,
-                new User(userId, "booker@email.com", "Booker"),
-                BookingStatus.WAITING);
+        BookingResponseDto dto = new BookingResponseDto(bookingId, start, end, userId, "Booker", "booker@email.com",
+                itemId, "Item", "Description", true, null, BookingStatus.WAITING);
 
-        LocalDateTime fixedNow = LocalDateTime.now(); // Фиксируем время для теста
         when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), eq(ownerId), eq(BookingState.valueOf(state)),
+                isNull(), isNull())).thenReturn(List.of(dto));
 
-        switch (state) {
-            case "ALL":
-                doReturn(List.of(booking)).when(bookingRepository).findByItemOwnerIdOrderByStartDesc(ownerId);
-                break;
-            case "CURRENT":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findCurrentBookingsByOwner(eq(ownerId), any(LocalDateTime.class));
-                break;
-            case "PAST":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findPastBookingsByOwner(eq(ownerId), any(LocalDateTime.class));
-                break;
-            case "FUTURE":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findFutureBookingsByOwner(eq(ownerId), any(LocalDateTime.class));
-                break;
-            case "WAITING":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING);
-                break;
-            case "REJECTED":
-                doReturn(List.of(booking)).when(bookingRepository)
-                        .findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED);
-                break;
-        }
-
-        List<BookingResponseDto> result = bookingService.getOwnerBookings(ownerId, state);
+        List<BookingResponseDto> result = bookingService.getOwnerBookings(ownerId, state, null, null);
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
+        assertEquals(List.of(dto), result);
     }
 
     @Test
@@ -383,7 +725,7 @@ class BookingServiceTest {
         when(userRepository.existsById(ownerId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.getOwnerBookings(ownerId, "ALL"));
+                () -> bookingService.getOwnerBookings(ownerId, "ALL", null, null));
     }
 
     @Test
@@ -391,6 +733,42 @@ class BookingServiceTest {
         when(userRepository.existsById(ownerId)).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getOwnerBookings(ownerId, "INVALID"));
+                () -> bookingService.getOwnerBookings(ownerId, "INVALID", null, null));
+    }
+
+    @Test
+    void getUserBookings_ShouldUseKeysetPageWhenCursorGiven() {
+        BookingResponseDto dto = new BookingResponseDto(bookingId, start, end, userId, "Booker", "booker@email.com",
+                itemId, "Item", "Description", true, null, BookingStatus.WAITING);
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 7L);
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), eq(userId), eq(BookingState.WAITING),
+                eq(cursor), eq(10))).thenReturn(List.of(dto));
+
+        List<BookingResponseDto> result = bookingService.getUserBookings(userId, "waiting",
+                "2030-01-01T12:00:00,7", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(bookingId, result.getFirst().getId());
+    }
+
+    @Test
+    void getOwnerBookings_ShouldUseFirstPageWhenOnlySizeGiven() {
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), eq(ownerId), eq(BookingState.ALL),
+                isNull(), eq(5))).thenReturn(List.of());
+
+        assertTrue(bookingService.getOwnerBookings(ownerId, "ALL", null, 5).isEmpty());
+    }
+
+    @Test
+    void getOwnerBookings_ShouldThrowWhenCursorInvalid() {
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getOwnerBookings(ownerId, "ALL", "вчера", 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getOwnerBookings(ownerId, "ALL", null, 0));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,289 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingSummary;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTimelineTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingSeriesRepository bookingSeriesRepository;
+
+    private BookingTimeline bookingTimeline;
+
+    private final Long itemId = 1L;
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findIntervalsByStatus(BookingStatus.APPROVED)).thenReturn(List.of(
+                new BookingIntervalDto(1L, itemId, base.plusDays(10), base.plusDays(12)),
+                new BookingIntervalDto(2L, itemId, base, base.plusDays(2)),
+                new BookingIntervalDto(3L, 2L, base, base.plusDays(30))));
+        bookingTimeline = new BookingTimeline(bookingRepository, bookingSeriesRepository);
+        bookingTimeline.warmUp();
+    }
+
+    @Test
+    void hasOverlap_ShouldDetectIntersections() {
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(1), base.plusDays(3)));
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(11), base.plusDays(11).plusHours(1)));
+        assertFalse(bookingTimeline.hasOverlap(itemId, base.plusDays(3), base.plusDays(9)));
+        assertFalse(bookingTimeline.hasOverlap(itemId, base.plusDays(13), base.plusDays(14)));
+    }
+
+    @Test
+    void hasOverlap_ShouldDetectEnclosingBooking() {
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.minusDays(1), base.plusDays(20)));
+        assertTrue(bookingTimeline.hasOverlap(2L, base.plusDays(5), base.plusDays(6)));
+    }
+
+    @Test
+    void hasOverlap_ShouldTreatTouchingBoundsAsConflict() {
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(2), base.plusDays(3)));
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(9), base.plusDays(10)));
+    }
+
+    @Test
+    void hasOverlap_ShouldReturnFalseForUnknownItem() {
+        assertFalse(bookingTimeline.hasOverlap(99L, base, base.plusDays(100)));
+    }
+
+    @Test
+    void add_ShouldMakeIntervalVisible() {
+        assertFalse(bookingTimeline.hasOverlap(itemId, base.plusDays(5), base.plusDays(6)));
+
+        bookingTimeline.add(itemId, 4L, base.plusDays(4), base.plusDays(7));
+
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(5), base.plusDays(6)));
+        assertFalse(bookingTimeline.hasOverlap(99L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void remove_ShouldDropInterval() {
+        bookingTimeline.remove(itemId, 2L);
+
+        assertFalse(bookingTimeline.hasOverlap(itemId, base, base.plusDays(2)));
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(10), base.plusDays(11)));
+    }
+
+    @Test
+    void add_ShouldReplaceExistingIntervalWithSameId() {
+        bookingTimeline.add(itemId, 2L, base.plusDays(4), base.plusDays(5));
+
+        assertFalse(bookingTimeline.hasOverlap(itemId, base, base.plusDays(2)));
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(4), base.plusDays(4)));
+    }
+
+    @Test
+    void freeIntervals_ShouldReturnGapsBetweenMergedBookings() {
+        bookingTimeline.add(itemId, 4L, base.plusDays(1), base.plusDays(4));
+
+        assertEquals(List.of(
+                        new FreeIntervalDto(base.minusDays(1), base.minusSeconds(1)),
+                        new FreeIntervalDto(base.plusDays(4).plusSeconds(1), base.plusDays(10).minusSeconds(1)),
+                        new FreeIntervalDto(base.plusDays(12).plusSeconds(1), base.plusDays(20))),
+                bookingTimeline.freeIntervals(itemId, base.minusDays(1), base.plusDays(20)));
+    }
+
+    @Test
+    void freeIntervals_ShouldClipToRequestedWindow() {
+        assertEquals(List.of(new FreeIntervalDto(base.plusDays(2).plusSeconds(1), base.plusDays(10).minusSeconds(1))),
+                bookingTimeline.freeIntervals(itemId, base.plusDays(1), base.plusDays(11)));
+        assertTrue(bookingTimeline.freeIntervals(2L, base.plusDays(1), base.plusDays(3)).isEmpty());
+        assertEquals(List.of(new FreeIntervalDto(base, base.plusDays(1))),
+                bookingTimeline.freeIntervals(99L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void freeIntervals_ShouldBeBookableAsReturned() {
+        bookingTimeline.addSeries(itemId, weekly(5L, base.plusDays(20), 3));
+        List<FreeIntervalDto> gaps = bookingTimeline.freeIntervals(itemId, base.minusDays(1), base.plusDays(40));
+
+        assertEquals(6, gaps.size());
+        for (FreeIntervalDto gap : gaps) {
+            assertFalse(bookingTimeline.hasOverlap(itemId, gap.getStart(), gap.getEnd()), gap.toString());
+        }
+    }
+
+    @Test
+    void freeIntervals_ShouldLeaveGapBetweenBookingsBookable() {
+        bookingTimeline.add(7L, 10L, base, base.plusDays(1));
+        bookingTimeline.add(7L, 11L, base.plusDays(3), base.plusDays(4));
+
+        List<FreeIntervalDto> gaps = bookingTimeline.freeIntervals(7L, base, base.plusDays(4));
+        assertEquals(1, gaps.size());
+        FreeIntervalDto gap = gaps.get(0);
+        assertFalse(bookingTimeline.hasOverlap(7L, gap.getStart(), gap.getEnd()));
+
+        bookingTimeline.add(7L, 12L, gap.getStart(), gap.getEnd());
+        assertTrue(bookingTimeline.freeIntervals(7L, base, base.plusDays(4)).isEmpty());
+    }
+
+    @Test
+    void summary_ShouldFollowPhaseTransitionsAndWrites() {
+        // Бронирования вещи: 2 — [base, base+2d], 1 — [base+10d, base+12d]
+        assertEquals(new BookingSummary(null, base), bookingTimeline.summary(itemId, base.minusDays(1)));
+        assertEquals(new BookingSummary(null, base.plusDays(10)), bookingTimeline.summary(itemId, base.plusDays(1)));
+        // окончание ещё не прошло
+        assertEquals(new BookingSummary(null, base.plusDays(10)), bookingTimeline.summary(itemId, base.plusDays(2)));
+        assertEquals(new BookingSummary(base, base.plusDays(10)),
+                bookingTimeline.summary(itemId, base.plusDays(2).plusSeconds(1)));
+        assertEquals(new BookingSummary(base, null), bookingTimeline.summary(itemId, base.plusDays(11)));
+        assertEquals(new BookingSummary(base.plusDays(10), null), bookingTimeline.summary(itemId, base.plusDays(13)));
+
+        bookingTimeline.add(itemId, 4L, base.plusDays(14), base.plusDays(15));
+        assertEquals(new BookingSummary(base.plusDays(10), base.plusDays(14)),
+                bookingTimeline.summary(itemId, base.plusDays(13)));
+        bookingTimeline.remove(itemId, 1L);
+        assertEquals(new BookingSummary(base, base.plusDays(14)), bookingTimeline.summary(itemId, base.plusDays(13)));
+        assertEquals(BookingSummary.EMPTY, bookingTimeline.summary(99L, base));
+    }
+
+    @Test
+    void summary_ShouldMatchBruteForceOnManyBookings() {
+        Random random = new Random(7);
+        List<long[]> bookings = new ArrayList<>();
+        for (long id = 10; id < 1010; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(400);
+            bookings.add(new long[]{start, end});
+            bookingTimeline.add(7L, id, base.plusMinutes(start), base.plusMinutes(end));
+        }
+
+        // Моменты идут по возрастанию, как реальное время: кэш снимка переиспользуется между ними
+        for (long moment = 0; moment < 101_000; moment += 1 + random.nextInt(300)) {
+            long now = moment;
+            LocalDateTime expectedLast = bookings.stream()
+                    .filter(b -> b[1] < now)
+                    .max(Comparator.<long[]>comparingLong(b -> b[1]).thenComparingLong(b -> b[0]))
+                    .map(b -> base.plusMinutes(b[0]))
+                    .orElse(null);
+            LocalDateTime expectedNext = bookings.stream()
+                    .filter(b -> b[0] > now)
+                    .min(Comparator.comparingLong(b -> b[0]))
+                    .map(b -> base.plusMinutes(b[0]))
+                    .orElse(null);
+
+            assertEquals(new BookingSummary(expectedLast, expectedNext),
+                    bookingTimeline.summary(7L, base.plusMinutes(now)), "Момент " + now);
+        }
+    }
+
+    @Test
+    void series_ShouldBlockOccurrencesAndExpandOnlyInsideWindow() {
+        // Каждую неделю с base+20d на сутки, 100 повторений
+        bookingTimeline.addSeries(itemId, weekly(5L, base.plusDays(20), 100));
+
+        assertTrue(bookingTimeline.hasOverlap(itemId, base.plusDays(27).plusHours(3), base.plusDays(27).plusHours(4)));
+        assertFalse(bookingTimeline.hasOverlap(itemId, base.plusDays(29), base.plusDays(33)));
+        assertFalse(bookingTimeline.hasOverlap(itemId, base.plusDays(20 + 7 * 100), base.plusDays(20 + 7 * 100 + 1)));
+        assertEquals(List.of(
+                        new FreeIntervalDto(base.plusDays(12).plusSeconds(1), base.plusDays(20).minusSeconds(1)),
+                        new FreeIntervalDto(base.plusDays(21).plusSeconds(1), base.plusDays(27).minusSeconds(1)),
+                        new FreeIntervalDto(base.plusDays(28).plusSeconds(1), base.plusDays(30))),
+                bookingTimeline.freeIntervals(itemId, base.plusDays(11), base.plusDays(30)));
+        assertEquals(new BookingSummary(base.plusDays(20), base.plusDays(27)),
+                bookingTimeline.summary(itemId, base.plusDays(22)));
+        assertEquals(new BookingSummary(base.plusDays(10), base.plusDays(27)),
+                bookingTimeline.summary(itemId, base.plusDays(20).plusHours(1)));
+    }
+
+    @Test
+    void hasOverlap_ShouldCheckWholeSeriesAgainstBookingsAndSeries() {
+        assertTrue(bookingTimeline.hasOverlap(itemId, weekly(5L, base.minusDays(5), 3)));
+        assertFalse(bookingTimeline.hasOverlap(itemId, weekly(5L, base.plusDays(3), 1)));
+        assertFalse(bookingTimeline.hasOverlap(99L, weekly(5L, base, 10)));
+
+        bookingTimeline.addSeries(99L, weekly(5L, base, 10));
+        assertTrue(bookingTimeline.hasOverlap(99L, weekly(6L, base.plusDays(63), 5)));
+        assertFalse(bookingTimeline.hasOverlap(99L, weekly(6L, base.plusDays(2), 20)));
+        assertFalse(bookingTimeline.hasOverlap(99L, weekly(6L, base.plusDays(70), 5)));
+    }
+
+    @Test
+    void hasOverlap_ShouldMatchBruteForceForRandomSeries() {
+        Random random = new Random(11);
+        List<long[]> busy = new ArrayList<>();
+        for (long id = 10; id < 510; id++) {
+            long start = random.nextInt(200_000);
+            long end = start + 1 + random.nextInt(60);
+            busy.add(new long[]{start, end});
+            bookingTimeline.add(7L, id, base.plusMinutes(start), base.plusMinutes(end));
+        }
+
+        for (int probe = 0; probe < 300; probe++) {
+            long start = random.nextInt(200_000);
+            long step = 1440L * (1 + random.nextInt(7));
+            long duration = 1 + random.nextInt(30);
+            int count = 1 + random.nextInt(100);
+            boolean expected = false;
+            for (int k = 0; k < count && !expected; k++) {
+                long from = start + k * step;
+                long to = from + duration;
+                expected = busy.stream().anyMatch(b -> b[0] <= to && b[1] >= from);
+            }
+
+            BookingRecurrence recurrence = new BookingRecurrence(1L, base.plusMinutes(start),
+                    Duration.ofMinutes(duration), Duration.ofMinutes(step), count);
+            assertEquals(expected, bookingTimeline.hasOverlap(7L, recurrence), "Проба " + probe);
+        }
+    }
+
+    @Test
+    void freeIntervals_ShouldMatchBruteForceOnManyBookings() {
+        Random random = new Random(42);
+        List<long[]> busy = new ArrayList<>();
+        for (long id = 10; id < 3010; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(40);
+            busy.add(new long[]{start, end});
+            bookingTimeline.add(7L, id, base.plusMinutes(start), base.plusMinutes(end));
+        }
+
+        for (int probe = 0; probe < 200; probe++) {
+            long from = random.nextInt(100_000);
+            long to = from + 1 + random.nextInt(2_000);
+            List<FreeIntervalDto> expected = new ArrayList<>();
+            LocalDateTime cursor = base.plusMinutes(from);
+            for (long[] interval : busy.stream().sorted(Comparator.comparingLong(i -> i[0])).toList()) {
+                if (interval[1] < from || interval[0] > to) {
+                    continue;
+                }
+                LocalDateTime gapEnd = base.plusMinutes(interval[0]).minusSeconds(1);
+                if (cursor.isBefore(gapEnd)) {
+                    expected.add(new FreeIntervalDto(cursor, gapEnd));
+                }
+                LocalDateTime next = base.plusMinutes(interval[1]).plusSeconds(1);
+                cursor = next.isAfter(cursor) ? next : cursor;
+            }
+            if (cursor.isBefore(base.plusMinutes(to))) {
+                expected.add(new FreeIntervalDto(cursor, base.plusMinutes(to)));
+            }
+
+            assertEquals(expected, bookingTimeline.freeIntervals(7L, base.plusMinutes(from), base.plusMinutes(to)));
+        }
+    }
+
+    private static BookingRecurrence weekly(long id, LocalDateTime start, int count) {
+        return new BookingRecurrence(id, start, Duration.ofDays(1), Duration.ofDays(7), count);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingTimingWheelTest {
+    private static final long TICK = 100;
+
+    private final BookingTimingWheel<Long> wheel = new BookingTimingWheel<>(TICK, 8, 10_000);
+
+    @Test
+    void advance_ShouldReturnTransitionsWhenDeadlineReached() {
+        wheel.schedule(1L, 10_250);
+        wheel.schedule(2L, 10_400);
+
+        assertTrue(wheel.advance(10_250).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(10_300));
+        assertTrue(wheel.advance(10_399).isEmpty());
+        assertEquals(List.of(2L), wheel.advance(10_400));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldKeepTransitionsOfLaterRounds() {
+        wheel.schedule(1L, 10_100 + 8 * TICK);
+
+        assertTrue(wheel.advance(10_100).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(10_100 + 8 * TICK));
+    }
+
+    @Test
+    void advance_ShouldCatchUpAfterLongPause() {
+        for (long id = 0; id < 20; id++) {
+            wheel.schedule(id, 10_000 + id * 70 * TICK);
+        }
+
+        List<Long> due = wheel.advance(10_000 + 1000 * TICK);
+
+        assertEquals(15, due.size());
+        assertEquals(5, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldFireOverdueTransitionOnNextTick() {
+        wheel.advance(20_000);
+        wheel.schedule(1L, 5_000);
+
+        assertTrue(wheel.advance(20_050).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(20_100));
+    }
+}
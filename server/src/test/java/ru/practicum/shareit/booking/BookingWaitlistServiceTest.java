@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingWaitlistDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.AggregateType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingWaitlistServiceTest {
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Mock
+    private BookingWaitlistRepository bookingWaitlistRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private BookingTimeline bookingTimeline;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final User owner = new User(2L, "Owner", "owner@mail.ru");
+    private final User booker = new User(1L, "Booker", "booker@mail.ru");
+    private final Item item = new Item(5L, "Дрель", "Ударная", true, owner, null);
+
+    private BookingWaitlistService bookingWaitlistService;
+
+    @BeforeEach
+    void setUp() {
+        bookingWaitlistService = new BookingWaitlistService(bookingWaitlistRepository, itemRepository, userRepository,
+                bookingService, bookingTimeline, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                objectMapper);
+    }
+
+    @Test
+    void join_ShouldQueueWhenIntervalIsTaken() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingTimeline.hasOverlap(item.getId(), MONDAY, MONDAY.plusDays(1))).thenReturn(true);
+        when(bookingWaitlistRepository.save(any(BookingWaitlistEntry.class))).thenAnswer(invocation -> {
+            BookingWaitlistEntry entry = invocation.getArgument(0);
+            entry.setId(9L);
+            return entry;
+        });
+
+        BookingWaitlistDto result = bookingWaitlistService.join(
+                new BookingRequestDto(item.getId(), MONDAY, MONDAY.plusDays(1)), booker.getId());
+
+        assertEquals(9L, result.getId());
+        assertEquals(item.getId(), result.getItemId());
+        assertNotNull(result.getCreated());
+    }
+
+    @Test
+    void join_ShouldRejectFreeInterval() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingWaitlistService.join(
+                new BookingRequestDto(item.getId(), MONDAY, MONDAY.plusDays(1)), booker.getId()));
+        verify(bookingWaitlistRepository, never()).save(any());
+    }
+
+    @Test
+    void leave_ShouldThrowForForeignEntry() {
+        BookingWaitlistEntry entry = BookingWaitlistEntry.builder().id(9L).booker(booker).item(item).build();
+        when(bookingWaitlistRepository.findById(9L)).thenReturn(Optional.of(entry));
+
+        assertThrows(SecurityException.class, () -> bookingWaitlistService.leave(9L, owner.getId()));
+        verify(bookingWaitlistRepository, never()).delete(any());
+    }
+
+    @Test
+    void handle_ShouldPromoteCompatibleEntriesInRequestOrder() throws Exception {
+        BookingWaitlistDto first = entry(1L, 3L, MONDAY, MONDAY.plusDays(2));
+        BookingWaitlistDto overlapsFirst = entry(2L, 4L, MONDAY.plusDays(1), MONDAY.plusDays(3));
+        BookingWaitlistDto outside = entry(3L, 5L, MONDAY.plusDays(10), MONDAY.plusDays(11));
+        BookingWaitlistDto afterFirst = entry(4L, 6L, MONDAY.plusDays(3), MONDAY.plusDays(4));
+        when(bookingWaitlistRepository.findQueue(item.getId()))
+                .thenReturn(List.of(first, overlapsFirst, outside, afterFirst));
+
+        bookingWaitlistService.handle(event(OutboxEventType.BOOKING_CANCELLED, MONDAY, MONDAY.plusDays(5)));
+
+        verify(bookingService).createBooking(new BookingRequestDto(item.getId(), MONDAY, MONDAY.plusDays(2)), 3L);
+        verify(bookingService).createBooking(
+                new BookingRequestDto(item.getId(), MONDAY.plusDays(3), MONDAY.plusDays(4)), 6L);
+        verify(bookingService, times(2)).createBooking(any(), any());
+        verify(bookingWaitlistRepository).deleteById(1L);
+        verify(bookingWaitlistRepository).deleteById(4L);
+        verify(bookingWaitlistRepository, times(2)).deleteById(any());
+    }
+
+    @Test
+    void handle_ShouldKeepEntryWhenBookingRefused() throws Exception {
+        BookingWaitlistDto refused = entry(1L, 3L, MONDAY, MONDAY.plusDays(1));
+        BookingWaitlistDto next = entry(2L, 4L, MONDAY, MONDAY.plusDays(1));
+        when(bookingWaitlistRepository.findQueue(item.getId())).thenReturn(List.of(refused, next));
+        when(bookingService.createBooking(any(), eq(3L)))
+                .thenThrow(new IllegalArgumentException("Вещь не доступна для бронирования"));
+
+        bookingWaitlistService.handle(event(OutboxEventType.BOOKING_REJECTED, MONDAY, MONDAY.plusDays(1)));
+
+        verify(bookingWaitlistRepository, never()).deleteById(1L);
+        verify(bookingWaitlistRepository).deleteById(2L);
+    }
+
+    @Test
+    void handle_ShouldSkipEntriesStillTakenAndDropExpired() throws Exception {
+        BookingWaitlistDto expired = entry(1L, 3L, MONDAY.minusDays(2), MONDAY.minusDays(1));
+        BookingWaitlistDto taken = entry(2L, 4L, MONDAY, MONDAY.plusDays(1));
+        when(bookingWaitlistRepository.findQueue(item.getId())).thenReturn(List.of(expired, taken));
+        when(bookingTimeline.hasOverlap(item.getId(), MONDAY, MONDAY.plusDays(1))).thenReturn(true);
+
+        bookingWaitlistService.promote(item.getId(), MONDAY, MONDAY.plusDays(1), MONDAY.minusHours(1));
+
+        verify(bookingWaitlistRepository).deleteById(1L);
+        verify(bookingWaitlistRepository, never()).deleteById(2L);
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void handle_ShouldIgnoreOtherEvents() throws Exception {
+        bookingWaitlistService.handle(event(OutboxEventType.BOOKING_APPROVED, MONDAY, MONDAY.plusDays(1)));
+
+        verifyNoInteractions(bookingWaitlistRepository, bookingService);
+    }
+
+    private BookingWaitlistDto entry(Long id, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        return new BookingWaitlistDto(id, item.getId(), bookerId, start, end, MONDAY.minusDays(30).plusMinutes(id));
+    }
+
+    private OutboxEvent event(OutboxEventType type, LocalDateTime start, LocalDateTime end) throws Exception {
+        BookingEventDto payload = new BookingEventDto(11L, item.getId(), booker.getId(), start, end,
+                BookingStatus.CANCELLED);
+        return new OutboxEvent(1L, AggregateType.BOOKING, 11L, type, objectMapper.writeValueAsString(payload), 0,
+                LocalDateTime.now());
+    }
+}
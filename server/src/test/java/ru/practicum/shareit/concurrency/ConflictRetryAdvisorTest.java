@@ -0,0 +1,102 @@
+package ru.practicum.shareit.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exeption.ConcurrentUpdateException;
+import ru.practicum.shareit.exeption.PreconditionFailedException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryAdvisorTest {
+    private final Target target = new Target();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void invoke_ShouldRetryConflictsUntilSuccess() {
+        target.conflicts = 2;
+
+        assertEquals("ok", proxy(3).update());
+        assertEquals(3, target.calls.get());
+    }
+
+    @Test
+    void invoke_ShouldGiveUpAfterMaxAttempts() {
+        target.conflicts = 5;
+
+        assertThrows(ConcurrentUpdateException.class, () -> proxy(3).update());
+        assertEquals(3, target.calls.get());
+    }
+
+    @Test
+    void invoke_ShouldNotRetryOtherErrorsAndUnannotatedMethods() {
+        assertThrows(PreconditionFailedException.class, () -> proxy(3).failPrecondition());
+        assertEquals(1, target.calls.get());
+
+        target.conflicts = 1;
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy(3).plain());
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void invoke_ShouldNotRetryInsideOuterTransaction() {
+        target.conflicts = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy(3).update());
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void eTags_ShouldParseIfMatchAndCompareVersions() {
+        assertEquals("\"7\"", ETags.of(7L));
+        assertEquals(7L, ETags.parse("\"7\""));
+        assertEquals(7L, ETags.parse("W/\"7\""));
+        assertNull(ETags.parse("*"));
+        assertNull(ETags.parse(null));
+        assertThrows(PreconditionFailedException.class, () -> ETags.parse("\"abc\""));
+
+        assertDoesNotThrow(() -> ETags.checkMatch(null, 3L));
+        assertDoesNotThrow(() -> ETags.checkMatch(3L, 3L));
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkMatch(2L, 3L));
+    }
+
+    private Target proxy(int maxAttempts) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new ConflictRetryAdvisor(maxAttempts, 1, 2));
+        return (Target) factory.getProxy();
+    }
+
+    static class Target {
+        private final AtomicInteger calls = new AtomicInteger();
+        private int conflicts;
+
+        @RetryOnConflict
+        public String update() {
+            return plain();
+        }
+
+        @RetryOnConflict
+        public String failPrecondition() {
+            calls.incrementAndGet();
+            throw new PreconditionFailedException("Объект уже изменён");
+        }
+
+        public String plain() {
+            calls.incrementAndGet();
+            if (conflicts-- > 0) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(2, 60_000);
+
+    @Test
+    void execute_ShouldRunOnceForSameKeyAndUser() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Integer first = store.execute("k", 1L, "POST /items", "body", calls::incrementAndGet);
+        Integer retry = store.execute("k", 1L, "POST /items", "body", calls::incrementAndGet);
+        Integer otherUser = store.execute("k", 2L, "POST /items", "body", calls::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, retry);
+        assertEquals(2, otherUser);
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForAnotherRequest() {
+        store.execute("k", 1L, "POST /items", "body", () -> 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("k", 1L, "POST /items", "other", () -> 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("k", 1L, "POST /requests", "body", () -> 2));
+    }
+
+    @Test
+    void execute_ShouldNotStoreFailures() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k", 1L, "POST /items", "body", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(5, store.execute("k", 1L, "POST /items", "body", () -> 5));
+    }
+
+    @Test
+    void execute_ShouldEvictEldestBeyondLimitAndSkipWithoutKey() {
+        AtomicInteger calls = new AtomicInteger();
+        store.execute("a", 1L, "POST /items", "body", calls::incrementAndGet);
+        store.execute("b", 1L, "POST /items", "body", calls::incrementAndGet);
+        store.execute("c", 1L, "POST /items", "body", calls::incrementAndGet);
+        store.execute(null, 1L, "POST /items", "body", calls::incrementAndGet);
+
+        assertEquals(2, store.size());
+        assertEquals(5, store.execute("a", 1L, "POST /items", "body", calls::incrementAndGet));
+    }
+
+    @Test
+    void execute_ShouldExpireEntriesAfterTtl() throws InterruptedException {
+        IdempotencyStore shortLived = new IdempotencyStore(10, 1);
+        shortLived.execute("k", 1L, "POST /items", "body", () -> 1);
+        Thread.sleep(5);
+
+        assertEquals(2, shortLived.execute("k", 1L, "POST /items", "body", () -> 2));
+    }
+
+    @Test
+    void execute_ShouldMakeConcurrentRetryWaitForFirstResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> store.execute("k", 1L, "POST /bookings", "body", () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> retry = executor.submit(() ->
+                    store.execute("k", 1L, "POST /bookings", "body", calls::incrementAndGet));
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, retry.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exeption.ConcurrentUpdateException;
+import ru.practicum.shareit.exeption.PreconditionFailedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemConcurrentUpdateTest {
+    private static final int THREADS = 8;
+    private static final int UPDATES = 10;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentUpdates_ShouldNotLoseAnyCommittedChange() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "concurrent-owner@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Ударная", true, owner, null));
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * UPDATES; i++) {
+            String description = "Версия " + i;
+            futures.add(executor.submit(() -> {
+                ItemUpdateDto update = new ItemUpdateDto();
+                update.setDescription(description);
+                try {
+                    itemService.updateItem(update, owner.getId(), item.getId(), null);
+                    applied.incrementAndGet();
+                } catch (ConcurrentUpdateException e) {
+                    conflicts.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS * UPDATES, applied.get() + conflicts.get());
+        assertTrue(applied.get() > 0);
+        assertEquals(applied.get(), itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void updateItem_ShouldRequireCurrentVersionInIfMatch() {
+        User owner = userRepository.save(new User(null, "Owner", "if-match-owner@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "Пила", "Ручная", true, owner, null));
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setName("Пила по дереву");
+
+        ItemDto updated = itemService.updateItem(update, owner.getId(), item.getId(), item.getVersion());
+
+        assertEquals(item.getVersion() + 1, updated.getVersion());
+        assertThrows(PreconditionFailedException.class,
+                () -> itemService.updateItem(update, owner.getId(), item.getId(), item.getVersion()));
+    }
+}
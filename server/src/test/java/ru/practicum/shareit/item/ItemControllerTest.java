@@ -4,13 +4,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +31,9 @@ class ItemControllerTest {
     @Mock
     private ItemService itemService;
 
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60_000);
+
     @InjectMocks
     private ItemController itemController;
 
@@ -38,7 +49,7 @@ class ItemControllerTest {
         when(itemService.addItem(any(ItemDto.class), anyLong()))
                 .thenReturn(itemDto);
 
-        ItemDto result = itemController.addItem(itemDto, userId);
+        ItemDto result = itemController.addItem(itemDto, userId, null);
 
         assertNotNull(result);
         assertEquals(itemDto, result);
@@ -49,21 +60,32 @@ class ItemControllerTest {
     void addItem_ShouldReturnCreatedStatus() {
         when(itemService.addItem(any(), anyLong())).thenReturn(itemDto);
 
-        ItemDto result = itemController.addItem(itemDto, userId);
+        ItemDto result = itemController.addItem(itemDto, userId, null);
 
         assertEquals(HttpStatus.CREATED.value(), 201);
     }
 
     @Test
     void updateItem_ShouldReturnUpdatedItem() {
-        when(itemService.updateItem(any(ItemUpdateDto.class), anyLong(), anyLong()))
+        when(itemService.updateItem(any(ItemUpdateDto.class), anyLong(), anyLong(), any()))
                 .thenReturn(itemDto);
 
-        ItemDto result = itemController.updateItem(itemUpdateDto, userId, itemId);
+        ItemDto result = itemController.updateItem(itemUpdateDto, userId, itemId, null).getBody();
 
         assertNotNull(result);
         assertEquals(itemDto, result);
-        verify(itemService).updateItem(itemUpdateDto, userId, itemId);
+        verify(itemService).updateItem(itemUpdateDto, userId, itemId, null);
+    }
+
+    @Test
+    void updateItem_ShouldPassIfMatchVersionAndReturnETag() {
+        itemDto.setVersion(4L);
+        when(itemService.updateItem(itemUpdateDto, userId, itemId, 3L)).thenReturn(itemDto);
+
+        ResponseEntity<ItemDto> result = itemController.updateItem(itemUpdateDto, userId, itemId, "\"3\"");
+
+        assertEquals("\"4\"", result.getHeaders().getETag());
+        assertEquals(itemDto, result.getBody());
     }
 
     @Test
@@ -71,7 +93,7 @@ class ItemControllerTest {
         when(itemService.getItemById(anyLong()))
                 .thenReturn(itemResponseDto);
 
-        ItemResponseDto result = itemController.getItemById(itemId);
+        ItemResponseDto result = itemController.getItemById(itemId).getBody();
 
         assertNotNull(result);
         assertEquals(itemResponseDto, result);
@@ -94,15 +116,47 @@ class ItemControllerTest {
     @Test
     void search_ShouldReturnList() {
         String searchText = "test";
-        when(itemService.search(anyString()))
-                .thenReturn(List.of(itemDto));
+        when(itemService.search(searchText, null, null))
+                .thenReturn(new ItemSearchPage(List.of(itemDto), null));
 
-        List<ItemDto> result = itemController.search(searchText);
+        List<ItemDto> result = itemController.search(searchText, null, null, null, null).getBody();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(itemDto, result.getFirst());
-        verify(itemService).search(searchText);
+        verify(itemService).search(searchText, null, null);
+    }
+
+    @Test
+    void search_ShouldFilterByPeriodWhenDatesGiven() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(itemService.searchAvailable("test", from, from.plusDays(1), null, null))
+                .thenReturn(new ItemSearchPage(List.of(itemDto), null));
+
+        assertEquals(List.of(itemDto), itemController.search("test", from, from.plusDays(1), null, null).getBody());
+        verify(itemService, never()).search(anyString(), any(), any());
+    }
+
+    @Test
+    void search_ShouldReturnNextCursorHeader() {
+        when(itemService.search("test", "6,1", 1))
+                .thenReturn(new ItemSearchPage(List.of(itemDto), new ItemSearchCursor(4, 2L)));
+
+        ResponseEntity<List<ItemDto>> response = itemController.search("test", null, null, "6,1", 1);
+
+        assertEquals("4,2", response.getHeaders().getFirst(Constants.NEXT_CURSOR));
+        assertEquals(List.of(itemDto), response.getBody());
+    }
+
+    @Test
+    void getAvailability_ShouldReturnFreeIntervals() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(7);
+        List<FreeIntervalDto> intervals = List.of(new FreeIntervalDto(from, to));
+        when(itemService.getAvailability(1L, from, to)).thenReturn(intervals);
+
+        assertEquals(intervals, itemController.getAvailability(1L, from, to));
+        verify(itemService).getAvailability(1L, from, to);
     }
 
     @Test
@@ -113,7 +167,7 @@ class ItemControllerTest {
         when(itemService.addComment(anyLong(), anyLong(), anyString()))
                 .thenReturn(commentDto);
 
-        CommentDto result = itemController.addComment(itemId, userId, request);
+        CommentDto result = itemController.addComment(itemId, userId, null, request);
 
         assertNotNull(result);
         assertEquals(commentDto, result);
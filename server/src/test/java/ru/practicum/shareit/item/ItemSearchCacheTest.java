@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchCacheTest {
+    private final User owner = new User(1L, "Owner", "owner@mail.ru");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemSearchIndex index = new ItemSearchIndex(null);
+    private final ItemSearchCache cache = new ItemSearchCache(index, meterRegistry, 2, 60_000);
+    private final ItemTextSearch search = new ItemTextSearch(null, index, cache, null, "index");
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void search_ShouldServeRepeatedNormalisedQueryFromCache() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, owner, null));
+
+        assertEquals(List.of(1L), ids(search.search("удар дрель")));
+        assertEquals(List.of(1L), ids(search.search("Дрель, УДАР")));
+
+        assertEquals(1.0, meterRegistry.get("shareit.item.search.cache.hits").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.item.search.cache.misses").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("shareit.item.search.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void put_ShouldInvalidateOnlyQueriesMatchingOldOrNewText() {
+        Item drill = new Item(1L, "Дрель", "Ударная", true, owner, null);
+        index.put(drill);
+        index.put(new Item(2L, "Палатка", "Трёхместная", true, owner, null));
+        search.search("дрель");
+        search.search("палатка");
+
+        // Новая вещь подходит под «дрель», но не под «палатка»
+        index.put(new Item(3L, "Дрель", "Аккумуляторная", true, owner, null));
+        assertEquals(1, cache.size());
+        assertEquals(List.of(1L, 3L), ids(search.search("дрель")));
+
+        // Старый текст подходил под «дрель», новый — под «палатка»: оба запроса устаревают
+        drill.setName("Палатка");
+        index.put(drill);
+        assertEquals(0, cache.size());
+        assertEquals(List.of(1L, 2L), ids(search.search("палатка")));
+        assertEquals(3.0, meterRegistry.get("shareit.item.search.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedBeyondLimit() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, owner, null));
+        search.search("дрель");
+        search.search("удар");
+        search.search("дрель");
+        search.search("палатка");
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.get("shareit.item.search.cache.evictions")
+                .tag("cause", "size").counter().count());
+        search.search("дрель");
+        assertEquals(2.0, meterRegistry.get("shareit.item.search.cache.hits").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldExpireEntriesAfterTtl() throws InterruptedException {
+        SimpleMeterRegistry shortLivedMeters = new SimpleMeterRegistry();
+        ItemSearchCache shortLived = new ItemSearchCache(index, shortLivedMeters, 10, 1);
+        when(itemRepository.searchByText("дрель")).thenReturn(List.of());
+        ItemTextSearch like = new ItemTextSearch(itemRepository, index, shortLived, null, "like");
+
+        like.search("дрель");
+        Thread.sleep(5);
+        like.search("Дрель");
+
+        verify(itemRepository, times(1)).searchByText("дрель");
+        verify(itemRepository, times(1)).searchByText("Дрель");
+        assertEquals(1.0, shortLivedMeters.get("shareit.item.search.cache.evictions")
+                .tag("cause", "ttl").counter().count());
+    }
+
+    @Test
+    void get_ShouldNotStoreResultLoadedWhileIndexChanged() {
+        List<ItemSearchRanking.Scored> loaded = cache.get("дрель", document -> true, () -> {
+            index.put(new Item(1L, "Дрель", "Ударная", true, owner, null));
+            return List.of();
+        });
+
+        assertTrue(loaded.isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
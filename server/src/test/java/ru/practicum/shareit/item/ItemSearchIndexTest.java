@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ItemSearchIndexTest {
+    private final User owner = new User(1L, "Owner", "owner@mail.ru");
+    private final User other = new User(2L, "Other", "other@mail.ru");
+    private final ItemSearchIndex index = new ItemSearchIndex(null);
+
+    @Test
+    void search_ShouldMatchWordPrefixesInNameAndDescription() {
+        index.put(new Item(1L, "Дрель", "Ударная, 800 Вт", true, owner, null));
+        index.put(new Item(2L, "Шуруповёрт", "Аккумуляторная дрель-шуруповёрт", true, owner, null));
+        index.put(new Item(3L, "Пила", "Ручная", true, owner, null));
+
+        assertEquals(List.of(1L, 2L), ids("ДРЕЛ"));
+        assertEquals(List.of(1L), ids("дрель удар"));
+        assertEquals(List.of(1L), ids("800"));
+        assertEquals(List.of(), ids("дрель ручная"));
+        assertEquals(List.of(), ids("рель"));
+        assertEquals(List.of(), ids(" ,. "));
+    }
+
+    @Test
+    void handle_ShouldReindexItemFromRepositoryOnItemEvents() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemSearchIndex relayed = new ItemSearchIndex(itemRepository);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(new Item(1L, "Дрель", "Ударная", true, owner, null)));
+        when(itemRepository.findById(2L)).thenReturn(Optional.empty());
+
+        relayed.handle(event(OutboxEventType.ITEM_CREATED, 1L));
+        assertEquals(1, relayed.search("дрель").size());
+
+        relayed.handle(event(OutboxEventType.COMMENT_ADDED, 2L));
+        verify(itemRepository, never()).findById(2L);
+
+        relayed.put(new Item(2L, "Палатка", "Трёхместная", true, owner, null));
+        relayed.handle(event(OutboxEventType.ITEM_UPDATED, 2L));
+        assertTrue(relayed.search("палатка").isEmpty());
+        assertEquals(1, relayed.size());
+    }
+
+    @Test
+    void put_ShouldReindexChangedItemAndDropUnavailable() {
+        Item item = new Item(1L, "Дрель", "Ударная", true, owner, null);
+        index.put(item);
+
+        item.setName("Перфоратор");
+        index.put(item);
+        assertEquals(List.of(), ids("дрель"));
+        assertEquals(List.of(1L), ids("перф"));
+        assertEquals(List.of(1L), ids("ударная"));
+
+        item.setAvailable(false);
+        index.put(item);
+        assertEquals(List.of(), ids("перф"));
+        assertEquals(0, index.size());
+
+        item.setAvailable(true);
+        index.put(item);
+        assertEquals("Перфоратор", index.search("перф").getFirst().getName());
+    }
+
+    @Test
+    void removeOwner_ShouldDropAllItemsOfOwner() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, owner, null));
+        index.put(new Item(2L, "Дрель", "Старая", true, other, null));
+
+        index.removeOwner(owner.getId());
+
+        assertEquals(List.of(2L), ids("дрель"));
+    }
+
+    @Test
+    void searchSubstring_ShouldMatchFragmentsAcrossWordsAndTrackUpdates() {
+        Item drill = new Item(1L, "Дрель", "Ударная дрель-шуруповёрт", true, owner, null);
+        index.put(drill);
+        index.put(new Item(2L, "Шуруп", "Коробка", true, owner, null));
+        index.put(new Item(3L, "Пила", "Ручная", false, owner, null));
+
+        assertEquals(List.of(1L), substringIds("РЕЛ"));
+        assertEquals(List.of(1L, 2L), substringIds("шуруп"));
+        assertEquals(List.of(1L), substringIds("ль-шу"));
+        assertEquals(List.of(1L), substringIds("я д"));
+        assertEquals(List.of(1L, 2L), substringIds("у"));
+        assertEquals(List.of(), substringIds("пила"));
+        assertEquals(List.of(), substringIds("дрельудар"));
+
+        drill.setDescription("Сетевая");
+        index.put(drill);
+        assertEquals(List.of(2L), substringIds("шуруп"));
+        assertEquals(List.of(1L), substringIds("тев"));
+    }
+
+    private List<Long> substringIds(String text) {
+        return index.searchSubstring(text).stream().map(ItemDto::getId).toList();
+    }
+
+    private List<Long> ids(String text) {
+        return index.search(text).stream().map(ItemDto::getId).toList();
+    }
+
+    private static OutboxEvent event(OutboxEventType type, Long itemId) {
+        return new OutboxEvent(1L, type.getAggregateType(), itemId, type, "{}", 0, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.outbox.OutboxRelay;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Поисковый индекс и кэш поиска узнают об изменениях вещей только через ретранслятор outbox.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSearchOutboxTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Test
+    void search_ShouldSeeCreatedAndUpdatedItemsAfterRelay() {
+        User owner = userRepository.save(new User(null, "Owner", "outbox-search-owner@mail.ru"));
+
+        ItemDto item = itemService.addItem(new ItemDto(null, "Квазидрель", "Ударная", true, null), owner.getId());
+        relayAll();
+        assertEquals(List.of(item.getId()), ids("квазидрель"));
+
+        itemService.updateItem(new ItemUpdateDto(null, "Гипердрель", null, null), owner.getId(), item.getId(), null);
+        relayAll();
+        assertEquals(List.of(), ids("квазидрель"));
+        assertEquals(List.of(item.getId()), ids("гипердрель"));
+
+        itemService.updateItem(new ItemUpdateDto(null, null, null, false), owner.getId(), item.getId(), null);
+        relayAll();
+        assertEquals(List.of(), ids("гипердрель"));
+    }
+
+    private void relayAll() {
+        while (outboxRelay.relay() > 0) {
+            // Разбираем накопленные события до конца
+        }
+    }
+
+    private List<Long> ids(String text) {
+        return itemService.search(text, null, null).items().stream().map(ItemDto::getId).toList();
+    }
+}
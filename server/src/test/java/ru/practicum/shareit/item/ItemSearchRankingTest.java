@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchRankingTest {
+
+    @Test
+    void score_ShouldPreferNameAndWholeWords() {
+        String[] terms = {"дрель"};
+
+        assertEquals(6, ItemSearchRanking.score(terms, item(1, "Дрель", "Старая")));
+        assertEquals(4, ItemSearchRanking.score(terms, item(1, "Дрельщик", "Дрельная")));
+        assertEquals(3, ItemSearchRanking.score(terms, item(1, "Ящик", "Дрель и биты")));
+        assertEquals(1, ItemSearchRanking.score(terms, item(1, "Ящик", "Мини-дрели, аэродрель")));
+        assertEquals(8, ItemSearchRanking.score(new String[]{"дрель", "удар"}, item(1, "Дрель", "Ударная")));
+    }
+
+    @Test
+    void page_ShouldReturnTopKByScoreThenId() {
+        List<ItemDto> matches = List.of(
+                item(5, "Ящик", "Дрель"),
+                item(3, "Дрель", "Старая"),
+                item(9, "Дрель", "Новая"),
+                item(1, "Ящик", "Аэродрель"));
+
+        ItemSearchPage first = ItemSearchRanking.page(scored(matches, "дрель"), null, 2);
+        ItemSearchPage second = ItemSearchRanking.page(scored(matches, "дрель"), first.next(), 2);
+        ItemSearchPage third = ItemSearchRanking.page(scored(matches, "дрель"), second.next(), 2);
+
+        assertEquals(List.of(3L, 9L), ids(first));
+        assertEquals(new ItemSearchCursor(6, 9), first.next());
+        assertEquals(List.of(5L, 1L), ids(second));
+        assertEquals(List.of(), ids(third));
+        assertNull(third.next());
+        assertEquals(List.of(3L, 9L, 5L, 1L), ids(ItemSearchRanking.page(scored(matches, "дрель"), null, null)));
+        assertThrows(IllegalArgumentException.class, () -> ItemSearchRanking.page(scored(matches, "дрель"), null, 0));
+    }
+
+    @Test
+    void page_ShouldNotRepeatOrSkipItemsWhenMatchesChangeBetweenPages() {
+        List<ItemDto> matches = new ArrayList<>();
+        for (int id = 1; id <= 20; id++) {
+            matches.add(item(id, id % 2 == 0 ? "Дрель" : "Ящик", "Дрель"));
+        }
+        ItemSearchPage first = ItemSearchRanking.page(scored(matches, "дрель"), null, 7);
+
+        // Между страницами появляются новые вещи и выше, и ниже курсора
+        matches.add(item(0, "Дрель", "Новая"));
+        matches.add(item(21, "Ящик", "Дрель"));
+        List<Long> seen = new ArrayList<>(ids(first));
+        ItemSearchCursor cursor = first.next();
+        while (cursor != null) {
+            ItemSearchPage page = ItemSearchRanking.page(scored(matches, "дрель"), cursor, 7);
+            seen.addAll(ids(page));
+            cursor = page.next();
+        }
+
+        assertEquals(seen.size(), seen.stream().distinct().count());
+        for (long id = 1; id <= 21; id++) {
+            assertTrue(seen.contains(id), "Пропущена вещь " + id);
+        }
+    }
+
+    @Test
+    void parse_ShouldReadCursorAndRejectGarbage() {
+        assertEquals(new ItemSearchCursor(6, 42), ItemSearchCursor.parse("6,42"));
+        assertEquals("6,42", new ItemSearchCursor(6, 42).toString());
+        assertThrows(IllegalArgumentException.class, () -> ItemSearchCursor.parse("6"));
+        assertThrows(IllegalArgumentException.class, () -> ItemSearchCursor.parse("a,b"));
+    }
+
+    private static ItemDto item(long id, String name, String description) {
+        return new ItemDto(id, name, description, true, null);
+    }
+
+    private static List<ItemSearchRanking.Scored> scored(List<ItemDto> matches, String text) {
+        String[] terms = ItemSearchIndex.tokenize(text);
+        return matches.stream()
+                .map(item -> new ItemSearchRanking.Scored(item, ItemSearchRanking.score(terms, item)))
+                .toList();
+    }
+
+    private static List<Long> ids(ItemSearchPage page) {
+        return page.items().stream().map(ItemDto::getId).toList();
+    }
+}
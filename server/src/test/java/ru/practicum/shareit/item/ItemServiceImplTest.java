@@ -1,21 +1,26 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
@@ -41,6 +46,15 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private BookingTimeline bookingTimeline;
+    @Spy
+    private ItemSearchIndex itemSearchIndex = new ItemSearchIndex(null);
+    @Spy
+    private ItemTextSearch itemTextSearch = new ItemTextSearch(null, itemSearchIndex,
+            new ItemSearchCache(itemSearchIndex, new SimpleMeterRegistry(), 100, 60_000), null, "index");
+    @Mock
+    private Outbox outbox;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -65,6 +79,7 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertEquals(itemId, result.getId());
         verify(itemRepository).save(any());
+        verify(outbox).record(OutboxEventType.ITEM_CREATED, itemId, result);
     }
 
     @Test
@@ -104,10 +119,11 @@ class ItemServiceImplTest {
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(itemRepository.save(any())).thenReturn(item);
 
-        ItemDto result = itemService.updateItem(update, userId, itemId);
+        ItemDto result = itemService.updateItem(update, userId, itemId, null);
 
         assertEquals("New", result.getName());
         assertEquals("Desc", result.getDescription());
+        verify(outbox).record(OutboxEventType.ITEM_UPDATED, itemId, result);
     }
 
     @Test
@@ -118,7 +134,7 @@ class ItemServiceImplTest {
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
 
         assertThrows(EntityNotFoundException.class,
-                () -> itemService.updateItem(new ItemUpdateDto(), userId, itemId));
+                () -> itemService.updateItem(new ItemUpdateDto(), userId, itemId, null));
     }
 
     @Test
@@ -128,52 +144,113 @@ class ItemServiceImplTest {
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(commentRepository.findByItemId(itemId)).thenReturn(List.of(comment));
+        when(bookingTimeline.summary(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(new BookingSummary(now.minusDays(2), now.plusDays(1)));
 
         ItemResponseDto result = itemService.getItemById(itemId);
 
         assertNotNull(result);
         assertEquals(1, result.getComments().size());
+        assertEquals(now.minusDays(2), result.getLastBooking());
+        assertEquals(now.plusDays(1), result.getNextBooking());
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void getOwnerItems_ShouldReturnItemsWithBookingsAndComments() {
         User owner = new User(userId, "owner@email.com", "Owner");
         Item item = new Item(itemId, "Item", "Desc", true, owner, null);
-        Booking last = new Booking(1L, now.minusDays(2), now.minusDays(1), item, new User(), BookingStatus.APPROVED);
-        Booking next = new Booking(2L, now.plusDays(1), now.plusDays(2), item, new User(), BookingStatus.APPROVED);
+        Item empty = new Item(2L, "Other", "Desc", true, owner, null);
         Comment comment = new Comment(1L, "Text", item, new User(), now);
 
-        when(itemRepository.findByOwnerId(userId)).thenReturn(List.of(item));
-        when(bookingRepository.findLastBookingsForItems(eq(List.of(itemId)), any(LocalDateTime.class)))
-                .thenReturn(List.of(last));
-        when(bookingRepository.findNextBookingsForItems(eq(List.of(itemId)), any(LocalDateTime.class)))
-                .thenReturn(List.of(next));
-        when(commentRepository.findByItemIn(List.of(item))).thenReturn(List.of(comment));
+        when(itemRepository.findByOwnerId(userId)).thenReturn(List.of(item, empty));
+        when(bookingTimeline.summary(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(new BookingSummary(now.minusDays(2), now.plusDays(1)));
+        when(bookingTimeline.summary(eq(2L), any(LocalDateTime.class))).thenReturn(BookingSummary.EMPTY);
+        when(commentRepository.findByItemIn(List.of(item, empty))).thenReturn(List.of(comment));
 
         List<ItemResponseDto> result = itemService.getOwnerItems(userId);
 
-        assertEquals(1, result.size());
+        assertEquals(2, result.size());
         ItemResponseDto dto = result.getFirst();
 
         assertEquals(1, dto.getComments().size());
         assertEquals(comment.getText(), dto.getComments().getFirst().getText());
+        assertEquals(now.minusDays(2), dto.getLastBooking());
+        assertEquals(now.plusDays(1), dto.getNextBooking());
+        assertNull(result.getLast().getLastBooking());
+        assertTrue(result.getLast().getComments().isEmpty());
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void search_ShouldReturnEmptyListForBlankText() {
-        List<ItemDto> result = itemService.search(" ");
+        List<ItemDto> result = itemService.search(" ", null, null).items();
         assertTrue(result.isEmpty());
     }
 
     @Test
     void search_ShouldReturnItems() {
-        Item item = new Item(itemId, "Item", "Desc", true, new User(), null);
-        when(itemRepository.searchByText("test")).thenReturn(List.of(item));
+        itemSearchIndex.put(new Item(itemId, "Item", "Test desc", true, new User(), null));
+        itemSearchIndex.put(new Item(2L, "Item", "Other", true, new User(), null));
 
-        List<ItemDto> result = itemService.search("test");
+        List<ItemDto> result = itemService.search("test", null, null).items();
 
         assertEquals(1, result.size());
         assertEquals(itemId, result.getFirst().getId());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchAvailable_ShouldDropItemsBusyInPeriod() {
+        itemSearchIndex.put(new Item(70L, "Дрель", "Старая", true, new User(), null));
+        itemSearchIndex.put(new Item(2L, "Дрель", "Аккумуляторная", true, new User(), null));
+        itemSearchIndex.put(new Item(1L, "Дрель", "Ударная", true, new User(), null));
+        long largeId = Integer.MAX_VALUE + 1L;
+        itemSearchIndex.put(new Item(largeId, "Дрель", "Новая", true, new User(), null));
+        when(bookingTimeline.hasOverlap(anyLong(), eq(now), eq(now.plusDays(1))))
+                .thenAnswer(invocation -> invocation.getArgument(0).equals(2L));
+
+        List<ItemDto> result = itemService.searchAvailable("дрель", now, now.plusDays(1), null, null).items();
+
+        assertEquals(List.of(1L, 70L, largeId), result.stream().map(ItemDto::getId).toList());
+        verify(bookingTimeline, times(4)).hasOverlap(anyLong(), eq(now), eq(now.plusDays(1)));
+    }
+
+    @Test
+    void searchAvailable_ShouldValidatePeriodAndText() {
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchAvailable("дрель", now, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchAvailable("дрель", now, now, null, null));
+        assertTrue(itemService.searchAvailable(" ", now, now.plusDays(1), null, null).items().isEmpty());
+        verifyNoInteractions(itemRepository, bookingTimeline);
+    }
+
+    @Test
+    void getAvailability_ShouldAskTimelineForAvailableItem() {
+        Item item = new Item(itemId, "Item", "Desc", true, new User(), null);
+        List<FreeIntervalDto> intervals = List.of(new FreeIntervalDto(now, now.plusDays(1)));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingTimeline.freeIntervals(itemId, now, now.plusDays(1))).thenReturn(intervals);
+
+        assertEquals(intervals, itemService.getAvailability(itemId, now, now.plusDays(1)));
+    }
+
+    @Test
+    void getAvailability_ShouldReturnEmptyForUnavailableItem() {
+        Item item = new Item(itemId, "Item", "Desc", false, new User(), null);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertTrue(itemService.getAvailability(itemId, now, now.plusDays(1)).isEmpty());
+        verifyNoInteractions(bookingTimeline);
+    }
+
+    @Test
+    void getAvailability_ShouldRejectInvalidPeriod() {
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.getAvailability(itemId, now, now));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.getAvailability(itemId, now, now.plusDays(1)));
     }
 
     @Test
@@ -201,6 +278,7 @@ class ItemServiceImplTest {
         assertEquals(1L, result.getId());
         assertEquals("Text", result.getText());
         assertEquals(author.getName(), result.getAuthorName());
+        verify(outbox).record(OutboxEventType.COMMENT_ADDED, itemId, result);
 
         verify(commentRepository).save(argThat(c ->
                 c.getText().equals("Text") &&
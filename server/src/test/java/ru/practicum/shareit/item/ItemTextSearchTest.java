@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemTextSearchTest {
+    private final Item drill = new Item(1L, "Дрель", "Ударная", true, new User(), null);
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void search_ShouldUseRankedQueryWhenSearchVectorExists() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<ItemSearchRanking.Scored>>any(),
+                eq("дрел:* & удар:*")))
+                .thenReturn(List.of(new ItemSearchRanking.Scored(ItemMapper.toItemDto(drill), 60_793)));
+        ItemTextSearch search = create("fulltext");
+
+        List<ItemDto> result = search.search("Дрел, удар!");
+
+        assertEquals(ItemTextSearch.Mode.FULLTEXT, search.mode());
+        assertEquals(List.of(1L), result.stream().map(ItemDto::getId).toList());
+        assertTrue(search.search(" .,").isEmpty());
+        verify(itemRepository, never()).searchByText(anyString());
+    }
+
+    @Test
+    void searchScored_ShouldKeepDatabaseRankInFulltextMode() {
+        ItemDto box = new ItemDto(2L, "Ящик", "Дрель и биты", true, null);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<ItemSearchRanking.Scored>>any(),
+                eq("дрель:*")))
+                .thenReturn(List.of(new ItemSearchRanking.Scored(box, 90_000),
+                        new ItemSearchRanking.Scored(ItemMapper.toItemDto(drill), 60_000)));
+        // Второй запрос обслуживается из кэша: вещи берутся из индекса, оценки — из кэша
+        when(itemSearchIndex.item(2L)).thenReturn(box);
+        when(itemSearchIndex.item(1L)).thenReturn(ItemMapper.toItemDto(drill));
+        ItemTextSearch search = create("fulltext");
+
+        ItemSearchPage first = ItemSearchRanking.page(search.searchScored("дрель"), null, 1);
+        ItemSearchPage second = ItemSearchRanking.page(search.searchScored("дрель"), first.next(), 1);
+
+        assertEquals(List.of(2L), first.items().stream().map(ItemDto::getId).toList());
+        assertEquals(new ItemSearchCursor(90_000, 2L), first.next());
+        assertEquals(List.of(1L), second.items().stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void search_ShouldFallBackToLikeWithoutSearchVector() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+        when(itemRepository.searchByText("дрел")).thenReturn(List.of(drill));
+        ItemTextSearch search = create("fulltext");
+
+        List<ItemDto> result = search.search("дрел");
+
+        assertEquals(ItemTextSearch.Mode.LIKE, search.mode());
+        assertEquals(1, result.size());
+        verify(jdbcTemplate, never()).query(anyString(), ArgumentMatchers.<RowMapper<ItemSearchRanking.Scored>>any(),
+                any(Object[].class));
+    }
+
+    @Test
+    void search_ShouldPassLikeWildcardsToRepositoryInTrigramMode() {
+        when(itemSearchIndex.searchSubstring("дрел")).thenReturn(List.of());
+        when(itemRepository.searchByText(anyString())).thenReturn(List.of(drill));
+        ItemTextSearch search = create("trigram");
+
+        search.search("дрел");
+        search.search("д%л");
+        search.search("д_л");
+
+        verify(itemRepository, times(2)).searchByText(anyString());
+        verify(itemSearchIndex, never()).search(anyString());
+    }
+
+    @Test
+    void search_ShouldUseIndexByDefault() {
+        when(itemSearchIndex.search("дрель")).thenReturn(List.of());
+        ItemTextSearch search = create("index");
+
+        search.search("дрель");
+
+        verify(itemSearchIndex).search("дрель");
+        verifyNoInteractions(itemRepository, jdbcTemplate);
+        assertThrows(IllegalArgumentException.class, () -> create("unknown"));
+    }
+
+    private ItemTextSearch create(String mode) {
+        ItemSearchCache cache = new ItemSearchCache(itemSearchIndex, new SimpleMeterRegistry(), 100, 60_000);
+        ItemTextSearch search = new ItemTextSearch(itemRepository, itemSearchIndex, cache, jdbcTemplate, mode);
+        search.checkSchema();
+        return search;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Поиск по триграммам в памяти должен находить ровно те же вещи, что запрос LIKE в базе.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ItemTrigramSearchTest {
+    // Маленький алфавит, чтобы случайные фрагменты часто совпадали
+    private static final String ALPHABET = "дрельшупДРЕЁё ab-1";
+    private static final String QUERY_ALPHABET = ALPHABET + "%_";
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void search_ShouldReturnSameItemsAsLikeOnRandomData() {
+        Random random = new Random(20240521);
+        User owner = userRepository.save(new User(null, "Owner", "trigram-owner@mail.ru"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            items.add(itemRepository.save(new Item(null, randomText(random, ALPHABET, 3, 16),
+                    randomText(random, ALPHABET, 0, 24), random.nextInt(4) > 0, owner, null)));
+        }
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+        index.warmUp();
+        ItemSearchCache cache = new ItemSearchCache(index, new SimpleMeterRegistry(), 100, 60_000);
+        ItemTextSearch search = new ItemTextSearch(itemRepository, index, cache, null, "trigram");
+
+        int nonEmpty = 0;
+        for (int i = 0; i < 500; i++) {
+            String query = i % 2 == 0
+                    ? randomText(random, QUERY_ALPHABET, 1, 5)
+                    : fragment(random, items.get(random.nextInt(items.size())));
+            if (query.isBlank()) {
+                continue;
+            }
+            List<Long> expected = itemRepository.searchByText(query).stream().map(Item::getId).sorted().toList();
+            List<Long> actual = search.search(query).stream().map(ItemDto::getId).toList();
+
+            assertEquals(expected, actual, "Запрос «" + query + "»");
+            nonEmpty += expected.isEmpty() ? 0 : 1;
+        }
+        assertTrue(nonEmpty > 100, "Слишком мало непустых результатов: " + nonEmpty);
+    }
+
+    private static String fragment(Random random, Item item) {
+        String text = random.nextBoolean() ? item.getName() : item.getDescription();
+        if (text.isEmpty()) {
+            return item.getName();
+        }
+        int from = random.nextInt(text.length());
+        int to = from + 1 + random.nextInt(text.length() - from);
+        String fragment = text.substring(from, to);
+        return random.nextBoolean() ? fragment.toUpperCase() : fragment;
+    }
+
+    private static String randomText(Random random, String alphabet, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Long> handled = new ArrayList<>();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        // Получатель не справляется с событием бронирования 1, остальные принимает
+        OutboxSink sink = event -> {
+            if (event.getAggregateType() == AggregateType.BOOKING && event.getAggregateId() == 1L) {
+                throw new IllegalStateException("Получатель недоступен");
+            }
+            handled.add(event.getId());
+        };
+        relay = new OutboxRelay(outboxRepository, List.of(sink), meterRegistry, 200, 10, 3);
+    }
+
+    @Test
+    void relay_ShouldHoldBackLaterEventsOfFailedAggregateOnly() {
+        when(outboxRepository.findAllByOrderByIdAsc(Limit.of(10))).thenReturn(List.of(
+                event(1L, OutboxEventType.BOOKING_CREATED, 1L, 0),
+                event(2L, OutboxEventType.ITEM_CREATED, 1L, 0),
+                event(3L, OutboxEventType.BOOKING_APPROVED, 1L, 0),
+                event(4L, OutboxEventType.BOOKING_CREATED, 2L, 0)));
+        when(outboxRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.of(event(1L, OutboxEventType.BOOKING_CREATED, 1L, 1)));
+
+        assertEquals(2, relay.relay());
+
+        assertEquals(List.of(2L, 4L), handled);
+        verify(outboxRepository).incrementAttempts(1L);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L, 4L));
+        assertEquals(2.0, meterRegistry.get("shareit.outbox.relayed").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.outbox.failures").counter().count());
+        assertTrue(meterRegistry.get("shareit.outbox.lag").gauge().value() >= 60);
+    }
+
+    @Test
+    void relay_ShouldDropEventAfterMaxAttempts() {
+        when(outboxRepository.findAllByOrderByIdAsc(Limit.of(10))).thenReturn(List.of(
+                event(1L, OutboxEventType.BOOKING_CREATED, 1L, 2),
+                event(3L, OutboxEventType.BOOKING_APPROVED, 1L, 0)));
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        verify(outboxRepository, never()).incrementAttempts(1L);
+        verify(outboxRepository).incrementAttempts(3L);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(0.0, meterRegistry.get("shareit.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void relay_ShouldDoNothingOnEmptyOutbox() {
+        when(outboxRepository.findAllByOrderByIdAsc(Limit.of(10))).thenReturn(List.of());
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        assertEquals(0, relay.relay());
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private OutboxEvent event(Long id, OutboxEventType type, Long aggregateId, int attempts) {
+        return new OutboxEvent(id, type.getAggregateType(), aggregateId, type, "{}", attempts, now.minusMinutes(1));
+    }
+}
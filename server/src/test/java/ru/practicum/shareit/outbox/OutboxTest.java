@@ -0,0 +1,49 @@
+package ru.practicum.shareit.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxTest {
+
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void record_ShouldWriteEventInCallerTransaction() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            outbox.record(OutboxEventType.REQUEST_CREATED, 4_242_424L, Map.of("description", "Нужна дрель"));
+            // Незафиксированное событие видно только этой транзакции, ретранслятор его не заберёт
+            List<OutboxEvent> written = outboxRepository.findAll().stream()
+                    .filter(event -> event.getAggregateId() == 4_242_424L)
+                    .toList();
+            status.setRollbackOnly();
+            return written;
+        });
+
+        assertEquals(1, events.size());
+        assertEquals(AggregateType.REQUEST, events.getFirst().getAggregateType());
+        assertEquals("{\"description\":\"Нужна дрель\"}", events.getFirst().getPayload());
+        assertTrue(outboxRepository.findAll().stream().noneMatch(event -> event.getAggregateId() == 4_242_424L));
+    }
+
+    @Test
+    void record_ShouldRequireTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outbox.record(OutboxEventType.ITEM_CREATED, 1L, Map.of()));
+    }
+}
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -20,6 +22,9 @@ class ItemRequestControllerTest {
     @Mock
     private ItemRequestService itemRequestService;
 
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60_000);
+
     @InjectMocks
     private ItemRequestController itemRequestController;
 
@@ -33,7 +38,7 @@ class ItemRequestControllerTest {
     void createRequest_ShouldReturnCreatedRequest() {
         when(itemRequestService.createRequest(any(), anyLong())).thenReturn(responseDto);
 
-        ItemRequestDto result = itemRequestController.createRequest(requestDto, userId);
+        ItemRequestDto result = itemRequestController.createRequest(requestDto, userId, null);
 
         assertEquals(responseDto, result);
         verify(itemRequestService).createRequest(requestDto, userId);
@@ -9,6 +9,8 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.UserService;
@@ -34,6 +36,9 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private ItemRequestService itemRequestService;
 
@@ -58,6 +63,7 @@ class ItemRequestServiceTest {
         assertEquals(requestId, result.getId());
         assertEquals("Нужна дрель", result.getDescription());
         verify(itemRequestRepository).save(any(ItemRequest.class));
+        verify(outbox).record(OutboxEventType.REQUEST_CREATED, requestId, result);
     }
 
     @Test
@@ -52,7 +52,7 @@ class UserControllerTest {
         UserDto expectedDto = new UserDto();
         when(userService.getUserById(userId)).thenReturn(expectedDto);
 
-        UserDto result = userController.getUserById(userId);
+        UserDto result = userController.getUserById(userId).getBody();
 
         assertEquals(expectedDto, result);
         verify(userService).getUserById(userId);
@@ -77,11 +77,11 @@ class UserControllerTest {
         Long userId = 1L;
         UserUpdateDto updateDto = new UserUpdateDto();
         UserDto expectedDto = new UserDto();
-        when(userService.updateUser(userId, updateDto)).thenReturn(expectedDto);
+        when(userService.updateUser(userId, updateDto, null)).thenReturn(expectedDto);
 
-        UserDto result = userController.updateUser(userId, updateDto);
+        UserDto result = userController.updateUser(userId, updateDto, null).getBody();
 
         assertEquals(expectedDto, result);
-        verify(userService).updateUser(userId, updateDto);
+        verify(userService).updateUser(userId, updateDto, null);
     }
 }
\ No newline at end of file
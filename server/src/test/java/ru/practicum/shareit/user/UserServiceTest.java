@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +23,8 @@ class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
 
     @InjectMocks
     private UserService userService;
@@ -127,7 +130,7 @@ class UserServiceTest {
         when(userRepository.existsByEmailAndIdNot(updateDto.getEmail(), userId)).thenReturn(false);
         when(userRepository.save(existingUser)).thenReturn(existingUser);
 
-        UserDto result = userService.updateUser(userId, updateDto);
+        UserDto result = userService.updateUser(userId, updateDto, null);
 
         assertNotNull(result);
         assertEquals(updateDto.getEmail(), result.getEmail());
@@ -147,7 +150,7 @@ class UserServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
         when(userRepository.existsByEmailAndIdNot(updateDto.getEmail(), userId)).thenReturn(true);
 
-        assertThrows(RuntimeException.class, () -> userService.updateUser(userId, updateDto));
+        assertThrows(RuntimeException.class, () -> userService.updateUser(userId, updateDto, null));
         verify(userRepository).findById(userId);
         verify(userRepository).existsByEmailAndIdNot(updateDto.getEmail(), userId);
         verify(userRepository, never()).save(any());
@@ -163,7 +166,7 @@ class UserServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
         when(userRepository.save(existingUser)).thenReturn(existingUser);
 
-        UserDto result = userService.updateUser(userId, updateDto);
+        UserDto result = userService.updateUser(userId, updateDto, null);
 
         assertNotNull(result);
         assertEquals(existingUser.getEmail(), result.getEmail());